@@ -0,0 +1,108 @@
+package org.example.benchmark;
+
+import org.example.dto.BookingRequest;
+import org.example.service.BookingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latency of {@link BookingService#createBooking} end to end against the embedded H2 database:
+ * hold, mock payment and confirm, three transactions per call. Each booking is cancelled after
+ * the measured call so a flight's inventory, and with it the cost of finding seats, stays the
+ * same for the whole run. Bookers spread over {@code flights} flights, so {@code flights=1} is the
+ * on-sale hot spot where every booking queues on the same flight row.
+ *
+ * <pre>mvn -Pbenchmark -DskipTests verify -Djmh.args="BookingBenchmark"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingBenchmark {
+    
+    @Param({"180", "853"})
+    public int seats;
+    
+    @Param({"1", "8"})
+    public int flights;
+    
+    @Param({"2"})
+    public int passengers;
+    
+    private EmbeddedApplication application;
+    
+    private BookingService bookingService;
+    
+    private long[] flightIds;
+    
+    private final AtomicInteger bookers = new AtomicInteger();
+    
+    @State(Scope.Thread)
+    public static class Booker {
+        
+        private BookingRequest request;
+        
+        private String bookingId;
+        
+        @Setup
+        public void setUp(BookingBenchmark benchmark) {
+            int booker = benchmark.bookers.getAndIncrement();
+            request = new BookingRequest();
+            request.setFlightId(benchmark.flightIds[booker % benchmark.flightIds.length]);
+            request.setNumberOfPassengers(benchmark.passengers);
+            request.setPaxDetails("Ada Lovelace, Alan Turing");
+            request.setBookedBy("booker" + booker + "@example.com");
+        }
+        
+        // A call takes milliseconds, so per-invocation teardown does not skew the timing
+        @TearDown(Level.Invocation)
+        public void cancel(BookingBenchmark benchmark) {
+            if (bookingId != null) {
+                benchmark.bookingService.cancelBooking(bookingId);
+                bookingId = null;
+            }
+        }
+    }
+    
+    @Setup
+    public void setUp() {
+        application = EmbeddedApplication.start();
+        bookingService = application.getBean(BookingService.class);
+        flightIds = new long[flights];
+        for (int i = 0; i < flights; i++) {
+            flightIds[i] = application.addFlight("BM" + i, "LHR", "JFK", 30, seats).getId();
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        application.close();
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public String createBooking(Booker booker) {
+        return book(booker);
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public String createBooking4Threads(Booker booker) {
+        return book(booker);
+    }
+    
+    @Benchmark
+    @Threads(16)
+    public String createBooking16Threads(Booker booker) {
+        return book(booker);
+    }
+    
+    private String book(Booker booker) {
+        booker.bookingId = bookingService.createBooking(booker.request).getBookingId();
+        return booker.bookingId;
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.benchmark;
+
+import org.example.FlightBookingSystemApplication;
+import org.example.dto.FlightRequest;
+import org.example.dto.FlightResponse;
+import org.example.service.FlightService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * The application wired as in production but against its embedded H2 database, without the web
+ * server and with SQL logging off, for benchmarks that measure whole service calls. One context
+ * per benchmark trial; JMH forks a fresh JVM for each benchmark, so trials never share data.
+ */
+final class EmbeddedApplication implements AutoCloseable {
+    
+    private final ConfigurableApplicationContext context;
+    
+    private EmbeddedApplication(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+    
+    static EmbeddedApplication start() {
+        return start(
+            "--spring.jpa.show-sql=false",
+            "--logging.level.root=WARN",
+            "--logging.level.org.example=WARN",
+            "--logging.level.org.hibernate.SQL=WARN",
+            "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+            "--logging.level.org.springframework.web=WARN");
+    }
+    
+    /**
+     * Starts with the logging configuration from application.yml, the active profile and
+     * {@code args}, for benchmarks that measure logging itself.
+     */
+    static EmbeddedApplication startWithLogging(String... args) {
+        return start(args);
+    }
+    
+    private static EmbeddedApplication start(String... args) {
+        String[] base = {
+            "--spring.main.banner-mode=off",
+            "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+            "--spring.jpa.properties.hibernate.format_sql=false",
+            "--spring.cache.type=simple"};
+        String[] all = Arrays.copyOf(base, base.length + args.length);
+        System.arraycopy(args, 0, all, base.length, args.length);
+        return new EmbeddedApplication(new SpringApplicationBuilder(FlightBookingSystemApplication.class)
+            .web(WebApplicationType.NONE)
+            // Arguments rather than default properties, which application.yml would override
+            .run(all));
+    }
+    
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+    
+    /**
+     * Adds a scheduled flight departing {@code daysAhead} days from now at noon.
+     */
+    FlightResponse addFlight(String flightNumber, String from, String to, int daysAhead, int seats) {
+        LocalDateTime departure = LocalDateTime.now().plusDays(daysAhead).withHour(12).withMinute(0).withSecond(0).withNano(0);
+        FlightRequest request = new FlightRequest();
+        request.setFlightNumber(flightNumber);
+        request.setFrom(from);
+        request.setTo(to);
+        request.setDepartureTime(departure);
+        request.setArrivalTime(departure.plusHours(3));
+        request.setPrice(new BigDecimal("199.00"));
+        request.setMaxPassengers(seats);
+        return getBean(FlightService.class).addFlight(request);
+    }
+    
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.benchmark;
+
+import org.example.dto.FlightResponse;
+import org.example.dto.SearchFlightRequest;
+import org.example.service.FlightService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link FlightService#searchFlights} against the embedded H2 database, by the
+ * number of flights a search returns. Other routes and days are loaded alongside so the query has
+ * to filter rather than return the whole table. With several threads, identical searches are
+ * coalesced into one query, so those scores include the coalescing.
+ *
+ * <pre>mvn -Pbenchmark -DskipTests verify -Djmh.args="FlightSearchBenchmark"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlightSearchBenchmark {
+    
+    // Flights on the searched route and day
+    @Param({"10", "100"})
+    public int flightsPerRoute;
+    
+    private static final String[] AIRPORTS = {"LHR", "JFK", "CDG", "FRA", "DXB"};
+    
+    private EmbeddedApplication application;
+    
+    private FlightService flightService;
+    
+    private SearchFlightRequest request;
+    
+    @Setup
+    public void setUp() {
+        application = EmbeddedApplication.start();
+        flightService = application.getBean(FlightService.class);
+        int flightNumber = 0;
+        for (String from : AIRPORTS) {
+            for (String to : AIRPORTS) {
+                if (from.equals(to)) {
+                    continue;
+                }
+                for (int day = 30; day < 33; day++) {
+                    for (int i = 0; i < flightsPerRoute; i++) {
+                        application.addFlight("FS" + flightNumber++, from, to, day, 180);
+                    }
+                }
+            }
+        }
+        request = new SearchFlightRequest("LHR", "JFK", 2, LocalDateTime.now().plusDays(31));
+    }
+    
+    @TearDown
+    public void tearDown() {
+        application.close();
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public List<FlightResponse> searchFlights() {
+        return flightService.searchFlights(request);
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public List<FlightResponse> searchFlights8Threads() {
+        return flightService.searchFlights(request);
+    }
+}
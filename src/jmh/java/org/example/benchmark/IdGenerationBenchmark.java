@@ -0,0 +1,91 @@
+package org.example.benchmark;
+
+import org.example.service.BookingIdService;
+import org.example.service.PnrPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a booking id and a PNR, alone and with 8 threads booking at once. The {@code uuid}
+ * benchmarks are the previous scheme, slices of {@link UUID#randomUUID()}, which takes the
+ * shared {@code SecureRandom} lock on every call; {@link BookingIdService} issues Snowflake ids
+ * with one compare-and-set and takes PNRs from the {@link PnrPool}, whose ranges are reserved in
+ * the embedded H2 database in the background. A benchmark thread drains the pool far faster than
+ * bookings ever would, so the pool benchmarks mostly measure range reservation; taking a code from
+ * a reserved range costs about the same as a booking id.
+ *
+ * <pre>mvn -Pbenchmark -DskipTests verify -Djmh.args="IdGenerationBenchmark"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdGenerationBenchmark {
+    
+    private EmbeddedApplication application;
+    
+    private BookingIdService bookingIdService;
+    
+    @Setup
+    public void setUp() {
+        application = EmbeddedApplication.start();
+        bookingIdService = application.getBean(BookingIdService.class);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        application.close();
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public String uuidBookingId() {
+        return "BK" + System.currentTimeMillis() + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public String uuidBookingIdContended() {
+        return uuidBookingId();
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public String uuidPnr() {
+        return UUID.randomUUID().toString().substring(0, 6).toUpperCase();
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public String uuidPnrContended() {
+        return uuidPnr();
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public String snowflakeBookingId() {
+        return bookingIdService.nextBookingId();
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public String snowflakeBookingIdContended() {
+        return bookingIdService.nextBookingId();
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public String poolPnr() {
+        return bookingIdService.nextPnr();
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public String poolPnrContended() {
+        return bookingIdService.nextPnr();
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.example.dto.BookingResponse;
+import org.example.dto.FlightResponse;
+import org.example.enums.BookingStatus;
+import org.example.enums.FlightStatus;
+import org.example.enums.PaymentStatus;
+import org.example.json.CachedWriterJsonConverter;
+import org.example.json.IsoLocalDateTimeSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the flight list and booking list responses through the JSON message converter, as the
+ * controllers do, into a reused buffer. {@code default} is Spring's converter over Boot's default
+ * mapper; {@code tuned} is what {@code JacksonConfig} installs. The {@code bytes} counter gives
+ * bytes written per second; run with {@code -prof gc} for allocation per response
+ * ({@code gc.alloc.rate.norm}).
+ *
+ * <pre>mvn -Pbenchmark -DskipTests verify -Djmh.args="JsonSerializationBenchmark -prof gc"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    
+    private static final Type FLIGHT_LIST = new ParameterizedTypeReference<List<FlightResponse>>() {}.getType();
+    
+    private static final Type BOOKING_LIST = new ParameterizedTypeReference<List<BookingResponse>>() {}.getType();
+    
+    @Param({"default", "tuned"})
+    public String converter;
+    
+    @Param({"1", "50", "500"})
+    public int size;
+    
+    private MappingJackson2HttpMessageConverter jsonConverter;
+    
+    private List<FlightResponse> flights;
+    
+    private List<BookingResponse> bookings;
+    
+    /**
+     * Bytes written, reported as a rate.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Written {
+        
+        public long bytes;
+    }
+    
+    @State(Scope.Thread)
+    public static class Response implements HttpOutputMessage {
+        
+        private final HttpHeaders headers = new HttpHeaders();
+        
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(256 * 1024);
+        
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+        
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+        
+        void reset(Written written) {
+            written.bytes += body.size();
+            body.reset();
+        }
+    }
+    
+    @Setup
+    public void setUp() {
+        if ("tuned".equals(converter)) {
+            ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new BlackbirdModule())
+                .serializerByType(LocalDateTime.class, new IsoLocalDateTimeSerializer())
+                .build();
+            jsonConverter = new CachedWriterJsonConverter(objectMapper);
+        } else {
+            jsonConverter = new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build());
+        }
+        
+        LocalDateTime departure = LocalDateTime.of(2030, 6, 1, 9, 30);
+        LocalDateTime created = LocalDateTime.of(2029, 11, 14, 16, 2, 11, 482_913_000);
+        flights = new ArrayList<>(size);
+        bookings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            FlightResponse flight = new FlightResponse();
+            flight.setId((long) i);
+            flight.setFlightNumber("BA" + (100 + i));
+            flight.setFrom("LHR");
+            flight.setTo("JFK");
+            flight.setDepartureTime(departure.plusMinutes(15L * i));
+            flight.setArrivalTime(departure.plusMinutes(15L * i + 480));
+            flight.setStatus(FlightStatus.SCHEDULED);
+            flight.setPrice(new BigDecimal("499.00"));
+            flight.setMaxPassengers(180);
+            flight.setAvailableSeats(120);
+            flight.setCreatedAt(created);
+            flight.setUpdatedAt(created);
+            flights.add(flight);
+            
+            BookingResponse booking = new BookingResponse();
+            booking.setBookingId("BK0" + (1_000_000_000_000L + i));
+            booking.setFlightId((long) i);
+            booking.setBookedBy("booker@example.com");
+            booking.setPaxDetails("Ada Lovelace, Alan Turing");
+            booking.setNumberOfPassengers(2);
+            booking.setTotalPrice(new BigDecimal("998.00"));
+            booking.setStatus(BookingStatus.CONFIRMED);
+            booking.setPaymentStatus(PaymentStatus.COMPLETED);
+            booking.setPaymentId("PAY" + i);
+            booking.setPnr("7KQ2XM");
+            booking.setAssignedSeats(Arrays.asList("12A", "12B"));
+            booking.setCreatedAt(created);
+            booking.setUpdatedAt(created);
+            bookings.add(booking);
+        }
+    }
+    
+    @Benchmark
+    public void flightList(Response response, Written written) throws Exception {
+        jsonConverter.write(flights, FLIGHT_LIST, MediaType.APPLICATION_JSON, response);
+        response.reset(written);
+    }
+    
+    @Benchmark
+    public void bookingList(Response response, Written written) throws Exception {
+        jsonConverter.write(bookings, BOOKING_LIST, MediaType.APPLICATION_JSON, response);
+        response.reset(written);
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.benchmark;
+
+import org.example.dto.BookingRequest;
+import org.example.service.BookingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Booking throughput under each logging configuration, with 8 threads booking and cancelling
+ * concurrently so contention on the appender shows:
+ *
+ * <ul>
+ *   <li>{@code statements}: every SQL statement and bind parameter logged, as before statistics
+ *       replaced statement logging</li>
+ *   <li>{@code default}: application.yml, synchronous console appender with DEBUG for org.example</li>
+ *   <li>{@code prod}: the prod profile, JSON through the async appender at INFO</li>
+ * </ul>
+ *
+ * Standard output goes to {@code target/jmh-logging-<config>.log} for the trial, so the cost of
+ * writing is real but the JMH console stays readable.
+ *
+ * <pre>mvn -Pbenchmark -DskipTests verify -Djmh.args="LoggingBenchmark"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class LoggingBenchmark {
+    
+    private static final int FLIGHTS = 8;
+    
+    @Param({"statements", "default", "prod"})
+    public String config;
+    
+    private EmbeddedApplication application;
+    
+    private BookingService bookingService;
+    
+    private long[] flightIds;
+    
+    private PrintStream console;
+    
+    private final AtomicInteger bookers = new AtomicInteger();
+    
+    @State(Scope.Thread)
+    public static class Booker {
+        
+        private BookingRequest request;
+        
+        @Setup
+        public void setUp(LoggingBenchmark benchmark) {
+            int booker = benchmark.bookers.getAndIncrement();
+            request = new BookingRequest();
+            request.setFlightId(benchmark.flightIds[booker % FLIGHTS]);
+            request.setNumberOfPassengers(2);
+            request.setPaxDetails("Ada Lovelace, Alan Turing");
+            request.setBookedBy("booker" + booker + "@example.com");
+        }
+    }
+    
+    @Setup
+    public void setUp() throws FileNotFoundException {
+        console = System.out;
+        System.setOut(new PrintStream(new FileOutputStream("target/jmh-logging-" + config + ".log"), true));
+        application = start(config);
+        bookingService = application.getBean(BookingService.class);
+        flightIds = new long[FLIGHTS];
+        for (int i = 0; i < FLIGHTS; i++) {
+            flightIds[i] = application.addFlight("LG" + i, "LHR", "JFK", 30, 180).getId();
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        application.close();
+        System.out.close();
+        System.setOut(console);
+    }
+    
+    // Cancelling keeps the flights' inventory, and so the cost of finding seats, constant
+    @Benchmark
+    public void bookAndCancel(Booker booker) {
+        bookingService.cancelBooking(bookingService.createBooking(booker.request).getBookingId());
+    }
+    
+    private static EmbeddedApplication start(String config) {
+        switch (config) {
+            case "statements":
+                return EmbeddedApplication.startWithLogging(
+                    "--spring.jpa.show-sql=true",
+                    "--logging.level.org.hibernate.SQL=DEBUG",
+                    "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=TRACE");
+            case "prod":
+                return EmbeddedApplication.startWithLogging("--spring.profiles.active=prod");
+            default:
+                return EmbeddedApplication.startWithLogging();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.benchmark;
+
+import org.example.enums.BookingStatus;
+import org.example.enums.FlightStatus;
+import org.example.enums.PaymentStatus;
+import org.example.model.Booking;
+import org.example.model.BookingSeat;
+import org.example.model.Flight;
+import org.example.service.BookingService;
+import org.example.service.FlightService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the in-memory work on every booking and search response: entity to response mapping.
+ * Booking id and PNR generation is measured by {@link IdGenerationBenchmark}. The methods are private, so they are called through cached
+ * {@link Method} handles; that adds a few nanoseconds per call, which is the same for every
+ * release and cancels out when comparing results.
+ *
+ * <pre>mvn -Pbenchmark -DskipTests verify -Djmh.args="MappingBenchmark"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+    
+    private FlightService flightService;
+    
+    private BookingService bookingService;
+    
+    private Method flightToResponse;
+    
+    private Method bookingToResponse;
+    
+    private Flight flight;
+    
+    /**
+     * A confirmed booking with {@code assignedSeats} seats; only booking mapping depends on it.
+     */
+    @State(Scope.Benchmark)
+    public static class ConfirmedBooking {
+        
+        @Param({"1", "9"})
+        public int assignedSeats;
+        
+        private Booking booking;
+        
+        @Setup
+        public void setUp() {
+            booking = new Booking();
+            booking.setId(1L);
+            booking.setBookingId("BK1700000000000ABCDEF12");
+            booking.setFlightId(1L);
+            booking.setBookedBy("booker@example.com");
+            booking.setPaxDetails("Ada Lovelace");
+            booking.setNumberOfPassengers(assignedSeats);
+            booking.setTotalPrice(new BigDecimal("499.00").multiply(BigDecimal.valueOf(assignedSeats)));
+            booking.setPaymentId("PAY123");
+            booking.setStatus(BookingStatus.CONFIRMED);
+            booking.setPaymentStatus(PaymentStatus.COMPLETED);
+            booking.setPnr("ABC123");
+            List<BookingSeat> seats = new ArrayList<>(assignedSeats);
+            for (int i = 0; i < assignedSeats; i++) {
+                BookingSeat seat = new BookingSeat();
+                seat.setSeatId((12 + i / 6) + String.valueOf((char) ('A' + i % 6)));
+                seats.add(seat);
+            }
+            booking.setAssignedSeats(seats);
+        }
+    }
+    
+    @Setup
+    public void setUp() throws Exception {
+        flightService = new FlightService();
+        bookingService = new BookingService();
+        flightToResponse = method(FlightService.class, "convertToResponse", Flight.class);
+        bookingToResponse = method(BookingService.class, "convertToResponse", Booking.class);
+        
+        LocalDateTime departure = LocalDateTime.now().plusDays(30);
+        flight = new Flight();
+        flight.setId(1L);
+        flight.setFlightNumber("BA117");
+        flight.setFrom("LHR");
+        flight.setTo("JFK");
+        flight.setDepartureTime(departure);
+        flight.setArrivalTime(departure.plusHours(8));
+        flight.setStatus(FlightStatus.SCHEDULED);
+        flight.setPrice(new BigDecimal("499.00"));
+        flight.setMaxPassengers(180);
+        flight.setAvailableSeats(120);
+    }
+    
+    @Benchmark
+    public Object flightResponse() throws Exception {
+        return flightToResponse.invoke(flightService, flight);
+    }
+    
+    @Benchmark
+    public Object bookingResponse(ConfirmedBooking confirmed) throws Exception {
+        return bookingToResponse.invoke(bookingService, confirmed.booking);
+    }
+    
+    private static Method method(Class<?> type, String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        Method method = type.getDeclaredMethod(name, parameterTypes);
+        method.setAccessible(true);
+        return method;
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.benchmark;
+
+import org.example.model.OutboxEvent;
+import org.example.repository.OutboxEventRepository;
+import org.example.service.OutboxRelay;
+import org.example.service.RabbitEventPublisher;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Messages per second for outbox event fan-out as a function of batch size. The database and
+ * broker are stand-ins that charge a fixed round-trip latency per call, so the numbers show how
+ * much batching amortises round trips rather than absolute throughput against a real RabbitMQ.
+ *
+ * <pre>mvn -Pbenchmark -DskipTests verify -Djmh.args="MessagingBenchmark"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessagingBenchmark {
+    
+    @Param({"1", "10", "50"})
+    public int batchSize;
+    
+    // Simulated database round trip and broker confirm latency
+    @Param({"500"})
+    public long latencyMicros;
+    
+    private ScheduledExecutorService broker;
+    
+    private OutboxRelay outboxRelay;
+    
+    /**
+     * Counts messages rather than benchmark invocations, so scores read as messages/sec.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Messages {
+        public long messages;
+    }
+    
+    @Setup
+    public void setUp() {
+        broker = Executors.newSingleThreadScheduledExecutor();
+        
+        List<OutboxEvent> pending = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            OutboxEvent event = new OutboxEvent("Booking", "BK" + i, "BookingConfirmed",
+                "booking.exchange", "booking.confirmed", "org.example.event.BookingEvent", "{\"bookingId\":\"BK" + i + "\"}");
+            event.setId((long) i);
+            pending.add(event);
+        }
+        outboxRelay = new OutboxRelay();
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", batchSize);
+        ReflectionTestUtils.setField(outboxRelay, "confirmTimeout", 5000L);
+        RabbitEventPublisher rabbitEventPublisher = new RabbitEventPublisher();
+        ReflectionTestUtils.setField(rabbitEventPublisher, "rabbitTemplate", new StandInRabbitTemplate());
+        ReflectionTestUtils.setField(outboxRelay, "eventPublisher", rabbitEventPublisher);
+        ReflectionTestUtils.setField(outboxRelay, "outboxEventRepository", stub(OutboxEventRepository.class, (method, args) -> {
+            switch (method) {
+                case "findByPublishedAtIsNullAndFailedAtIsNullOrderByIdAsc":
+                    roundTrip();
+                    return pending;
+                case "markPublished":
+                    roundTrip();
+                    return ((Collection<?>) args[0]).size();
+                default:
+                    throw new UnsupportedOperationException(method);
+            }
+        }));
+    }
+    
+    @TearDown
+    public void tearDown() {
+        broker.shutdownNow();
+    }
+    
+    @Benchmark
+    public int eventFanOut(Messages counter) throws Exception {
+        int published = outboxRelay.relayBatch();
+        counter.messages += published;
+        return published;
+    }
+    
+    private void roundTrip() {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(latencyMicros));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, StubHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+            (proxy, method, args) -> method.getDeclaringClass() == Object.class
+                ? method.invoke(handler, args)
+                : handler.invoke(method.getName(), args));
+    }
+    
+    private interface StubHandler {
+        Object invoke(String method, Object[] args);
+    }
+    
+    /**
+     * Accepts publishes immediately and confirms each one after the simulated broker latency,
+     * the way a broker acks once a persistent message has been written.
+     */
+    private class StandInRabbitTemplate extends RabbitTemplate {
+        
+        @Override
+        public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+            broker.schedule(() -> correlationData.getFuture().set(new CorrelationData.Confirm(true, null)),
+                latencyMicros, TimeUnit.MICROSECONDS);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.benchmark;
+
+import org.example.util.SeatAllocator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of finding seats for one party with {@link SeatAllocator} against a first-fit linear scan
+ * over the seats, on an empty cabin, a fragmented one (about 60% of seats taken at random) and a
+ * nearly full one (about 95% taken). Each invocation allocates and then frees the party's seats
+ * so the cabin stays the same throughout a run.
+ *
+ * <pre>mvn -Pbenchmark -DskipTests verify -Djmh.args="SeatAllocationBenchmark"</pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeatAllocationBenchmark {
+    
+    private static final int COLUMNS = 6;
+    
+    @Param({"empty", "fragmented", "nearlyFull"})
+    public String cabin;
+    
+    @Param({"30", "300"})
+    public int rows;
+    
+    @Param({"2", "4", "9"})
+    public int partySize;
+    
+    private SeatAllocator allocator;
+    
+    // Free flags in seat order, the shape the seats table hands back
+    private boolean[] free;
+    
+    private int startRow;
+    
+    @Setup
+    public void setUp() {
+        double taken = "empty".equals(cabin) ? 0 : "fragmented".equals(cabin) ? 0.6 : 0.95;
+        Random random = new Random(7);
+        allocator = new SeatAllocator(rows, COLUMNS);
+        free = new boolean[rows * COLUMNS];
+        for (int ordinal = 0; ordinal < free.length; ordinal++) {
+            if (random.nextDouble() >= taken) {
+                free[ordinal] = true;
+                allocator.release(ordinal);
+            }
+        }
+        // Start where concurrent bookers would, somewhere in the middle of the cabin
+        startRow = rows / 2;
+    }
+    
+    @Benchmark
+    public int[] allocator() {
+        int[] seats = allocator.allocate(partySize, startRow);
+        if (seats != null) {
+            for (int ordinal : seats) {
+                allocator.release(ordinal);
+            }
+        }
+        return seats;
+    }
+    
+    @Benchmark
+    public int[] linearScan() {
+        // First row with a long enough run, otherwise the first free seats in order
+        int[] seats = new int[partySize];
+        if (partySize <= COLUMNS) {
+            for (int row = 0; row < rows; row++) {
+                int run = 0;
+                for (int column = 0; column < COLUMNS; column++) {
+                    run = free[row * COLUMNS + column] ? run + 1 : 0;
+                    if (run == partySize) {
+                        int first = row * COLUMNS + column - partySize + 1;
+                        for (int i = 0; i < partySize; i++) {
+                            seats[i] = first + i;
+                        }
+                        return seats;
+                    }
+                }
+            }
+        }
+        int filled = 0;
+        for (int ordinal = 0; ordinal < free.length && filled < partySize; ordinal++) {
+            if (free[ordinal]) {
+                seats[filled++] = ordinal;
+            }
+        }
+        return filled == partySize ? seats : null;
+    }
+}
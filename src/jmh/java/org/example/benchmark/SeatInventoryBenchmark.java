@@ -0,0 +1,70 @@
+package org.example.benchmark;
+
+import org.example.enums.SeatFallbackPolicy;
+import org.example.model.Seat;
+import org.example.service.SeatService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@link SeatService#getAvailableSeatsSequentially} against the embedded H2 database,
+ * by aircraft size and by how much of the flight is already sold. Each call is one query for the
+ * taken seat ordinals plus clearing them out of the flight's sellable seats in memory.
+ *
+ * <pre>mvn -Pbenchmark -DskipTests verify -Djmh.args="SeatInventoryBenchmark"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeatInventoryBenchmark {
+    
+    @Param({"180", "853"})
+    public int seats;
+    
+    // Percentage of the flight held before measuring
+    @Param({"0", "50", "95"})
+    public int occupancy;
+    
+    @Param({"4"})
+    public int passengers;
+    
+    private EmbeddedApplication application;
+    
+    private SeatService seatService;
+    
+    private Long flightId;
+    
+    @Setup
+    public void setUp() {
+        application = EmbeddedApplication.start();
+        seatService = application.getBean(SeatService.class);
+        flightId = application.addFlight("SI1", "LHR", "JFK", 30, seats).getId();
+        int held = seats * occupancy / 100;
+        // In small parties, so the sold seats are scattered the way bookings leave them
+        for (int i = 0; i < held; i += 9) {
+            seatService.holdSeats(flightId, Math.min(9, held - i), null, SeatFallbackPolicy.ANY_AVAILABLE, "setup-" + i);
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        application.close();
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public List<Seat> availableSeats() {
+        return seatService.getAvailableSeatsSequentially(flightId, passengers);
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public List<Seat> availableSeats8Threads() {
+        return seatService.getAvailableSeatsSequentially(flightId, passengers);
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks the database once traffic has stopped: no flight has more seats booked than it sells, no
+ * seat is sold twice, and each flight's available-seat count and occupied seat rows agree with its
+ * live bookings, so a seat was neither sold twice nor lost.
+ */
+class InventoryCheck {
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    InventoryCheck(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    List<String> violations() {
+        List<String> violations = new ArrayList<>();
+        List<Map<String, Object>> flights = jdbcTemplate.queryForList(
+            "SELECT f.id, f.flight_number, f.max_passengers, f.available_seats, "
+                + "(SELECT COALESCE(SUM(b.number_of_passengers), 0) FROM bookings b "
+                + "  WHERE b.flight_id = f.id AND b.status IN ('PENDING', 'CONFIRMED')) AS booked, "
+                + "(SELECT COALESCE(SUM(b.number_of_passengers), 0) FROM bookings b "
+                + "  WHERE b.flight_id = f.id AND b.status = 'CONFIRMED') AS confirmed, "
+                + "(SELECT COUNT(*) FROM seats s WHERE s.flight_id = f.id AND s.status = 'OCCUPIED') AS occupied "
+                + "FROM flights f");
+        for (Map<String, Object> flight : flights) {
+            String name = flight.get("flight_number") + " (" + flight.get("id") + ")";
+            long capacity = number(flight, "max_passengers");
+            long available = number(flight, "available_seats");
+            long booked = number(flight, "booked");
+            long confirmed = number(flight, "confirmed");
+            long occupied = number(flight, "occupied");
+            if (booked > capacity) {
+                violations.add("Oversold " + name + ": " + booked + " seats booked, " + capacity + " for sale");
+            }
+            if (available + booked != capacity) {
+                violations.add("Seat count drift on " + name + ": " + available + " available + " + booked
+                    + " booked != " + capacity + " for sale");
+            }
+            if (occupied != confirmed) {
+                violations.add("Seat rows disagree with bookings on " + name + ": " + occupied
+                    + " seats occupied, " + confirmed + " confirmed passengers");
+            }
+        }
+        
+        List<Map<String, Object>> doubleSold = jdbcTemplate.queryForList(
+            "SELECT b.flight_id, bs.seat_id, COUNT(*) AS sold FROM booking_seats bs "
+                + "JOIN bookings b ON b.id = bs.booking_id WHERE b.status = 'CONFIRMED' "
+                + "GROUP BY b.flight_id, bs.seat_id HAVING COUNT(*) > 1");
+        for (Map<String, Object> seat : doubleSold) {
+            violations.add("Seat " + seat.get("seat_id") + " on flight " + seat.get("flight_id")
+                + " sold " + seat.get("sold") + " times");
+        }
+        return violations;
+    }
+    
+    private static long number(Map<String, Object> row, String column) {
+        // H2 upper-cases unquoted column labels
+        Object value = row.containsKey(column) ? row.get(column) : row.get(column.toUpperCase());
+        return ((Number) value).longValue();
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.loadtest;
+
+import org.example.dto.BookingRequest;
+import org.example.dto.BookingResponse;
+import org.example.dto.FlightResponse;
+import org.example.dto.SearchFlightRequest;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop HTTP load: requests are sent on a schedule set by the phase's arrival rate rather than
+ * when earlier ones complete, the way real users arrive, and at most {@code concurrency} are in
+ * flight. Confirmed bookings are remembered so later cancellations have something to cancel.
+ */
+class LoadDriver {
+    
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    
+    private final WebClient webClient;
+    
+    private final ConnectionProvider connections;
+    
+    private final Semaphore inFlight;
+    
+    private final int concurrency;
+    
+    private final AtomicLong bookers = new AtomicLong();
+    
+    private final Queue<String> confirmedBookings = new ConcurrentLinkedQueue<>();
+    
+    private List<FlightResponse> flights;
+    
+    LoadDriver(WebClient.Builder webClientBuilder, String baseUrl, int concurrency) {
+        // The default pool queues only a limited number of requests for a connection, which would
+        // fail requests on the client side under load
+        this.connections = ConnectionProvider.builder("load-test")
+            .maxConnections(concurrency)
+            .pendingAcquireMaxCount(-1)
+            .build();
+        this.webClient = webClientBuilder
+            .baseUrl(baseUrl)
+            .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+            .build();
+        this.concurrency = concurrency;
+        this.inFlight = new Semaphore(concurrency);
+    }
+    
+    void useFlights(List<FlightResponse> flights, List<String> confirmedBookings) {
+        this.flights = flights;
+        this.confirmedBookings.clear();
+        this.confirmedBookings.addAll(confirmedBookings);
+    }
+    
+    LoadReport run(String title, Phase phase) throws InterruptedException {
+        long durationNanos = phase.duration.toNanos();
+        LoadReport report = new LoadReport(title, durationNanos);
+        long start = System.nanoTime();
+        long next = start;
+        while (next - start < durationNanos) {
+            long now;
+            while ((now = System.nanoTime()) < next) {
+                LockSupport.parkNanos(next - now);
+            }
+            inFlight.acquire();
+            send(phase.mix.next(), next, report);
+            next += (long) (1e9 / phase.rateAt((next - start) / (double) durationNanos));
+        }
+        // Wait for the stragglers
+        inFlight.acquire(concurrency);
+        inFlight.release(concurrency);
+        report.setElapsedNanos(System.nanoTime() - start);
+        return report;
+    }
+    
+    void close() {
+        connections.dispose();
+    }
+    
+    private void send(Operation operation, long intendedStart, LoadReport report) {
+        Mono<Integer> request;
+        switch (operation) {
+            case SEARCH:
+                request = search();
+                break;
+            case BOOK:
+                request = book();
+                break;
+            case CANCEL:
+                String bookingId = confirmedBookings.poll();
+                if (bookingId == null) {
+                    report.recordSkipped(operation);
+                    inFlight.release();
+                    return;
+                }
+                request = cancel(bookingId);
+                break;
+            default:
+                throw new IllegalStateException("Unknown operation " + operation);
+        }
+        request.timeout(REQUEST_TIMEOUT)
+            .doFinally(signal -> inFlight.release())
+            .subscribe(status -> report.recordResponse(operation, intendedStart, status),
+                error -> report.recordError(operation, intendedStart, error));
+    }
+    
+    private Mono<Integer> search() {
+        FlightResponse flight = randomFlight();
+        SearchFlightRequest search = new SearchFlightRequest(flight.getFrom(), flight.getTo(),
+            1 + ThreadLocalRandom.current().nextInt(4), flight.getDepartureTime());
+        return webClient.post().uri("/flights/search")
+            .bodyValue(search)
+            .exchangeToMono(response -> response.releaseBody().thenReturn(response.rawStatusCode()));
+    }
+    
+    private Mono<Integer> book() {
+        long booker = bookers.incrementAndGet();
+        BookingRequest booking = new BookingRequest();
+        booking.setFlightId(randomFlight().getId());
+        booking.setNumberOfPassengers(1 + ThreadLocalRandom.current().nextInt(4));
+        booking.setPaxDetails("Passenger One, Passenger Two, Passenger Three, Passenger Four");
+        booking.setBookedBy("loadtest" + booker + "@example.com");
+        return webClient.post().uri("/bookings")
+            .header("Idempotency-Key", "loadtest-" + booker)
+            .bodyValue(booking)
+            .exchangeToMono(response -> response.statusCode().is2xxSuccessful()
+                ? response.bodyToMono(BookingResponse.class)
+                    .doOnNext(confirmed -> confirmedBookings.add(confirmed.getBookingId()))
+                    .thenReturn(response.rawStatusCode())
+                : response.releaseBody().thenReturn(response.rawStatusCode()));
+    }
+    
+    private Mono<Integer> cancel(String bookingId) {
+        return webClient.put().uri("/bookings/{bookingId}/cancel", bookingId)
+            .exchangeToMono(response -> response.releaseBody().thenReturn(response.rawStatusCode()));
+    }
+    
+    private FlightResponse randomFlight() {
+        return flights.get(ThreadLocalRandom.current().nextInt(flights.size()));
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.loadtest;
+
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Load test options, given as {@code --name=value}. Any option whose name contains a dot is an
+ * application property and is passed to the application under test instead, e.g.
+ * {@code --app.admission.per-flight-rate=200}.
+ */
+class LoadOptions {
+    
+    final List<TrafficProfile> profiles;
+    
+    // Length of each measured phase
+    final Duration duration;
+    
+    // Unreported steady traffic before the first profile, so no profile runs against a cold JVM
+    final Duration warmup;
+    
+    // Arrivals per second for steady traffic, and where the sale-open spike ramps up from
+    final int rate;
+    
+    // Arrivals per second at the height of the sale-open spike and the cancellation storm
+    final int peakRate;
+    
+    // Requests in flight at once; arrivals beyond it wait, and their wait counts towards latency
+    final int concurrency;
+    
+    // Flights searched and booked in steady traffic
+    final int flights;
+    
+    // Flights on sale in the sale-open spike and the cancellation storm
+    final int hotFlights;
+    
+    final int seats;
+    
+    // Fraction of requests that may fail with a server or transport error before the run fails
+    final double maxErrorRate;
+    
+    // Directory for the full HdrHistogram percentile distribution of each operation, if set
+    final String histograms;
+    
+    private final List<String> applicationArgs;
+    
+    LoadOptions(String[] args) {
+        SimpleCommandLinePropertySource options = new SimpleCommandLinePropertySource(args);
+        String profile = value(options, "profile", "all");
+        this.profiles = new ArrayList<>();
+        if ("all".equals(profile)) {
+            profiles.addAll(Arrays.asList(TrafficProfile.values()));
+        } else {
+            for (String name : profile.split(",")) {
+                profiles.add(TrafficProfile.fromName(name.trim()));
+            }
+        }
+        this.duration = Duration.ofSeconds(Long.parseLong(value(options, "duration", "30")));
+        this.warmup = Duration.ofSeconds(Long.parseLong(value(options, "warmup", "10")));
+        this.rate = Integer.parseInt(value(options, "rate", "200"));
+        this.peakRate = Integer.parseInt(value(options, "peak-rate", "1000"));
+        this.concurrency = Integer.parseInt(value(options, "concurrency", "256"));
+        this.flights = Integer.parseInt(value(options, "flights", "20"));
+        this.hotFlights = Integer.parseInt(value(options, "hot-flights", "2"));
+        this.seats = Integer.parseInt(value(options, "seats", "180"));
+        this.maxErrorRate = Double.parseDouble(value(options, "max-error-rate", "0.01"));
+        this.histograms = options.getProperty("histograms");
+        
+        this.applicationArgs = new ArrayList<>();
+        for (String name : options.getPropertyNames()) {
+            if (name.contains(".")) {
+                applicationArgs.add("--" + name + "=" + options.getProperty(name));
+            }
+        }
+    }
+    
+    /**
+     * Arguments for the application under test: the given defaults, then the application
+     * properties from the command line, which win where both set the same property.
+     */
+    String[] applicationArgs(String... defaults) {
+        List<String> args = new ArrayList<>(Arrays.asList(defaults));
+        args.addAll(applicationArgs);
+        return args.toArray(new String[0]);
+    }
+    
+    private static String value(SimpleCommandLinePropertySource options, String name, String defaultValue) {
+        String value = options.getProperty(name);
+        return value != null ? value : defaultValue;
+    }
+}
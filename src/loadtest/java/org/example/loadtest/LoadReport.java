@@ -0,0 +1,172 @@
+package org.example.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcomes of one phase per operation. Latency runs from when a request was due to be sent, not
+ * from when it was sent, so time spent waiting behind a saturated client is counted rather than
+ * hidden (coordinated omission).
+ *
+ * <p>Responses are split three ways: successes, rejections the service makes by design under
+ * load or contention (4xx, and 503 from load shedding), and errors (other 5xx, timeouts and
+ * transport failures). Only errors count against the error-rate limit.
+ */
+class LoadReport {
+    
+    private final String title;
+    
+    private final Map<Operation, OperationStats> operations = new EnumMap<>(Operation.class);
+    
+    private final long durationNanos;
+    
+    private long elapsedNanos;
+    
+    LoadReport(String title, long durationNanos) {
+        this.title = title;
+        this.durationNanos = durationNanos;
+        for (Operation operation : Operation.values()) {
+            operations.put(operation, new OperationStats());
+        }
+    }
+    
+    void recordResponse(Operation operation, long intendedStartNanos, int status) {
+        OperationStats stats = operations.get(operation);
+        stats.latency.recordValue(latencyMicros(intendedStartNanos));
+        stats.statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+    
+    void recordError(Operation operation, long intendedStartNanos, Throwable error) {
+        OperationStats stats = operations.get(operation);
+        stats.latency.recordValue(latencyMicros(intendedStartNanos));
+        stats.failures.computeIfAbsent(error.getClass().getSimpleName(), s -> new LongAdder()).increment();
+    }
+    
+    void recordSkipped(Operation operation) {
+        operations.get(operation).skipped.increment();
+    }
+    
+    // From the first arrival until the last response, including draining requests still in flight
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+    
+    long getRequests() {
+        long requests = 0;
+        for (OperationStats stats : operations.values()) {
+            requests += stats.count();
+        }
+        return requests;
+    }
+    
+    long getErrors() {
+        long errors = 0;
+        for (OperationStats stats : operations.values()) {
+            errors += stats.errors();
+        }
+        return errors;
+    }
+    
+    void print(PrintStream out) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf("%n== %s: %d requests over %.1fs (%.1f/s offered), all answered after %.1fs%n",
+            title, getRequests(), durationNanos / 1e9, getRequests() / (durationNanos / 1e9), seconds);
+        out.printf("%-8s %8s %8s %8s %8s %9s %8s %8s %8s %8s %8s%n",
+            "op", "count", "ok", "rejected", "errors", "ok/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Operation, OperationStats> entry : operations.entrySet()) {
+            OperationStats stats = entry.getValue();
+            if (stats.count() == 0) {
+                continue;
+            }
+            Histogram latency = stats.latency;
+            out.printf("%-8s %8d %8d %8d %8d %9.1f %8.1f %8.1f %8.1f %8.1f %8.1f%n",
+                entry.getKey().name().toLowerCase(), stats.count(), stats.ok(), stats.rejected(), stats.errors(),
+                stats.ok() / seconds, millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(90)),
+                millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)),
+                millis(latency.getMaxValue()));
+            out.printf("         responses %s", new TreeMap<>(stats.statuses));
+            if (!stats.failures.isEmpty()) {
+                out.printf(", failures %s", stats.failures);
+            }
+            if (stats.skipped.sum() > 0) {
+                out.printf(", skipped %d (nothing to cancel)", stats.skipped.sum());
+            }
+            out.println();
+        }
+    }
+    
+    /**
+     * Writes each operation's full percentile distribution, in milliseconds, to
+     * {@code <directory>/<title>-<operation>.hgrm}.
+     */
+    void writeHistograms(String directory) throws FileNotFoundException {
+        new File(directory).mkdirs();
+        for (Map.Entry<Operation, OperationStats> entry : operations.entrySet()) {
+            if (entry.getValue().count() == 0) {
+                continue;
+            }
+            File file = new File(directory, title.replace(' ', '-').replace("/", "") + "-"
+                + entry.getKey().name().toLowerCase() + ".hgrm");
+            try (PrintStream out = new PrintStream(file)) {
+                entry.getValue().latency.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+    
+    private static long latencyMicros(long intendedStartNanos) {
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStartNanos);
+    }
+    
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+    
+    private static class OperationStats {
+        
+        // Up to an hour in microseconds at three significant digits
+        private final Histogram latency = new ConcurrentHistogram(TimeUnit.HOURS.toMicros(1), 3);
+        
+        private final ConcurrentMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        
+        private final ConcurrentMap<String, LongAdder> failures = new ConcurrentHashMap<>();
+        
+        private final LongAdder skipped = new LongAdder();
+        
+        long count() {
+            return latency.getTotalCount();
+        }
+        
+        long ok() {
+            return statuses.entrySet().stream()
+                .filter(e -> e.getKey() < 300)
+                .mapToLong(e -> e.getValue().sum())
+                .sum();
+        }
+        
+        long rejected() {
+            return statuses.entrySet().stream()
+                .filter(e -> e.getKey() >= 400 && e.getKey() < 500 || e.getKey() == 503)
+                .mapToLong(e -> e.getValue().sum())
+                .sum();
+        }
+        
+        long errors() {
+            long serverErrors = statuses.entrySet().stream()
+                .filter(e -> e.getKey() >= 500 && e.getKey() != 503)
+                .mapToLong(e -> e.getValue().sum())
+                .sum();
+            return serverErrors + failures.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.loadtest;
+
+import org.example.FlightBookingSystemApplication;
+import org.example.dto.BookingRequest;
+import org.example.dto.FlightRequest;
+import org.example.dto.FlightResponse;
+import org.example.exception.SeatNotAvailableException;
+import org.example.service.BookingService;
+import org.example.service.FlightService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * End-to-end load test. Starts the application on a random port against its in-memory H2
+ * database, with the mock lock and payment services, seeds flights through {@link FlightService}
+ * and replays traffic profiles over HTTP with {@link WebClient}. Prints throughput and latency
+ * percentiles per operation after each phase and checks the seat inventory after each profile.
+ * Exits with status 1 if a seat was oversold or lost, or too many requests failed.
+ *
+ * <pre>mvn -Ploadtest -DskipTests verify -Dloadtest.args="--profile=sale-open --duration=60 --peak-rate=2000"</pre>
+ *
+ * Profiles are {@code sale-open}, {@code steady}, {@code cancellation-storm} or {@code all}; see
+ * {@link LoadOptions} for the other options.
+ */
+public class LoadTest {
+    
+    private static final String[][] ROUTES = {{"LHR", "JFK"}, {"JFK", "LAX"}, {"CDG", "DXB"}, {"FRA", "SIN"}};
+    
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = new LoadOptions(args);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(FlightBookingSystemApplication.class)
+            .run(options.applicationArgs(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--spring.cache.type=simple",
+                "--logging.level.root=WARN",
+                "--logging.level.org.example=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                // Executor threads still parked when Tomcat stops are expected at shutdown
+                "--logging.level.org.apache.catalina.loader.WebappClassLoaderBase=ERROR"));
+        
+        boolean passed = true;
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        LoadDriver driver = new LoadDriver(context.getBean(WebClient.Builder.class),
+            "http://localhost:" + port + "/api/v1", options.concurrency);
+        InventoryCheck inventoryCheck = new InventoryCheck(context.getBean(JdbcTemplate.class));
+        try {
+            if (!options.warmup.isZero()) {
+                driver.useFlights(addFlights(context, TrafficProfile.STEADY, 0, options), new ArrayList<>());
+                driver.run("warmup", new Phase("warmup", options.warmup, options.rate, options.rate, TrafficProfile.STEADY_MIX));
+            }
+            int profileNumber = 1;
+            for (TrafficProfile profile : options.profiles) {
+                List<FlightResponse> flights = addFlights(context, profile, profileNumber++, options);
+                List<String> bookings = profile.isSellOut() ? sellOut(context, flights) : new ArrayList<>();
+                driver.useFlights(flights, bookings);
+                System.out.printf("%n# %s: %d flights of %d seats%s%n", profile.getName(), flights.size(),
+                    options.seats, profile.isSellOut() ? ", sold out with " + bookings.size() + " bookings" : "");
+                
+                for (Phase phase : profile.phases(options)) {
+                    LoadReport report = driver.run(profile.getName() + " " + phase.name, phase);
+                    report.print(System.out);
+                    if (options.histograms != null) {
+                        report.writeHistograms(options.histograms);
+                    }
+                    double errorRate = report.getErrors() / (double) Math.max(report.getRequests(), 1);
+                    if (errorRate > options.maxErrorRate) {
+                        System.out.printf("FAILED: %.2f%% of requests failed, limit %.2f%%%n",
+                            errorRate * 100, options.maxErrorRate * 100);
+                        passed = false;
+                    }
+                }
+                
+                List<String> violations = inventoryCheck.violations();
+                for (String violation : violations) {
+                    System.out.println("FAILED: " + violation);
+                }
+                if (violations.isEmpty()) {
+                    System.out.println("Inventory check passed: no seat oversold or lost");
+                }
+                passed &= violations.isEmpty();
+            }
+        } finally {
+            driver.close();
+            context.close();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+    
+    private static List<FlightResponse> addFlights(ConfigurableApplicationContext context, TrafficProfile profile,
+                                                   int profileNumber, LoadOptions options) {
+        FlightService flightService = context.getBean(FlightService.class);
+        List<FlightResponse> flights = new ArrayList<>();
+        int count = profile.flights(options);
+        for (int i = 0; i < count; i++) {
+            // Hot flights all leave on one route and day, so one search finds every one of them
+            String[] route = profile.isHot() ? ROUTES[0] : ROUTES[i % ROUTES.length];
+            LocalDateTime departure = LocalDateTime.now().plusDays(30 + profileNumber * 7 + i % 3)
+                .withHour(8 + i % 12).withMinute(0).withSecond(0).withNano(0);
+            FlightRequest request = new FlightRequest();
+            request.setFlightNumber("LT" + profileNumber + String.format("%03d", i));
+            request.setFrom(route[0]);
+            request.setTo(route[1]);
+            request.setDepartureTime(departure);
+            request.setArrivalTime(departure.plusHours(6));
+            request.setPrice(new BigDecimal("149.00"));
+            request.setMaxPassengers(options.seats);
+            flights.add(flightService.addFlight(request));
+        }
+        return flights;
+    }
+    
+    // Books every flight full through the service, bypassing HTTP and admission control
+    private static List<String> sellOut(ConfigurableApplicationContext context, List<FlightResponse> flights) {
+        BookingService bookingService = context.getBean(BookingService.class);
+        List<String> bookings = new ArrayList<>();
+        for (FlightResponse flight : flights) {
+            for (int passengers = 2; passengers > 0; ) {
+                BookingRequest request = new BookingRequest();
+                request.setFlightId(flight.getId());
+                request.setNumberOfPassengers(passengers);
+                request.setPaxDetails("Passenger One, Passenger Two");
+                request.setBookedBy("sellout" + bookings.size() + "@example.com");
+                try {
+                    bookings.add(bookingService.createBooking(request).getBookingId());
+                } catch (SeatNotAvailableException e) {
+                    // An odd seat may be left once pairs no longer fit
+                    passengers--;
+                }
+            }
+        }
+        return bookings;
+    }
+}
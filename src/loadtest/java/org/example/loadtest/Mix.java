@@ -0,0 +1,34 @@
+package org.example.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Weighted choice of the operation each arrival performs.
+ */
+class Mix {
+    
+    private final List<Operation> operations = new ArrayList<>();
+    
+    private final List<Integer> cumulativeWeights = new ArrayList<>();
+    
+    private int totalWeight;
+    
+    Mix with(Operation operation, int weight) {
+        totalWeight += weight;
+        operations.add(operation);
+        cumulativeWeights.add(totalWeight);
+        return this;
+    }
+    
+    Operation next() {
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (int i = 0; i < operations.size(); i++) {
+            if (pick < cumulativeWeights.get(i)) {
+                return operations.get(i);
+            }
+        }
+        throw new IllegalStateException("Empty operation mix");
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.loadtest;
+
+enum Operation {
+    SEARCH,
+    BOOK,
+    CANCEL
+}
@@ -0,0 +1,33 @@
+package org.example.loadtest;
+
+import java.time.Duration;
+
+/**
+ * A stretch of traffic with a fixed operation mix, its arrival rate moving linearly from
+ * {@code startRate} to {@code endRate} requests per second.
+ */
+class Phase {
+    
+    final String name;
+    
+    final Duration duration;
+    
+    final int startRate;
+    
+    final int endRate;
+    
+    final Mix mix;
+    
+    Phase(String name, Duration duration, int startRate, int endRate, Mix mix) {
+        this.name = name;
+        this.duration = duration;
+        this.startRate = startRate;
+        this.endRate = endRate;
+        this.mix = mix;
+    }
+    
+    // Arrival rate once the given fraction of the phase has elapsed
+    double rateAt(double elapsed) {
+        return startRate + (endRate - startRate) * Math.min(elapsed, 1.0);
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Traffic shapes the load test replays. Each profile gets its own flights, either a few hot ones
+ * that demand far exceeds or many quiet ones, and runs its phases in order.
+ */
+enum TrafficProfile {
+    
+    /**
+     * Tickets go on sale: arrivals ramp from the base rate to the peak within seconds and stay
+     * there, with bookings for a few flights mixed into heavy searching. Most bookings are
+     * expected to be turned away once the flights sell out or admission control pushes back.
+     */
+    SALE_OPEN("sale-open", true, false) {
+        @Override
+        List<Phase> phases(LoadOptions options) {
+            Mix mix = new Mix().with(Operation.SEARCH, 60).with(Operation.BOOK, 40);
+            return Arrays.asList(
+                new Phase("ramp", Duration.ofSeconds(5), options.rate, options.peakRate, mix),
+                new Phase("peak", options.duration, options.peakRate, options.peakRate, mix));
+        }
+    },
+    
+    /**
+     * Ordinary trading across many flights, mostly searches.
+     */
+    STEADY("steady", false, false) {
+        @Override
+        List<Phase> phases(LoadOptions options) {
+            return Arrays.asList(new Phase("steady", options.duration, options.rate, options.rate, STEADY_MIX));
+        }
+    },
+    
+    /**
+     * A disruption on sold-out flights: most passengers cancel at once while others rebook the
+     * seats they free, so cancellations release seats while bookings race to claim them.
+     */
+    CANCELLATION_STORM("cancellation-storm", true, true) {
+        @Override
+        List<Phase> phases(LoadOptions options) {
+            Mix mix = new Mix().with(Operation.CANCEL, 60).with(Operation.BOOK, 30).with(Operation.SEARCH, 10);
+            return Arrays.asList(new Phase("storm", options.duration, options.peakRate, options.peakRate, mix));
+        }
+    };
+    
+    static final Mix STEADY_MIX = new Mix().with(Operation.SEARCH, 80).with(Operation.BOOK, 15).with(Operation.CANCEL, 5);
+    
+    private final String name;
+    
+    private final boolean hot;
+    
+    private final boolean sellOut;
+    
+    TrafficProfile(String name, boolean hot, boolean sellOut) {
+        this.name = name;
+        this.hot = hot;
+        this.sellOut = sellOut;
+    }
+    
+    abstract List<Phase> phases(LoadOptions options);
+    
+    String getName() {
+        return name;
+    }
+    
+    int flights(LoadOptions options) {
+        return hot ? options.hotFlights : options.flights;
+    }
+    
+    // Whether demand is concentrated on a few flights on one route and day
+    boolean isHot() {
+        return hot;
+    }
+    
+    // Whether the flights are booked full before the first phase
+    boolean isSellOut() {
+        return sellOut;
+    }
+    
+    static TrafficProfile fromName(String name) {
+        for (TrafficProfile profile : values()) {
+            if (profile.name.equals(name)) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException("Unknown traffic profile " + name + ", expected one of "
+            + "sale-open, steady, cancellation-storm or all");
+    }
+}
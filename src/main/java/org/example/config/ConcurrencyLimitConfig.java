@@ -0,0 +1,76 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.util.AdaptiveConcurrencyLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Adaptive in-flight limits for booking creation and payment gateway calls. The limits follow
+ * observed p99 latency, so they tighten on their own when the database or gateway slows down.
+ * Refunds get a limiter of their own so a burst of charges never sheds the calls returning money.
+ */
+@Configuration
+public class ConcurrencyLimitConfig {
+    
+    @Value("${app.concurrency-limit.backoff-ratio:0.9}")
+    private double backoffRatio;
+    
+    @Value("${app.concurrency-limit.window-size:200}")
+    private int windowSize;
+    
+    @Value("${app.concurrency-limit.window-millis:1000}")
+    private long windowMillis;
+    
+    @Bean
+    public AdaptiveConcurrencyLimiter bookingConcurrencyLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${app.concurrency-limit.booking.initial-limit:32}") int initialLimit,
+            @Value("${app.concurrency-limit.booking.min-limit:4}") int minLimit,
+            @Value("${app.concurrency-limit.booking.max-limit:64}") int maxLimit,
+            @Value("${app.concurrency-limit.booking.latency-threshold:500}") long latencyThreshold) {
+        return register(meterRegistry, new AdaptiveConcurrencyLimiter("booking", initialLimit, minLimit, maxLimit,
+            latencyThreshold, backoffRatio, windowSize, windowMillis));
+    }
+    
+    @Bean
+    public AdaptiveConcurrencyLimiter paymentConcurrencyLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${app.concurrency-limit.payment.initial-limit:16}") int initialLimit,
+            @Value("${app.concurrency-limit.payment.min-limit:2}") int minLimit,
+            @Value("${app.concurrency-limit.payment.max-limit:64}") int maxLimit,
+            @Value("${app.concurrency-limit.payment.latency-threshold:2000}") long latencyThreshold) {
+        return register(meterRegistry, new AdaptiveConcurrencyLimiter("payment", initialLimit, minLimit, maxLimit,
+            latencyThreshold, backoffRatio, windowSize, windowMillis));
+    }
+    
+    @Bean
+    public AdaptiveConcurrencyLimiter refundConcurrencyLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${app.concurrency-limit.refund.initial-limit:8}") int initialLimit,
+            @Value("${app.concurrency-limit.refund.min-limit:2}") int minLimit,
+            @Value("${app.concurrency-limit.refund.max-limit:32}") int maxLimit,
+            @Value("${app.concurrency-limit.refund.latency-threshold:2000}") long latencyThreshold) {
+        return register(meterRegistry, new AdaptiveConcurrencyLimiter("refund", initialLimit, minLimit, maxLimit,
+            latencyThreshold, backoffRatio, windowSize, windowMillis));
+    }
+    
+    private AdaptiveConcurrencyLimiter register(MeterRegistry meterRegistry, AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+            .tag("limiter", limiter.getName())
+            .description("Current adaptive concurrency limit")
+            .register(meterRegistry);
+        Gauge.builder("concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+            .tag("limiter", limiter.getName())
+            .description("Calls currently holding a concurrency slot")
+            .register(meterRegistry);
+        FunctionCounter.builder("concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejectedCount)
+            .tag("limiter", limiter.getName())
+            .description("Calls shed because the concurrency limit was reached")
+            .register(meterRegistry);
+        return limiter;
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Aggregate database visibility in place of per-statement logging. Hibernate statistics feed the
+ * {@code hibernate.*} meters and the {@code /actuator/queries} endpoint, and statements slower
+ * than {@code app.slow-query.threshold} milliseconds are logged to {@code org.hibernate.SQL_SLOW}.
+ */
+@Configuration
+public class HibernateStatisticsConfig {
+    
+    @Value("${app.slow-query.threshold:200}")
+    private long slowQueryThreshold;
+    
+    @Bean
+    public HibernatePropertiesCustomizer slowQueryLogCustomizer() {
+        return properties -> {
+            if (slowQueryThreshold > 0) {
+                properties.put("hibernate.session.events.log.LOG_QUERIES_SLOWER_THAN_MS", slowQueryThreshold);
+            }
+        };
+    }
+}
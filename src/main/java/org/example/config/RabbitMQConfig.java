@@ -8,20 +8,19 @@ import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 @Configuration
 public class RabbitMQConfig {
     
-    @Value("${app.queue.seat-creation-queue:seat.creation.queue}")
-    private String seatCreationQueue;
+    private static final Logger logger = LoggerFactory.getLogger(RabbitMQConfig.class);
     
     @Value("${app.queue.booking-queue:booking.queue}")
     private String bookingQueue;
     
-    @Bean
-    public Queue seatCreationQueue() {
-        return QueueBuilder.durable(seatCreationQueue).build();
-    }
+    @Value("${app.queue.flight-queue:flight.queue}")
+    private String flightQueue;
     
     @Bean
     public Queue bookingQueue() {
@@ -29,8 +28,8 @@ public class RabbitMQConfig {
     }
     
     @Bean
-    public TopicExchange seatCreationExchange() {
-        return new TopicExchange("seat.creation.exchange");
+    public Queue flightQueue() {
+        return QueueBuilder.durable(flightQueue).build();
     }
     
     @Bean
@@ -39,11 +38,8 @@ public class RabbitMQConfig {
     }
     
     @Bean
-    public Binding seatCreationBinding() {
-        return BindingBuilder
-                .bind(seatCreationQueue())
-                .to(seatCreationExchange())
-                .with("seat.creation.*");
+    public TopicExchange flightExchange() {
+        return new TopicExchange("flight.exchange");
     }
     
     @Bean
@@ -54,6 +50,15 @@ public class RabbitMQConfig {
                 .with("booking.*");
     }
     
+    // Flight status events are published with mandatory=true, so they need a queue to land in
+    @Bean
+    public Binding flightBinding() {
+        return BindingBuilder
+                .bind(flightQueue())
+                .to(flightExchange())
+                .with("flight.#");
+    }
+    
     @Bean
     public Jackson2JsonMessageConverter messageConverter() {
         return new Jackson2JsonMessageConverter();
@@ -63,6 +68,16 @@ public class RabbitMQConfig {
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(messageConverter());
+        // Unroutable messages come back to us instead of being silently dropped by the broker
+        template.setMandatory(true);
+        template.setReturnsCallback(returned -> logger.warn("Message returned by broker: exchange={}, routingKey={}, reply={} {}",
+            returned.getExchange(), returned.getRoutingKey(), returned.getReplyCode(), returned.getReplyText()));
+        template.setConfirmCallback((correlationData, ack, cause) -> {
+            if (!ack) {
+                logger.warn("Message {} not confirmed by broker: {}",
+                    correlationData != null ? correlationData.getId() : "(uncorrelated)", cause);
+            }
+        });
         return template;
     }
     
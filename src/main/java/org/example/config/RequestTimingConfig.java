@@ -0,0 +1,81 @@
+package org.example.config;
+
+import org.example.monitoring.RequestTiming;
+import org.example.monitoring.RequestTimingFilter;
+import org.example.monitoring.SlowRequestLog;
+import org.example.monitoring.StatementTimingListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.DispatcherType;
+import java.util.concurrent.Callable;
+
+/**
+ * Per-request latency breakdown for the booking and flight APIs: an optional {@code Server-Timing}
+ * response header and a sampled log of the slowest requests. Both are off by default; with both
+ * off no request is timed and no statement listener is installed.
+ */
+@Configuration
+public class RequestTimingConfig implements WebMvcConfigurer {
+    
+    @Value("${app.request-timing.server-timing:false}")
+    private boolean serverTiming;
+    
+    @Value("${app.request-timing.sample-rate:0}")
+    private double sampleRate;
+    
+    @Bean
+    public FilterRegistrationBean<RequestTimingFilter> requestTimingFilter(SlowRequestLog slowRequestLog) {
+        FilterRegistrationBean<RequestTimingFilter> registration =
+            new FilterRegistrationBean<>(new RequestTimingFilter(serverTiming, sampleRate, slowRequestLog));
+        registration.addUrlPatterns("/bookings/*", "/flights/*");
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        // Ahead of Spring Security, so the total includes authentication
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer statementTimingCustomizer() {
+        return properties -> {
+            if (isEnabled()) {
+                properties.put("hibernate.session.events.auto", StatementTimingListener.class.getName());
+            }
+        };
+    }
+    
+    // Callable handlers run on the request executor; carry the timing over to that thread
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        if (!isEnabled()) {
+            return;
+        }
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+                Object timing = request.getAttribute(RequestTimingFilter.TIMING_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+                if (timing != null) {
+                    RequestTiming.bind((RequestTiming) timing);
+                }
+            }
+            
+            @Override
+            public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+                RequestTiming.unbind();
+            }
+        });
+    }
+    
+    private boolean isEnabled() {
+        return serverTiming || sampleRate > 0;
+    }
+}
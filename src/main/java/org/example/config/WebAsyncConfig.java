@@ -0,0 +1,109 @@
+package org.example.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Runs the blocking booking and search handlers off the Tomcat worker pool.
+ *
+ * On Java 8 the handlers return {@code Callable}s that execute on a dedicated, bounded
+ * executor; when {@code app.web.async.virtual-threads} is enabled (JDK 21+, see the
+ * {@code virtual-threads} Maven profile) both Tomcat and the handler executor use
+ * virtual threads instead.
+ */
+@Configuration
+public class WebAsyncConfig implements WebMvcConfigurer, DisposableBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WebAsyncConfig.class);
+    
+    @Value("${app.web.async.virtual-threads:false}")
+    private boolean virtualThreads;
+    
+    @Value("${app.web.async.pool-size:200}")
+    private int poolSize;
+    
+    @Value("${app.web.async.queue-capacity:1000}")
+    private int queueCapacity;
+    
+    @Value("${app.web.async.timeout:30000}")
+    private long timeout;
+    
+    private ThreadPoolTaskExecutor boundedExecutor;
+    
+    private ExecutorService virtualThreadExecutor;
+    
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(requestExecutor());
+        configurer.setDefaultTimeout(timeout);
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "app.web.async.virtual-threads", havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor());
+    }
+    
+    // Not exposed as a bean so that Boot's default applicationTaskExecutor stays in place for @Async
+    private synchronized AsyncTaskExecutor requestExecutor() {
+        if (virtualThreads) {
+            logger.info("Request handlers will run on virtual threads");
+            return new TaskExecutorAdapter(virtualThreadExecutor());
+        }
+        
+        if (boundedExecutor == null) {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            // A ThreadPoolExecutor only adds threads beyond the core size once its queue is full, so the
+            // core size is the concurrency; idle threads still time out so a quiet node shrinks
+            executor.setCorePoolSize(poolSize);
+            executor.setMaxPoolSize(poolSize);
+            executor.setAllowCoreThreadTimeOut(true);
+            executor.setQueueCapacity(queueCapacity);
+            executor.setThreadNamePrefix("request-");
+            executor.initialize();
+            boundedExecutor = executor;
+            logger.info("Request handlers will run on a bounded executor (threads={}, queue={})",
+                poolSize, queueCapacity);
+        }
+        return boundedExecutor;
+    }
+    
+    private synchronized ExecutorService virtualThreadExecutor() {
+        if (virtualThreadExecutor == null) {
+            try {
+                // Looked up reflectively so the code base still compiles for Java 8
+                Method factory = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                virtualThreadExecutor = (ExecutorService) factory.invoke(null);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("app.web.async.virtual-threads requires JDK 21 or newer", e);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to create virtual thread executor", e);
+            }
+        }
+        return virtualThreadExecutor;
+    }
+    
+    @Override
+    public void destroy() {
+        if (boundedExecutor != null) {
+            boundedExecutor.shutdown();
+        }
+        if (virtualThreadExecutor != null) {
+            virtualThreadExecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.controller;
+
+import org.example.dto.AircraftLayoutRequest;
+import org.example.dto.AircraftLayoutResponse;
+import org.example.service.AircraftLayoutService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import javax.validation.Valid;
+import java.util.List;
+
+@RestController
+@RequestMapping("/aircraft-layouts")
+public class AircraftLayoutController {
+    
+    @Autowired
+    private AircraftLayoutService aircraftLayoutService;
+    
+    @PostMapping("/admin/add")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AircraftLayoutResponse> addLayout(@Valid @RequestBody AircraftLayoutRequest request) {
+        AircraftLayoutResponse response = aircraftLayoutService.createLayout(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    
+    @GetMapping
+    public ResponseEntity<List<AircraftLayoutResponse>> getAllLayouts() {
+        List<AircraftLayoutResponse> responses = aircraftLayoutService.getAllLayouts();
+        return ResponseEntity.ok(responses);
+    }
+}
@@ -2,14 +2,19 @@ package org.example.controller;
 
 import org.example.dto.BookingRequest;
 import org.example.dto.BookingResponse;
+import org.example.service.AdmissionControlService;
 import org.example.service.BookingService;
+import org.example.service.IdempotencyService;
+import org.example.util.AdaptiveConcurrencyLimiter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import javax.validation.Valid;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/bookings")
@@ -18,11 +23,29 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
     
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    @Autowired
+    private AdmissionControlService admissionControlService;
+    
+    @Autowired
+    @Qualifier("bookingConcurrencyLimiter")
+    private AdaptiveConcurrencyLimiter bookingConcurrencyLimiter;
+    
     @PostMapping
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<BookingResponse> createBooking(@Valid @RequestBody BookingRequest request) {
-        BookingResponse response = bookingService.createBooking(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public Callable<ResponseEntity<BookingResponse>> createBooking(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody BookingRequest request) {
+        return () -> {
+            // Replays of completed requests are served without passing admission control.
+            // Admission smooths arrivals; the adaptive limiter sheds load when latency degrades.
+            BookingResponse response = idempotencyService.execute(idempotencyKey, request,
+                () -> admissionControlService.execute(request.getFlightId(),
+                    () -> bookingConcurrencyLimiter.execute(() -> bookingService.createBooking(request))));
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        };
     }
     
     @GetMapping("/{bookingId}")
@@ -48,9 +71,11 @@ public class BookingController {
     
     @PutMapping("/{bookingId}/cancel")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<BookingResponse> cancelBooking(@PathVariable String bookingId) {
-        BookingResponse response = bookingService.cancelBooking(bookingId);
-        return ResponseEntity.ok(response);
+    public Callable<ResponseEntity<BookingResponse>> cancelBooking(@PathVariable String bookingId) {
+        return () -> {
+            BookingResponse response = bookingService.cancelBooking(bookingId);
+            return ResponseEntity.ok(response);
+        };
     }
     
     @GetMapping
@@ -3,15 +3,20 @@ package org.example.controller;
 import org.example.dto.FlightRequest;
 import org.example.dto.FlightResponse;
 import org.example.dto.SearchFlightRequest;
+import org.example.dto.SeatMapResponse;
 import org.example.service.FlightService;
+import org.example.service.SeatMapService;
 import org.example.enums.FlightStatus;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import javax.validation.Valid;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/flights")
@@ -20,6 +25,9 @@ public class FlightController {
     @Autowired
     private FlightService flightService;
     
+    @Autowired
+    private SeatMapService seatMapService;
+    
     @PostMapping("/admin/add")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<FlightResponse> addFlight(@Valid @RequestBody FlightRequest request) {
@@ -33,10 +41,29 @@ public class FlightController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Seat map with one encoded string per row. Clients should poll with If-None-Match; unless the
+     * flight's seat inventory changed since their copy, the answer is a 304 built from the version alone.
+     */
+    @GetMapping("/{id}/seats")
+    public ResponseEntity<SeatMapResponse> getSeatMap(@PathVariable Long id, WebRequest webRequest) {
+        long version = seatMapService.getVersion(id);
+        String eTag = seatMapService.getETag(id, version);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .body(seatMapService.getSeatMap(id, version));
+    }
+    
     @PostMapping("/search")
-    public ResponseEntity<List<FlightResponse>> searchFlights(@Valid @RequestBody SearchFlightRequest request) {
-        List<FlightResponse> responses = flightService.searchFlights(request);
-        return ResponseEntity.ok(responses);
+    public Callable<ResponseEntity<List<FlightResponse>>> searchFlights(@Valid @RequestBody SearchFlightRequest request) {
+        return () -> {
+            List<FlightResponse> responses = flightService.searchFlights(request);
+            return ResponseEntity.ok(responses);
+        };
     }
     
     @GetMapping
@@ -0,0 +1,53 @@
+package org.example.dto;
+
+import javax.validation.constraints.*;
+import java.util.List;
+
+public class AircraftLayoutRequest {
+    
+    @NotBlank(message = "Aircraft type is required")
+    @Size(max = 32, message = "Aircraft type cannot exceed 32 characters")
+    private String aircraftType;
+    
+    @NotNull(message = "Row count is required")
+    @Min(value = 1, message = "Row count must be at least 1")
+    @Max(value = 999, message = "Row count cannot exceed 999")
+    private Integer rowCount;
+    
+    @Min(value = 1, message = "First row must be at least 1")
+    private Integer firstRow = 1;
+    
+    // Seat letters left to right, a space for each aisle, e.g. "ABC DEF"
+    @NotBlank(message = "Column letters are required")
+    @Pattern(regexp = "[A-Z]+( [A-Z]+)*", message = "Column letters must be A-Z, with single spaces for aisles")
+    private String columnLetters;
+    
+    // Cabin codes and the rows they cover, e.g. "J:1-4,Y:5-30"
+    @Pattern(regexp = "[A-Z]:\\d+-\\d+(,[A-Z]:\\d+-\\d+)*", message = "Cabins must look like J:1-4,Y:5-30")
+    private String cabins;
+    
+    // Positions without a seat, e.g. exit rows or galleys
+    private List<@NotBlank String> blockedSeats;
+    
+    // Constructors
+    public AircraftLayoutRequest() {}
+    
+    // Getters and Setters
+    public String getAircraftType() { return aircraftType; }
+    public void setAircraftType(String aircraftType) { this.aircraftType = aircraftType; }
+    
+    public Integer getRowCount() { return rowCount; }
+    public void setRowCount(Integer rowCount) { this.rowCount = rowCount; }
+    
+    public Integer getFirstRow() { return firstRow; }
+    public void setFirstRow(Integer firstRow) { this.firstRow = firstRow; }
+    
+    public String getColumnLetters() { return columnLetters; }
+    public void setColumnLetters(String columnLetters) { this.columnLetters = columnLetters; }
+    
+    public String getCabins() { return cabins; }
+    public void setCabins(String cabins) { this.cabins = cabins; }
+    
+    public List<String> getBlockedSeats() { return blockedSeats; }
+    public void setBlockedSeats(List<String> blockedSeats) { this.blockedSeats = blockedSeats; }
+}
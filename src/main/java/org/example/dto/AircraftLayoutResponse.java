@@ -0,0 +1,48 @@
+package org.example.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class AircraftLayoutResponse {
+    
+    private Long id;
+    private String aircraftType;
+    private Integer rowCount;
+    private Integer firstRow;
+    private String columnLetters;
+    private String cabins;
+    private List<String> blockedSeats;
+    private Integer seatCount;
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public AircraftLayoutResponse() {}
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getAircraftType() { return aircraftType; }
+    public void setAircraftType(String aircraftType) { this.aircraftType = aircraftType; }
+    
+    public Integer getRowCount() { return rowCount; }
+    public void setRowCount(Integer rowCount) { this.rowCount = rowCount; }
+    
+    public Integer getFirstRow() { return firstRow; }
+    public void setFirstRow(Integer firstRow) { this.firstRow = firstRow; }
+    
+    public String getColumnLetters() { return columnLetters; }
+    public void setColumnLetters(String columnLetters) { this.columnLetters = columnLetters; }
+    
+    public String getCabins() { return cabins; }
+    public void setCabins(String cabins) { this.cabins = cabins; }
+    
+    public List<String> getBlockedSeats() { return blockedSeats; }
+    public void setBlockedSeats(List<String> blockedSeats) { this.blockedSeats = blockedSeats; }
+    
+    public Integer getSeatCount() { return seatCount; }
+    public void setSeatCount(Integer seatCount) { this.seatCount = seatCount; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
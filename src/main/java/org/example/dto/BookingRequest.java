@@ -1,6 +1,8 @@
 package org.example.dto;
 
+import org.example.enums.SeatFallbackPolicy;
 import javax.validation.constraints.*;
+import java.util.List;
 
 public class BookingRequest {
 
@@ -18,6 +20,12 @@ public class BookingRequest {
     @NotBlank(message = "Booked by is required")
     private String bookedBy;
 
+    // Optional seats to book, in passenger order; any passengers beyond these are seated automatically
+    @Size(max = 9, message = "Cannot request more than 9 seats")
+    private List<@NotBlank String> seatIds;
+
+    private SeatFallbackPolicy seatFallback = SeatFallbackPolicy.FAIL;
+
     // Constructors
     public BookingRequest() {}
 
@@ -33,4 +41,10 @@ public class BookingRequest {
     
     public String getBookedBy() { return bookedBy; }
     public void setBookedBy(String bookedBy) { this.bookedBy = bookedBy; }
+    
+    public List<String> getSeatIds() { return seatIds; }
+    public void setSeatIds(List<String> seatIds) { this.seatIds = seatIds; }
+    
+    public SeatFallbackPolicy getSeatFallback() { return seatFallback; }
+    public void setSeatFallback(SeatFallbackPolicy seatFallback) { this.seatFallback = seatFallback; }
 }
@@ -33,6 +33,9 @@ public class FlightRequest {
     @Min(value = 1, message = "Max passengers must be at least 1")
     private Integer maxPassengers;
 
+    // Layout to seat the flight by; without one a plain six-abreast cabin is sized to maxPassengers
+    private String aircraftType;
+
     // Constructors
     public FlightRequest() {}
 
@@ -60,4 +63,7 @@ public class FlightRequest {
     
     public Integer getMaxPassengers() { return maxPassengers; }
     public void setMaxPassengers(Integer maxPassengers) { this.maxPassengers = maxPassengers; }
+    
+    public String getAircraftType() { return aircraftType; }
+    public void setAircraftType(String aircraftType) { this.aircraftType = aircraftType; }
 }
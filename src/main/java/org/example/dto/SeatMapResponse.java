@@ -0,0 +1,40 @@
+package org.example.dto;
+
+import java.util.Map;
+
+/**
+ * Seat map for one flight. Each row number maps to one character per position in
+ * {@code columns} ("ABC DEF"): {@code .} for an open seat, {@code X} for a seat that is held or
+ * occupied, {@code -} for a position with no seat and a space under each aisle.
+ */
+public class SeatMapResponse {
+    
+    private Long flightId;
+    private Long version;
+    private String aircraftType;
+    private String columns;
+    private Integer availableSeats;
+    private Map<String, String> rows;
+    
+    // Constructors
+    public SeatMapResponse() {}
+    
+    // Getters and Setters
+    public Long getFlightId() { return flightId; }
+    public void setFlightId(Long flightId) { this.flightId = flightId; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
+    public String getAircraftType() { return aircraftType; }
+    public void setAircraftType(String aircraftType) { this.aircraftType = aircraftType; }
+    
+    public String getColumns() { return columns; }
+    public void setColumns(String columns) { this.columns = columns; }
+    
+    public Integer getAvailableSeats() { return availableSeats; }
+    public void setAvailableSeats(Integer availableSeats) { this.availableSeats = availableSeats; }
+    
+    public Map<String, String> getRows() { return rows; }
+    public void setRows(Map<String, String> rows) { this.rows = rows; }
+}
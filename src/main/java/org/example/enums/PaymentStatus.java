@@ -5,5 +5,7 @@ public enum PaymentStatus {
     COMPLETED,
     FAILED,
     REFUNDED,
+    REFUND_PENDING,
+    REFUND_FAILED,
     CANCELLED
 }
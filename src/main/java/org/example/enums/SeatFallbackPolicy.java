@@ -0,0 +1,9 @@
+package org.example.enums;
+
+/**
+ * What to do when a seat requested in a booking is no longer available.
+ */
+public enum SeatFallbackPolicy {
+    FAIL,
+    ANY_AVAILABLE
+}
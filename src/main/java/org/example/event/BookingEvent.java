@@ -0,0 +1,53 @@
+package org.example.event;
+
+import org.example.enums.BookingStatus;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Payload of BookingConfirmed and BookingCancelled events published on the booking exchange.
+ */
+public class BookingEvent {
+    
+    private String bookingId;
+    private String pnr;
+    private Long flightId;
+    private String bookedBy;
+    private Integer numberOfPassengers;
+    private List<String> seatIds;
+    private BigDecimal totalPrice;
+    private BookingStatus status;
+    private LocalDateTime occurredAt;
+    
+    // Constructors
+    public BookingEvent() {}
+    
+    // Getters and Setters
+    public String getBookingId() { return bookingId; }
+    public void setBookingId(String bookingId) { this.bookingId = bookingId; }
+    
+    public String getPnr() { return pnr; }
+    public void setPnr(String pnr) { this.pnr = pnr; }
+    
+    public Long getFlightId() { return flightId; }
+    public void setFlightId(Long flightId) { this.flightId = flightId; }
+    
+    public String getBookedBy() { return bookedBy; }
+    public void setBookedBy(String bookedBy) { this.bookedBy = bookedBy; }
+    
+    public Integer getNumberOfPassengers() { return numberOfPassengers; }
+    public void setNumberOfPassengers(Integer numberOfPassengers) { this.numberOfPassengers = numberOfPassengers; }
+    
+    public List<String> getSeatIds() { return seatIds; }
+    public void setSeatIds(List<String> seatIds) { this.seatIds = seatIds; }
+    
+    public BigDecimal getTotalPrice() { return totalPrice; }
+    public void setTotalPrice(BigDecimal totalPrice) { this.totalPrice = totalPrice; }
+    
+    public BookingStatus getStatus() { return status; }
+    public void setStatus(BookingStatus status) { this.status = status; }
+    
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+}
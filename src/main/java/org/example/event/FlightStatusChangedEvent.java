@@ -0,0 +1,35 @@
+package org.example.event;
+
+import org.example.enums.FlightStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Payload of FlightStatusChanged events published on the flight exchange.
+ */
+public class FlightStatusChangedEvent {
+    
+    private Long flightId;
+    private String flightNumber;
+    private FlightStatus previousStatus;
+    private FlightStatus status;
+    private LocalDateTime occurredAt;
+    
+    // Constructors
+    public FlightStatusChangedEvent() {}
+    
+    // Getters and Setters
+    public Long getFlightId() { return flightId; }
+    public void setFlightId(Long flightId) { this.flightId = flightId; }
+    
+    public String getFlightNumber() { return flightNumber; }
+    public void setFlightNumber(String flightNumber) { this.flightNumber = flightNumber; }
+    
+    public FlightStatus getPreviousStatus() { return previousStatus; }
+    public void setPreviousStatus(FlightStatus previousStatus) { this.previousStatus = previousStatus; }
+    
+    public FlightStatus getStatus() { return status; }
+    public void setStatus(FlightStatus status) { this.status = status; }
+    
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+}
@@ -0,0 +1,22 @@
+package org.example.exception;
+
+public class AdmissionRejectedException extends FlightBookingException {
+    
+    private final long retryAfterSeconds;
+    
+    private final Integer queuePosition;
+    
+    public AdmissionRejectedException(String message, long retryAfterSeconds, Integer queuePosition) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.queuePosition = queuePosition;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+    
+    public Integer getQueuePosition() {
+        return queuePosition;
+    }
+}
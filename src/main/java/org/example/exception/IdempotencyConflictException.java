@@ -0,0 +1,8 @@
+package org.example.exception;
+
+public class IdempotencyConflictException extends FlightBookingException {
+    
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
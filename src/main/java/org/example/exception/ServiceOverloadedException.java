@@ -0,0 +1,8 @@
+package org.example.exception;
+
+public class ServiceOverloadedException extends FlightBookingException {
+    
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
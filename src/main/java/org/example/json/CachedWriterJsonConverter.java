@@ -0,0 +1,89 @@
+package org.example.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConversionException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.TypeUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * JSON converter that keeps one {@link ObjectWriter} per response type. The default converter
+ * builds a writer, and for collections resolves the element serializer again, on every response;
+ * a cached writer already has its root serializer, so a response goes straight from the handler's
+ * return value to the response output stream through Jackson's recycled buffers.
+ *
+ * <p>Responses with a {@code @JsonView}, serialization filters, a non UTF-8 charset or an
+ * event stream content type take the default path. The writers snapshot the mapper's
+ * configuration, so the mapper must not be reconfigured after startup.
+ */
+public class CachedWriterJsonConverter extends MappingJackson2HttpMessageConverter {
+    
+    private final ObjectWriter untyped;
+    
+    // Declared return types; collections and maps get a writer for the full generic type
+    private final ConcurrentMap<Type, ObjectWriter> typeWriters = new ConcurrentHashMap<>();
+    
+    private final ConcurrentMap<Class<?>, ObjectWriter> classWriters = new ConcurrentHashMap<>();
+    
+    public CachedWriterJsonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+        this.untyped = objectMapper.writer();
+    }
+    
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+        if (object instanceof MappingJacksonValue || !isUtf8(contentType)) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        
+        try {
+            writerFor(type, object.getClass()).writeValue(StreamUtils.nonClosing(outputMessage.getBody()), object);
+        } catch (InvalidDefinitionException ex) {
+            throw new HttpMessageConversionException("Type definition error: " + ex.getType(), ex);
+        } catch (JsonProcessingException ex) {
+            throw new HttpMessageNotWritableException("Could not write JSON: " + ex.getOriginalMessage(), ex);
+        }
+    }
+    
+    // Same choice of root type as the default converter: the declared type for containers, else the value's class
+    private ObjectWriter writerFor(@Nullable Type type, Class<?> valueClass) {
+        if (type != null && TypeUtils.isAssignable(type, valueClass)) {
+            ObjectWriter writer = typeWriters.computeIfAbsent(type, declared -> {
+                JavaType javaType = getJavaType(declared, null);
+                return javaType.isContainerType() ? getObjectMapper().writerFor(javaType) : untyped;
+            });
+            if (writer != untyped) {
+                return writer;
+            }
+        }
+        return classWriters.computeIfAbsent(valueClass, getObjectMapper()::writerFor);
+    }
+    
+    private static boolean isUtf8(@Nullable MediaType contentType) {
+        if (contentType == null) {
+            return true;
+        }
+        if (contentType.isCompatibleWith(MediaType.TEXT_EVENT_STREAM)) {
+            return false;
+        }
+        return contentType.getCharset() == null || StandardCharsets.UTF_8.equals(contentType.getCharset());
+    }
+}
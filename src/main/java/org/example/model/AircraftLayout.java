@@ -0,0 +1,169 @@
+package org.example.model;
+
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import java.util.BitSet;
+
+/**
+ * Seating template for one aircraft type, shared by every flight that operates it. Seats are
+ * addressed by ordinal, {@code row * columns + column} with zero-based rows and columns, and are
+ * only turned into ids such as "12C" (row number, then column letter) at the API edge.
+ *
+ * <p>{@code columnLetters} lists the seat letters from left to right with a space for each aisle,
+ * e.g. "ABC DEF". {@code cabins} maps cabin codes to row ranges ("J:1-4,Y:5-30") and
+ * {@code blockedSeats} lists positions that have no seat ("1A,1F").
+ */
+@Entity
+@Table(name = "aircraft_layouts")
+public class AircraftLayout extends BaseEntity {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @NotBlank(message = "Aircraft type is required")
+    @Column(name = "aircraft_type", nullable = false, unique = true)
+    private String aircraftType;
+    
+    @NotNull(message = "Row count is required")
+    @Min(value = 1, message = "Row count must be at least 1")
+    @Column(name = "row_count", nullable = false)
+    private Integer rowCount;
+    
+    @NotNull(message = "First row is required")
+    @Column(name = "first_row", nullable = false)
+    private Integer firstRow = 1;
+    
+    @NotBlank(message = "Column letters are required")
+    @Column(name = "column_letters", nullable = false)
+    private String columnLetters;
+    
+    @Column(name = "cabins")
+    private String cabins;
+    
+    @Column(name = "blocked_seats", columnDefinition = "TEXT")
+    private String blockedSeats;
+    
+    // Parsed once per instance; layouts are immutable after creation
+    @Transient
+    private volatile String letters;
+    
+    @Transient
+    private volatile BitSet blocked;
+    
+    // Constructors
+    public AircraftLayout() {}
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getAircraftType() { return aircraftType; }
+    public void setAircraftType(String aircraftType) { this.aircraftType = aircraftType; }
+    
+    public Integer getRowCount() { return rowCount; }
+    public void setRowCount(Integer rowCount) { this.rowCount = rowCount; }
+    
+    public Integer getFirstRow() { return firstRow; }
+    public void setFirstRow(Integer firstRow) { this.firstRow = firstRow; }
+    
+    public String getColumnLetters() { return columnLetters; }
+    public void setColumnLetters(String columnLetters) { this.columnLetters = columnLetters; }
+    
+    public String getCabins() { return cabins; }
+    public void setCabins(String cabins) { this.cabins = cabins; }
+    
+    public String getBlockedSeats() { return blockedSeats; }
+    public void setBlockedSeats(String blockedSeats) { this.blockedSeats = blockedSeats; }
+    
+    // Business methods
+    public int getColumns() {
+        return letters().length();
+    }
+    
+    public int getPositions() {
+        return rowCount * getColumns();
+    }
+    
+    public int getSeatCount() {
+        return getPositions() - blocked().cardinality();
+    }
+    
+    public boolean isSeat(int ordinal) {
+        return ordinal >= 0 && ordinal < getPositions() && !blocked().get(ordinal);
+    }
+    
+    /**
+     * Ordinal of a seat id, or -1 if the id is malformed or names no seat on this aircraft.
+     */
+    public int ordinal(String seatId) {
+        int position = position(seatId);
+        return position >= 0 && !blocked().get(position) ? position : -1;
+    }
+    
+    public String seatId(int ordinal) {
+        return rowLabel(ordinal / getColumns()) + letters().charAt(ordinal % getColumns());
+    }
+    
+    public String rowLabel(int row) {
+        return String.valueOf(firstRow + row);
+    }
+    
+    /**
+     * The first {@code count} seat ordinals, front to back.
+     */
+    public int[] seatOrdinals(int count) {
+        int[] ordinals = new int[count];
+        BitSet blocked = blocked();
+        int ordinal = -1;
+        for (int i = 0; i < count; i++) {
+            ordinal = blocked.nextClearBit(ordinal + 1);
+            ordinals[i] = ordinal;
+        }
+        return ordinals;
+    }
+    
+    private int position(String seatId) {
+        if (seatId == null || seatId.length() < 2) {
+            return -1;
+        }
+        int column = letters().indexOf(Character.toUpperCase(seatId.charAt(seatId.length() - 1)));
+        int row;
+        try {
+            row = Integer.parseInt(seatId.substring(0, seatId.length() - 1)) - firstRow;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        if (column < 0 || row < 0 || row >= rowCount) {
+            return -1;
+        }
+        return row * getColumns() + column;
+    }
+    
+    private String letters() {
+        String parsed = letters;
+        if (parsed == null) {
+            parsed = columnLetters.replace(" ", "");
+            letters = parsed;
+        }
+        return parsed;
+    }
+    
+    private BitSet blocked() {
+        BitSet parsed = blocked;
+        if (parsed == null) {
+            parsed = new BitSet();
+            if (blockedSeats != null && !blockedSeats.trim().isEmpty()) {
+                for (String seatId : blockedSeats.split(",")) {
+                    int position = position(seatId.trim());
+                    if (position < 0) {
+                        throw new IllegalArgumentException("Blocked seat " + seatId.trim() + " is not on aircraft " + aircraftType);
+                    }
+                    parsed.set(position);
+                }
+            }
+            blocked = parsed;
+        }
+        return parsed;
+    }
+}
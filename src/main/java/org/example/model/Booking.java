@@ -5,62 +5,72 @@ import javax.validation.constraints.*;
 import org.example.enums.BookingStatus;
 import org.example.enums.PaymentStatus;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+    @Index(name = "idx_bookings_refund_due", columnList = "payment_status, refund_next_attempt_at")
+})
 public class Booking extends BaseEntity {
-
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
-
+    
     @NotBlank(message = "Booking ID is required")
     @Column(name = "booking_id", unique = true, nullable = false)
     private String bookingId;
-
+    
     @NotNull(message = "Flight ID is required")
     @Column(name = "flight_id", nullable = false)
     private Long flightId;
-
+    
     @NotBlank(message = "Booked by is required")
     @Column(name = "booked_by", nullable = false)
     private String bookedBy;
-
+    
     @Column(name = "pax_details", columnDefinition = "TEXT")
     private String paxDetails;
-
+    
     @NotNull(message = "Number of passengers is required")
     @Min(value = 1, message = "Number of passengers must be at least 1")
     @Column(name = "number_of_passengers", nullable = false)
     private Integer numberOfPassengers;
-
+    
     @NotNull(message = "Total price is required")
     @DecimalMin(value = "0.0", inclusive = false, message = "Total price must be greater than 0")
     @Column(name = "total_price", nullable = false, precision = 10, scale = 2)
     private BigDecimal totalPrice;
-
+    
     @Column(name = "payment_id")
     private String paymentId;
-
+    
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
     private BookingStatus status = BookingStatus.PENDING;
-
+    
     @Enumerated(EnumType.STRING)
     @Column(name = "payment_status", nullable = false)
     private PaymentStatus paymentStatus = PaymentStatus.PENDING;
-
+    
     @Column(name = "pnr", unique = true)
     private String pnr;
-
+    
+    // Refund progress while payment_status is REFUND_PENDING; see RefundWorker
+    @Column(name = "refund_attempts", nullable = false)
+    private Integer refundAttempts = 0;
+    
+    @Column(name = "refund_next_attempt_at")
+    private LocalDateTime refundNextAttemptAt;
+    
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "booking_id")
     private List<BookingSeat> assignedSeats;
-
+    
     // Constructors
     public Booking() {}
-
+    
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -95,30 +105,42 @@ public class Booking extends BaseEntity {
     public String getPnr() { return pnr; }
     public void setPnr(String pnr) { this.pnr = pnr; }
     
+    public Integer getRefundAttempts() { return refundAttempts; }
+    public void setRefundAttempts(Integer refundAttempts) { this.refundAttempts = refundAttempts; }
+    
+    public LocalDateTime getRefundNextAttemptAt() { return refundNextAttemptAt; }
+    public void setRefundNextAttemptAt(LocalDateTime refundNextAttemptAt) { this.refundNextAttemptAt = refundNextAttemptAt; }
+    
     public List<BookingSeat> getAssignedSeats() { return assignedSeats; }
     public void setAssignedSeats(List<BookingSeat> assignedSeats) { this.assignedSeats = assignedSeats; }
-
+    
     // Business methods
     public boolean isConfirmed() {
         return status == BookingStatus.CONFIRMED;
     }
-
+    
     public void confirm() {
         this.status = BookingStatus.CONFIRMED;
     }
-
+    
     public void cancel() {
         this.status = BookingStatus.CANCELLED;
     }
-
+    
     public void markPaymentSuccess() {
         this.paymentStatus = PaymentStatus.COMPLETED;
     }
-
+    
     public void markPaymentFailed() {
         this.paymentStatus = PaymentStatus.FAILED;
     }
     
+    public void requestRefund(LocalDateTime now) {
+        this.paymentStatus = PaymentStatus.REFUND_PENDING;
+        this.refundAttempts = 0;
+        this.refundNextAttemptAt = now;
+    }
+    
     // Additional business methods
     public boolean isCancelled() {
         return status == BookingStatus.CANCELLED;
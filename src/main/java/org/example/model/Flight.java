@@ -56,6 +56,15 @@ public class Flight extends BaseEntity {
     @Column(name = "available_seats", nullable = false)
     private Integer availableSeats = 0;
     
+    // Aircraft layout the flight's seats are laid out by; see AircraftLayout
+    @NotNull(message = "Layout is required")
+    @Column(name = "layout_id", nullable = false)
+    private Long layoutId;
+    
+    // Bumped by every inventory UPDATE; only ever written by those bulk statements, never by entity saves
+    @Column(name = "seat_map_version", nullable = false, updatable = false)
+    private Long seatMapVersion = 0L;
+    
     // Constructors
     public Flight() {}
     
@@ -93,6 +102,12 @@ public class Flight extends BaseEntity {
     public Integer getAvailableSeats() { return availableSeats; }
     public void setAvailableSeats(Integer availableSeats) { this.availableSeats = availableSeats; }
     
+    public Long getLayoutId() { return layoutId; }
+    public void setLayoutId(Long layoutId) { this.layoutId = layoutId; }
+    
+    public Long getSeatMapVersion() { return seatMapVersion; }
+    public void setSeatMapVersion(Long seatMapVersion) { this.seatMapVersion = seatMapVersion; }
+    
     // Business methods
     public boolean hasAvailableSeats() {
         return availableSeats > 0;
@@ -0,0 +1,25 @@
+package org.example.model;
+
+import javax.persistence.*;
+
+/**
+ * A block of PNRs reserved by one application instance. The id comes from a database sequence,
+ * so no two instances ever get the same range; the codes themselves never touch the database
+ * until a booking is saved with one.
+ */
+@Entity
+@Table(name = "pnr_ranges")
+public class PnrRange extends BaseEntity {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pnr_range_seq")
+    @SequenceGenerator(name = "pnr_range_seq", sequenceName = "pnr_range_seq", allocationSize = 1)
+    private Long id;
+    
+    // Constructors
+    public PnrRange() {}
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+}
@@ -3,35 +3,53 @@ package org.example.model;
 import javax.persistence.*;
 import javax.validation.constraints.*;
 import org.example.enums.SeatStatus;
+import java.time.LocalDateTime;
 
+/**
+ * A seat that is not available. Rows are only stored for seats that are held, occupied or out of
+ * service; every other seat in the flight's layout is available by default, so a flight costs no
+ * rows until seats start selling and a released seat's row is simply deleted.
+ */
 @Entity
-@Table(name = "seats")
+@Table(name = "seats", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_seats_flight_ordinal", columnNames = {"flight_id", "seat_ordinal"})
+}, indexes = {
+    @Index(name = "idx_seats_hold_expiry", columnList = "status, hold_expires_at")
+})
 public class Seat extends BaseEntity {
-
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
-
+    
     @NotNull(message = "Flight ID is required")
     @Column(name = "flight_id", nullable = false)
     private Long flightId;
-
-    @NotBlank(message = "Seat ID is required")
-    @Column(name = "seat_id", nullable = false)
-    private String seatId;
-
+    
+    // Position in the flight's aircraft layout; the layout renders it as a seat id such as "12C"
+    @NotNull(message = "Seat ordinal is required")
+    @Column(name = "seat_ordinal", nullable = false)
+    private Integer ordinal;
+    
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
     private SeatStatus status = SeatStatus.AVAILABLE;
-
+    
+    // Booking holding the seat while it is LOCKED, and when that hold lapses
+    @Column(name = "held_by")
+    private String heldBy;
+    
+    @Column(name = "hold_expires_at")
+    private LocalDateTime holdExpiresAt;
+    
     // Constructors
     public Seat() {}
     
-    public Seat(Long flightId, String seatId) {
+    public Seat(Long flightId, Integer ordinal) {
         this.flightId = flightId;
-        this.seatId = seatId;
+        this.ordinal = ordinal;
     }
-
+    
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -39,26 +57,41 @@ public class Seat extends BaseEntity {
     public Long getFlightId() { return flightId; }
     public void setFlightId(Long flightId) { this.flightId = flightId; }
     
-    public String getSeatId() { return seatId; }
-    public void setSeatId(String seatId) { this.seatId = seatId; }
+    public Integer getOrdinal() { return ordinal; }
+    public void setOrdinal(Integer ordinal) { this.ordinal = ordinal; }
     
     public SeatStatus getStatus() { return status; }
     public void setStatus(SeatStatus status) { this.status = status; }
-
+    
+    public String getHeldBy() { return heldBy; }
+    public void setHeldBy(String heldBy) { this.heldBy = heldBy; }
+    
+    public LocalDateTime getHoldExpiresAt() { return holdExpiresAt; }
+    public void setHoldExpiresAt(LocalDateTime holdExpiresAt) { this.holdExpiresAt = holdExpiresAt; }
+    
     // Business methods
     public boolean isAvailable() {
         return status == SeatStatus.AVAILABLE;
     }
-
-    public void lock() {
+    
+    public void lock(String heldBy, LocalDateTime holdExpiresAt) {
         this.status = SeatStatus.LOCKED;
+        this.heldBy = heldBy;
+        this.holdExpiresAt = holdExpiresAt;
     }
-
+    
     public void occupy() {
         this.status = SeatStatus.OCCUPIED;
+        clearHold();
     }
-
+    
     public void release() {
         this.status = SeatStatus.AVAILABLE;
+        clearHold();
+    }
+    
+    private void clearHold() {
+        this.heldBy = null;
+        this.holdExpiresAt = null;
     }
 }
@@ -0,0 +1,91 @@
+package org.example.monitoring;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The queries that cost the most database time since startup (or the last reset), served at
+ * {@code /actuator/queries}. Built from Hibernate's query statistics, so it is empty unless
+ * {@code hibernate.generate_statistics} is on. Queries are listed as JPQL; entity loads by id
+ * are counted in the {@code hibernate.entities.loads} meter instead.
+ */
+@Component
+@Endpoint(id = "queries")
+public class QueryStatisticsEndpoint {
+    
+    private static final int DEFAULT_LIMIT = 20;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @ReadOperation
+    public List<QuerySummary> topQueries(@Nullable Integer limit) {
+        Statistics statistics = statistics();
+        return Arrays.stream(statistics.getQueries())
+                .map(query -> new QuerySummary(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong(QuerySummary::getTotalTime).reversed())
+                .limit(limit != null ? limit : DEFAULT_LIMIT)
+                .collect(Collectors.toList());
+    }
+    
+    @DeleteOperation
+    public void reset() {
+        statistics().clear();
+    }
+    
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+    
+    /**
+     * Execution statistics for one query. Times are in milliseconds.
+     */
+    public static class QuerySummary {
+        
+        private final String query;
+        
+        private final long executions;
+        
+        private final long totalTime;
+        
+        private final long averageTime;
+        
+        private final long maxTime;
+        
+        private final long rows;
+        
+        QuerySummary(String query, QueryStatistics statistics) {
+            this.query = query;
+            this.executions = statistics.getExecutionCount();
+            this.totalTime = statistics.getExecutionTotalTime();
+            this.averageTime = statistics.getExecutionAvgTime();
+            this.maxTime = statistics.getExecutionMaxTime();
+            this.rows = statistics.getExecutionRowCount();
+        }
+        
+        public String getQuery() { return query; }
+        
+        public long getExecutions() { return executions; }
+        
+        public long getTotalTime() { return totalTime; }
+        
+        public long getAverageTime() { return averageTime; }
+        
+        public long getMaxTime() { return maxTime; }
+        
+        public long getRows() { return rows; }
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.monitoring;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Where one request's time went: database statements, lock waits, payment gateway calls and
+ * response serialization. The timing is bound to whichever thread is currently working on the
+ * request, so timed code only calls {@link #add}, which is a thread-local lookup when the request
+ * is not being timed. The parts can overlap (a statement waiting on a row lock counts as both
+ * db and lock time), so they need not add up to the total.
+ */
+public final class RequestTiming {
+    
+    public enum Metric {
+        DB, LOCK, PAYMENT, SERIALIZATION;
+        
+        public String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+    
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+    
+    private final long startNanos = System.nanoTime();
+    
+    private final AtomicLongArray nanos = new AtomicLongArray(Metric.values().length);
+    
+    private final AtomicInteger statements = new AtomicInteger();
+    
+    private volatile boolean serializing;
+    
+    private volatile long serializationStart;
+    
+    private volatile long totalNanos = -1;
+    
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+    
+    public static void bind(RequestTiming timing) {
+        CURRENT.set(timing);
+    }
+    
+    public static void unbind() {
+        CURRENT.remove();
+    }
+    
+    public static void add(Metric metric, long elapsedNanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.nanos.addAndGet(metric.ordinal(), elapsedNanos);
+        }
+    }
+    
+    public static void statementExecuted(long elapsedNanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.nanos.addAndGet(Metric.DB.ordinal(), elapsedNanos);
+            timing.statements.incrementAndGet();
+        }
+    }
+    
+    // The response body is written from here until the request completes
+    public void serializationStarted() {
+        serializationStart = System.nanoTime();
+        serializing = true;
+    }
+    
+    /**
+     * Stops the clock. Called once, when the request has completed.
+     */
+    public void finish() {
+        long now = System.nanoTime();
+        if (serializing) {
+            nanos.addAndGet(Metric.SERIALIZATION.ordinal(), now - serializationStart);
+        }
+        totalNanos = now - startNanos;
+    }
+    
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+    
+    public long getNanos(Metric metric) {
+        return nanos.get(metric.ordinal());
+    }
+    
+    public int getStatements() {
+        return statements.get();
+    }
+    
+    /**
+     * Milliseconds per metric, in {@link Metric} order.
+     */
+    public Map<String, Double> getBreakdown() {
+        Map<String, Double> breakdown = new LinkedHashMap<>();
+        for (Metric metric : Metric.values()) {
+            breakdown.put(metric.label(), millis(getNanos(metric)));
+        }
+        return breakdown;
+    }
+    
+    /**
+     * Value for the {@code Server-Timing} response header, e.g.
+     * {@code db;dur=3.1;desc="7 statements", lock;dur=0.4, ..., total;dur=9.8}.
+     */
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder();
+        for (Metric metric : Metric.values()) {
+            header.append(metric.label()).append(";dur=").append(format(getNanos(metric)));
+            if (metric == Metric.DB) {
+                header.append(";desc=\"").append(getStatements()).append(" statements\"");
+            }
+            header.append(", ");
+        }
+        return header.append("total;dur=").append(format(totalNanos)).toString();
+    }
+    
+    static double millis(long nanos) {
+        return Math.round(nanos / 1000.0) / 1000.0;
+    }
+    
+    private static String format(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.monitoring;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Times a request from arrival to the last byte of its body, including the async dispatch that
+ * serializes a {@code Callable} handler's result, and hands the result to the
+ * {@link SlowRequestLog}. Requests are timed when the {@code Server-Timing} header is switched on,
+ * or else with probability {@code sampleRate}; untimed requests pay for one random draw.
+ *
+ * <p>The header has to be set before the body is sent, so with it switched on the body is
+ * buffered until the request completes.
+ */
+public class RequestTimingFilter extends OncePerRequestFilter {
+    
+    public static final String HEADER = "Server-Timing";
+    
+    public static final String TIMING_ATTRIBUTE = RequestTiming.class.getName();
+    
+    private final boolean serverTiming;
+    
+    private final double sampleRate;
+    
+    private final SlowRequestLog slowRequestLog;
+    
+    public RequestTimingFilter(boolean serverTiming, double sampleRate, SlowRequestLog slowRequestLog) {
+        this.serverTiming = serverTiming;
+        this.sampleRate = sampleRate;
+        this.slowRequestLog = slowRequestLog;
+    }
+    
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (request.getAttribute(TIMING_ATTRIBUTE) != null) {
+            return false;
+        }
+        if (isAsyncDispatch(request)) {
+            return true;
+        }
+        return !serverTiming && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTiming timing = (RequestTiming) request.getAttribute(TIMING_ATTRIBUTE);
+        if (timing == null) {
+            timing = new RequestTiming();
+            request.setAttribute(TIMING_ATTRIBUTE, timing);
+        }
+        
+        // On the async dispatch the wrapper from the first dispatch is already in the chain
+        HttpServletResponse target = response;
+        if (serverTiming && WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class) == null) {
+            target = new ContentCachingResponseWrapper(response);
+        }
+        
+        RequestTiming.bind(timing);
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            RequestTiming.unbind();
+            if (!isAsyncStarted(request)) {
+                complete(request, target, timing);
+            }
+        }
+    }
+    
+    private void complete(HttpServletRequest request, HttpServletResponse response, RequestTiming timing) throws IOException {
+        timing.finish();
+        ContentCachingResponseWrapper body = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        if (body != null) {
+            response.setHeader(HEADER, timing.toServerTiming());
+            body.copyBodyToResponse();
+        }
+        slowRequestLog.record(new SlowRequest(request.getMethod(), request.getRequestURI(), response.getStatus(), timing));
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.monitoring;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * One entry of the {@link SlowRequestLog}. Durations are in milliseconds.
+ */
+public class SlowRequest {
+    
+    private final Instant completedAt = Instant.now();
+    
+    private final String method;
+    
+    private final String uri;
+    
+    private final int status;
+    
+    private final long totalNanos;
+    
+    private final int statements;
+    
+    private final Map<String, Double> breakdown;
+    
+    public SlowRequest(String method, String uri, int status, RequestTiming timing) {
+        this.method = method;
+        this.uri = uri;
+        this.status = status;
+        this.totalNanos = timing.getTotalNanos();
+        this.statements = timing.getStatements();
+        this.breakdown = timing.getBreakdown();
+    }
+    
+    public Instant getCompletedAt() { return completedAt; }
+    
+    public String getMethod() { return method; }
+    
+    public String getUri() { return uri; }
+    
+    public int getStatus() { return status; }
+    
+    public double getDuration() { return RequestTiming.millis(totalNanos); }
+    
+    public int getStatements() { return statements; }
+    
+    public Map<String, Double> getBreakdown() { return breakdown; }
+    
+    long getTotalNanos() { return totalNanos; }
+}
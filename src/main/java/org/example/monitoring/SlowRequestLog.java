@@ -0,0 +1,70 @@
+package org.example.monitoring;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The slowest timed requests since startup (or the last reset), served by the
+ * {@code /actuator/slowrequests} endpoint. Kept as a bounded min-heap so a new request only takes
+ * the lock when it is slower than the fastest one retained.
+ */
+@Component
+@Endpoint(id = "slowrequests")
+public class SlowRequestLog {
+    
+    @Value("${app.request-timing.slow-requests:50}")
+    private int capacity;
+    
+    private final PriorityQueue<SlowRequest> slowest =
+        new PriorityQueue<>(Comparator.comparingLong(SlowRequest::getTotalNanos));
+    
+    // Duration of the fastest retained request once the log is full; anything quicker is dropped
+    private volatile long threshold = -1;
+    
+    public void record(SlowRequest request) {
+        if (capacity < 1 || request.getTotalNanos() <= threshold) {
+            return;
+        }
+        synchronized (slowest) {
+            if (slowest.size() >= capacity) {
+                if (request.getTotalNanos() <= slowest.peek().getTotalNanos()) {
+                    return;
+                }
+                slowest.poll();
+            }
+            slowest.add(request);
+            if (slowest.size() >= capacity) {
+                threshold = slowest.peek().getTotalNanos();
+            }
+        }
+    }
+    
+    /**
+     * Retained requests, slowest first.
+     */
+    @ReadOperation
+    public List<SlowRequest> slowRequests() {
+        List<SlowRequest> requests;
+        synchronized (slowest) {
+            requests = new ArrayList<>(slowest);
+        }
+        requests.sort(Comparator.comparingLong(SlowRequest::getTotalNanos).reversed());
+        return requests;
+    }
+    
+    @DeleteOperation
+    public void reset() {
+        synchronized (slowest) {
+            slowest.clear();
+            threshold = -1;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.monitoring;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Adds the JDBC execution time of every statement a session runs to the current
+ * {@link RequestTiming}. Hibernate creates one per session and calls it on the session's thread.
+ * Only registered while request timing is switched on.
+ */
+public class StatementTimingListener extends BaseSessionEventListener {
+    
+    private long statementStart;
+    
+    private long batchStart;
+    
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+    
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestTiming.statementExecuted(System.nanoTime() - statementStart);
+    }
+    
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+    
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestTiming.statementExecuted(System.nanoTime() - batchStart);
+    }
+}
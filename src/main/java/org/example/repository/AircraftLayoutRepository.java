@@ -0,0 +1,14 @@
+package org.example.repository;
+
+import org.example.model.AircraftLayout;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface AircraftLayoutRepository extends JpaRepository<AircraftLayout, Long> {
+    
+    Optional<AircraftLayout> findByAircraftType(String aircraftType);
+    
+    boolean existsByAircraftType(String aircraftType);
+}
@@ -3,11 +3,18 @@ package org.example.repository;
 import org.example.model.Booking;
 import org.example.enums.BookingStatus;
 import org.example.enums.PaymentStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +23,11 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     
     Optional<Booking> findByBookingId(String bookingId);
     
+    // Row lock until commit; cancellation and confirmation both take it before touching seats
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.bookingId = :bookingId")
+    Optional<Booking> findByBookingIdForUpdate(@Param("bookingId") String bookingId);
+    
     Optional<Booking> findByPnr(String pnr);
     
     List<Booking> findByBookedBy(String bookedBy);
@@ -46,4 +58,65 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("SELECT b FROM Booking b WHERE b.status = :status AND b.paymentStatus = :paymentStatus")
     List<Booking> findByStatusAndPaymentStatus(@Param("status") BookingStatus status, 
                                               @Param("paymentStatus") PaymentStatus paymentStatus);
+    
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = org.example.enums.BookingStatus.FAILED " +
+           "WHERE b.bookingId IN (:bookingIds) AND b.status = org.example.enums.BookingStatus.PENDING")
+    int failPendingBookings(@Param("bookingIds") Collection<String> bookingIds);
+    
+    // Moves a booking still in the status the caller read to CANCELLED; 0 means it changed in the meantime
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = org.example.enums.BookingStatus.CANCELLED " +
+           "WHERE b.id = :id AND b.status = :expected")
+    int claimCancellation(@Param("id") Long id, 
+                          @Param("expected") BookingStatus expected);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.paymentStatus = org.example.enums.PaymentStatus.REFUND_PENDING, " +
+           "b.refundAttempts = 0, b.refundNextAttemptAt = :now " +
+           "WHERE b.id = :id AND b.paymentStatus = org.example.enums.PaymentStatus.COMPLETED AND b.paymentId IS NOT NULL")
+    int requestRefund(@Param("id") Long id, 
+                      @Param("now") LocalDateTime now);
+    
+    // Fails a booking whose payment did not go through; 0 means it is no longer PENDING, e.g. it was cancelled
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = org.example.enums.BookingStatus.FAILED, " +
+           "b.paymentStatus = :paymentStatus, b.paymentId = :paymentId " +
+           "WHERE b.id = :id AND b.status = org.example.enums.BookingStatus.PENDING")
+    int failPendingBooking(@Param("id") Long id, 
+                           @Param("paymentStatus") PaymentStatus paymentStatus, 
+                           @Param("paymentId") String paymentId);
+    
+    // Records the outcome of a payment that finished after its booking was cancelled or swept
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.paymentStatus = :paymentStatus, b.paymentId = :paymentId " +
+           "WHERE b.id = :id AND b.status IN (org.example.enums.BookingStatus.CANCELLED, org.example.enums.BookingStatus.FAILED) " +
+           "AND b.paymentStatus = org.example.enums.PaymentStatus.PENDING")
+    int recordLatePayment(@Param("id") Long id, 
+                          @Param("paymentStatus") PaymentStatus paymentStatus, 
+                          @Param("paymentId") String paymentId);
+    
+    // Walks the (payment_status, refund_next_attempt_at) index, oldest due refund first
+    @Query("SELECT b FROM Booking b WHERE b.paymentStatus = org.example.enums.PaymentStatus.REFUND_PENDING " +
+           "AND b.refundNextAttemptAt <= :now ORDER BY b.refundNextAttemptAt")
+    List<Booking> findDueRefunds(@Param("now") LocalDateTime now, 
+                                 Pageable pageable);
+    
+    // Leases a refund that is still due to one worker by moving its next attempt on; 0 means another worker has it
+    @Modifying
+    @Transactional
+    @Query("UPDATE Booking b SET b.refundNextAttemptAt = :leaseUntil " +
+           "WHERE b.id = :id AND b.paymentStatus = org.example.enums.PaymentStatus.REFUND_PENDING AND b.refundNextAttemptAt <= :now")
+    int claimRefund(@Param("id") Long id, 
+                    @Param("now") LocalDateTime now, 
+                    @Param("leaseUntil") LocalDateTime leaseUntil);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Booking b SET b.paymentStatus = :paymentStatus, b.refundAttempts = :attempts, b.refundNextAttemptAt = :nextAttemptAt " +
+           "WHERE b.id = :id AND b.paymentStatus = org.example.enums.PaymentStatus.REFUND_PENDING")
+    int recordRefundAttempt(@Param("id") Long id, 
+                            @Param("paymentStatus") PaymentStatus paymentStatus, 
+                            @Param("attempts") int attempts, 
+                            @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
 }
@@ -3,10 +3,12 @@ package org.example.repository;
 import org.example.model.Flight;
 import org.example.enums.FlightStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -45,4 +47,26 @@ public interface FlightRepository extends JpaRepository<Flight, Long> {
     
     @Query("SELECT COUNT(f) FROM Flight f WHERE f.status = :status")
     Long countByStatus(@Param("status") FlightStatus status);
+    
+    @Query("SELECT f.seatMapVersion FROM Flight f WHERE f.id = :id")
+    Optional<Long> findSeatMapVersion(@Param("id") Long id);
+    
+    // Which of the given flights still exist and have not departed
+    @Query("SELECT f.id FROM Flight f WHERE f.id IN (:ids) AND f.departureTime > :now")
+    List<Long> findIdsDepartingAfter(@Param("ids") Collection<Long> ids, 
+                                     @Param("now") LocalDateTime now);
+    
+    // Single-statement adjustments so concurrent bookings and the hold sweeper never lose an update;
+    // each one also moves the seat map version on, which is what seat map ETags are built from
+    @Modifying
+    @Query("UPDATE Flight f SET f.availableSeats = f.availableSeats - :count, f.seatMapVersion = f.seatMapVersion + 1 " +
+           "WHERE f.id = :id AND f.availableSeats >= :count")
+    int decrementAvailableSeats(@Param("id") Long id, 
+                                @Param("count") int count);
+    
+    @Modifying
+    @Query("UPDATE Flight f SET f.availableSeats = f.availableSeats + :count, f.seatMapVersion = f.seatMapVersion + 1 " +
+           "WHERE f.id = :id")
+    int incrementAvailableSeats(@Param("id") Long id, 
+                                @Param("count") int count);
 }
@@ -0,0 +1,43 @@
+package org.example.repository;
+
+import org.example.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    // Parked events are left out, so one poison event cannot hold up the rest
+    List<OutboxEvent> findByPublishedAtIsNullAndFailedAtIsNullOrderByIdAsc(Pageable pageable);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN (:ids)")
+    int markPublished(@Param("ids") List<Long> ids, 
+                      @Param("publishedAt") LocalDateTime publishedAt);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :error WHERE e.id = :id")
+    int recordFailure(@Param("id") Long id, 
+                      @Param("error") String error);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :error, e.failedAt = :failedAt WHERE e.id = :id")
+    int park(@Param("id") Long id, 
+             @Param("error") String error, 
+             @Param("failedAt") LocalDateTime failedAt);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
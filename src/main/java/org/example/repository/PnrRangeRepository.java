@@ -0,0 +1,9 @@
+package org.example.repository;
+
+import org.example.model.PnrRange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PnrRangeRepository extends JpaRepository<PnrRange, Long> {
+}
@@ -0,0 +1,18 @@
+package org.example.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Seat claims that have to stay correct without any flight-wide lock, mixed into
+ * {@link SeatRepository}.
+ */
+public interface SeatClaimRepository {
+    
+    /**
+     * Claims an available seat by inserting its row as a hold; returns 0 if the seat already has
+     * one. The unique constraint on (flight_id, seat_ordinal) decides between concurrent claims:
+     * the loser's insert fails alone and is rolled back to a savepoint, leaving the caller's
+     * transaction usable for the next seat.
+     */
+    int insertHold(Long flightId, Integer ordinal, String heldBy, LocalDateTime expiresAt);
+}
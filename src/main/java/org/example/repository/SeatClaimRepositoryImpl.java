@@ -0,0 +1,64 @@
+package org.example.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+class SeatClaimRepositoryImpl implements SeatClaimRepository {
+    
+    private static final String INSERT_HOLD =
+        "INSERT INTO seats (flight_id, seat_ordinal, status, held_by, hold_expires_at, created_at, updated_at) " +
+        "VALUES (?, ?, 'LOCKED', ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+    
+    // SQLSTATE for a unique constraint violation, shared by H2, PostgreSQL and MySQL
+    private static final String UNIQUE_VIOLATION = "23505";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    SeatClaimRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public int insertHold(Long flightId, Integer ordinal, String heldBy, LocalDateTime expiresAt) {
+        // Runs on the transaction's connection behind Hibernate's back, so push pending changes first
+        entityManager.flush();
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_HOLD)) {
+                statement.setLong(1, flightId);
+                statement.setInt(2, ordinal);
+                statement.setString(3, heldBy);
+                statement.setTimestamp(4, Timestamp.valueOf(expiresAt));
+                int inserted = statement.executeUpdate();
+                release(connection, savepoint);
+                return inserted;
+            } catch (SQLException ex) {
+                if (!UNIQUE_VIOLATION.equals(ex.getSQLState())) {
+                    throw ex;
+                }
+                if (savepoint != null) {
+                    connection.rollback(savepoint);
+                }
+                return 0;
+            }
+        });
+    }
+    
+    private static void release(Connection connection, Savepoint savepoint) throws SQLException {
+        if (savepoint != null) {
+            connection.releaseSavepoint(savepoint);
+        }
+    }
+}
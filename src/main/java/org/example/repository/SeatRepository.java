@@ -2,40 +2,81 @@ package org.example.repository;
 
 import org.example.model.Seat;
 import org.example.enums.SeatStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Seat rows only exist for seats that are not available (see {@link Seat}). Flights provisioned
+ * before that may still carry AVAILABLE rows until {@code SeatInventoryMigration} removes them, so
+ * queries for taken seats filter on status rather than on the row's existence.
+ */
 @Repository
-public interface SeatRepository extends JpaRepository<Seat, Long> {
+public interface SeatRepository extends JpaRepository<Seat, Long>, SeatClaimRepository {
     
     List<Seat> findByFlightId(Long flightId);
     
     List<Seat> findByFlightIdAndStatus(Long flightId, SeatStatus status);
     
-    @Query("SELECT s FROM Seat s WHERE s.flightId = :flightId AND s.status = :status")
-    List<Seat> findAvailableSeatsByFlightId(@Param("flightId") Long flightId, 
-                                          @Param("status") SeatStatus status);
+    @Query("SELECT s.ordinal FROM Seat s WHERE s.flightId = :flightId AND s.status <> org.example.enums.SeatStatus.AVAILABLE")
+    List<Integer> findTakenOrdinals(@Param("flightId") Long flightId);
     
-    @Query("SELECT COUNT(s) FROM Seat s WHERE s.flightId = :flightId AND s.status = :status")
-    Long countByFlightIdAndStatus(@Param("flightId") Long flightId, 
-                                 @Param("status") SeatStatus status);
+    @Query("SELECT COUNT(s) FROM Seat s WHERE s.flightId = :flightId AND s.status <> org.example.enums.SeatStatus.AVAILABLE")
+    long countTakenSeats(@Param("flightId") Long flightId);
     
-    Optional<Seat> findByFlightIdAndSeatId(Long flightId, String seatId);
+    Optional<Seat> findByFlightIdAndOrdinal(Long flightId, Integer ordinal);
     
-    @Query("SELECT s FROM Seat s WHERE s.flightId = :flightId AND s.seatId = :seatId AND s.status = :status")
-    Optional<Seat> findAvailableSeatByFlightIdAndSeatId(@Param("flightId") Long flightId, 
-                                                      @Param("seatId") String seatId, 
-                                                      @Param("status") SeatStatus status);
+    // Walks the (status, hold_expires_at) index, so the cost tracks the number of expired holds
+    @Query("SELECT s FROM Seat s WHERE s.status = :status AND s.holdExpiresAt <= :now ORDER BY s.holdExpiresAt")
+    List<Seat> findExpiredHolds(@Param("status") SeatStatus status, 
+                                @Param("now") LocalDateTime now, 
+                                Pageable pageable);
     
-    @Query("SELECT s FROM Seat s WHERE s.flightId = :flightId AND s.status IN (:statuses)")
-    List<Seat> findByFlightIdAndStatusIn(@Param("flightId") Long flightId, 
-                                        @Param("statuses") List<SeatStatus> statuses);
+    @Modifying
+    @Query("DELETE FROM Seat s " +
+           "WHERE s.id IN (:ids) AND s.status = org.example.enums.SeatStatus.LOCKED AND s.holdExpiresAt <= :now")
+    int releaseExpiredHolds(@Param("ids") Collection<Long> ids, 
+                            @Param("now") LocalDateTime now);
     
-    @Query("SELECT COUNT(s) FROM Seat s WHERE s.flightId = :flightId AND s.status = :status")
-    Long countAvailableSeatsByFlightId(@Param("flightId") Long flightId, 
-                                      @Param("status") SeatStatus status);
+    // Same claim for a seat still stored as an AVAILABLE row by eager provisioning
+    @Modifying
+    @Query("UPDATE Seat s SET s.status = org.example.enums.SeatStatus.LOCKED, s.heldBy = :heldBy, s.holdExpiresAt = :expiresAt " +
+           "WHERE s.flightId = :flightId AND s.ordinal = :ordinal AND s.status = org.example.enums.SeatStatus.AVAILABLE")
+    int holdStoredSeat(@Param("flightId") Long flightId, 
+                       @Param("ordinal") Integer ordinal, 
+                       @Param("heldBy") String heldBy, 
+                       @Param("expiresAt") LocalDateTime expiresAt);
+    
+    @Modifying
+    @Query("UPDATE Seat s SET s.status = org.example.enums.SeatStatus.OCCUPIED, s.heldBy = NULL, s.holdExpiresAt = NULL " +
+           "WHERE s.flightId = :flightId AND s.heldBy = :heldBy AND s.status = org.example.enums.SeatStatus.LOCKED")
+    int occupyHeldSeats(@Param("flightId") Long flightId, 
+                        @Param("heldBy") String heldBy);
+    
+    @Modifying
+    @Query("DELETE FROM Seat s " +
+           "WHERE s.flightId = :flightId AND s.heldBy = :heldBy AND s.status = org.example.enums.SeatStatus.LOCKED")
+    int releaseHeldSeats(@Param("flightId") Long flightId, 
+                         @Param("heldBy") String heldBy);
+    
+    @Modifying
+    @Query("DELETE FROM Seat s " +
+           "WHERE s.flightId = :flightId AND s.ordinal IN (:ordinals) AND s.status = org.example.enums.SeatStatus.OCCUPIED")
+    int releaseOccupiedSeats(@Param("flightId") Long flightId, 
+                             @Param("ordinals") Collection<Integer> ordinals);
+    
+    // Eagerly provisioned flights, for the migration to sparse rows
+    @Query("SELECT DISTINCT s.flightId FROM Seat s WHERE s.status = org.example.enums.SeatStatus.AVAILABLE ORDER BY s.flightId")
+    List<Long> findFlightIdsWithAvailableRows(Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM Seat s WHERE s.flightId = :flightId AND s.status = org.example.enums.SeatStatus.AVAILABLE")
+    int deleteAvailableRows(@Param("flightId") Long flightId);
 }
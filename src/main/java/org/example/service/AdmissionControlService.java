@@ -0,0 +1,193 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.exception.AdmissionRejectedException;
+import org.example.util.TokenBucket;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Waiting room in front of booking creation. Each flight has a token bucket that caps its
+ * booking rate, and a global concurrency limit keeps the booking pipeline at its sustainable
+ * throughput. Requests over the limit wait in a FIFO queue; when the queue is full or the
+ * wait runs out they are rejected with a Retry-After estimate instead of piling onto the
+ * database and lock service. A flight's token is only taken once the request is admitted.
+ *
+ * <p>Buckets are created only for flights that exist, and a bucket that has refilled
+ * completely is dropped by {@link #evictIdleBuckets()}, so the map holds the flights booked
+ * in the last few seconds rather than every id ever asked for.
+ */
+@Service
+public class AdmissionControlService {
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private FlightService flightService;
+    
+    @Value("${app.admission.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.admission.per-flight-rate:50}")
+    private double perFlightRate;
+    
+    @Value("${app.admission.per-flight-burst:100}")
+    private double perFlightBurst;
+    
+    @Value("${app.admission.max-concurrent:64}")
+    private int maxConcurrent;
+    
+    @Value("${app.admission.max-queue-depth:500}")
+    private int maxQueueDepth;
+    
+    @Value("${app.admission.max-queue-wait:2000}")
+    private long maxQueueWait;
+    
+    private final Map<Long, TokenBucket> flightBuckets = new ConcurrentHashMap<>();
+    
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    
+    // Exponentially weighted average of admitted execution time, used for Retry-After estimates
+    private final AtomicLong averageServiceMillis = new AtomicLong(100);
+    
+    private Semaphore permits;
+    
+    private Counter rateLimitedCounter;
+    
+    private Counter queueFullCounter;
+    
+    private Counter queueTimeoutCounter;
+    
+    @PostConstruct
+    public void init() {
+        // Fair semaphore: waiting requests are admitted in arrival order
+        permits = new Semaphore(maxConcurrent, true);
+        
+        Gauge.builder("booking.admission.queue.depth", queueDepth, AtomicInteger::get)
+            .description("Booking requests waiting for admission")
+            .register(meterRegistry);
+        Gauge.builder("booking.admission.in.flight", this, s -> s.maxConcurrent - s.permits.availablePermits())
+            .description("Booking requests currently admitted")
+            .register(meterRegistry);
+        rateLimitedCounter = rejectionCounter("rate_limited");
+        queueFullCounter = rejectionCounter("queue_full");
+        queueTimeoutCounter = rejectionCounter("queue_timeout");
+    }
+    
+    public <T> T execute(Long flightId, Supplier<T> action) {
+        if (!enabled) {
+            return action.get();
+        }
+        
+        admit(flightId);
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            permits.release();
+            recordServiceTime(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+    
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+    
+    /**
+     * Drops buckets that have refilled to capacity; a new bucket starts full, so nothing changes for
+     * the flight. A request racing the sweep may take its token from the dropped bucket, which lets
+     * at most one extra request per flight through per sweep.
+     */
+    @Scheduled(fixedDelayString = "${app.admission.idle-bucket-sweep:60000}")
+    public void evictIdleBuckets() {
+        flightBuckets.values().removeIf(TokenBucket::isFull);
+    }
+    
+    int getTrackedFlights() {
+        return flightBuckets.size();
+    }
+    
+    private void admit(Long flightId) {
+        TokenBucket bucket = flightBuckets.get(flightId);
+        if (bucket == null) {
+            // Throws FlightNotFoundException for ids that are not flights, before a bucket is made
+            flightService.getFlightById(flightId);
+            bucket = flightBuckets.computeIfAbsent(flightId, id -> new TokenBucket(perFlightBurst, perFlightRate));
+        }
+        // Cheap check first so a flight over its rate does not take a queue slot
+        if (!bucket.hasToken()) {
+            throw rateLimited(flightId, bucket);
+        }
+        
+        acquirePermit();
+        if (!bucket.tryConsume()) {
+            permits.release();
+            throw rateLimited(flightId, bucket);
+        }
+    }
+    
+    private AdmissionRejectedException rateLimited(Long flightId, TokenBucket bucket) {
+        rateLimitedCounter.increment();
+        return new AdmissionRejectedException("Too many booking requests for flight " + flightId,
+            bucket.secondsUntilNextToken(), null);
+    }
+    
+    private void acquirePermit() {
+        try {
+            // A zero timeout honours fairness; plain tryAcquire() would barge ahead of queued requests
+            if (permits.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AdmissionRejectedException("Interrupted while waiting for admission", estimateWaitSeconds(1), 1);
+        }
+        
+        int position = queueDepth.incrementAndGet();
+        try {
+            if (position > maxQueueDepth) {
+                queueFullCounter.increment();
+                throw new AdmissionRejectedException("Booking queue is full", estimateWaitSeconds(position), position);
+            }
+            if (!permits.tryAcquire(maxQueueWait, TimeUnit.MILLISECONDS)) {
+                queueTimeoutCounter.increment();
+                throw new AdmissionRejectedException("Booking queue wait exceeded", estimateWaitSeconds(position), position);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AdmissionRejectedException("Interrupted while waiting for admission", estimateWaitSeconds(position), position);
+        } finally {
+            queueDepth.decrementAndGet();
+        }
+    }
+    
+    private long estimateWaitSeconds(int position) {
+        long millis = (long) position * averageServiceMillis.get() / Math.max(1, maxConcurrent);
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(millis + 999));
+    }
+    
+    private void recordServiceTime(long millis) {
+        averageServiceMillis.getAndUpdate(avg -> (avg * 7 + millis) / 8);
+    }
+    
+    private Counter rejectionCounter(String reason) {
+        return Counter.builder("booking.admission.rejected")
+            .tag("reason", reason)
+            .description("Booking requests rejected by admission control")
+            .register(meterRegistry);
+    }
+}
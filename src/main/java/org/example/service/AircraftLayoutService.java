@@ -0,0 +1,231 @@
+package org.example.service;
+
+import org.example.dto.AircraftLayoutRequest;
+import org.example.dto.AircraftLayoutResponse;
+import org.example.exception.FlightNotFoundException;
+import org.example.model.AircraftLayout;
+import org.example.model.Flight;
+import org.example.repository.AircraftLayoutRepository;
+import org.example.repository.FlightRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Stores aircraft layouts and resolves the seats a flight sells from its layout. Layouts never
+ * change once created and a flight never changes layout or capacity, so both lookups are cached
+ * for the life of the process and seat operations cost no extra queries after the first one per
+ * flight.
+ */
+@Service
+@Transactional
+public class AircraftLayoutService {
+    
+    // Layout used for flights created without an aircraft type
+    static final String GENERIC_LETTERS = "ABC DEF";
+    
+    @Autowired
+    private AircraftLayoutRepository layoutRepository;
+    
+    @Autowired
+    private FlightRepository flightRepository;
+    
+    private final ConcurrentMap<Long, AircraftLayout> layouts = new ConcurrentHashMap<>();
+    
+    private final ConcurrentMap<Long, FlightSeating> flightSeatings = new ConcurrentHashMap<>();
+    
+    public AircraftLayoutResponse createLayout(AircraftLayoutRequest request) {
+        if (layoutRepository.existsByAircraftType(request.getAircraftType())) {
+            throw new IllegalArgumentException("A layout for aircraft type " + request.getAircraftType() + " already exists");
+        }
+        
+        AircraftLayout layout = new AircraftLayout();
+        layout.setAircraftType(request.getAircraftType());
+        layout.setRowCount(request.getRowCount());
+        layout.setFirstRow(request.getFirstRow() != null ? request.getFirstRow() : 1);
+        layout.setColumnLetters(request.getColumnLetters());
+        layout.setCabins(request.getCabins());
+        if (request.getBlockedSeats() != null && !request.getBlockedSeats().isEmpty()) {
+            layout.setBlockedSeats(String.join(",", request.getBlockedSeats()));
+        }
+        validate(layout);
+        
+        return convertToResponse(layoutRepository.save(layout));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<AircraftLayoutResponse> getAllLayouts() {
+        return layoutRepository.findAll().stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Layout for a new flight: the stored layout for the aircraft type, or a six-abreast cabin just
+     * big enough for {@code seats} when no type is given. Generic layouts are stored once per size
+     * and shared like any other.
+     */
+    public AircraftLayout resolveLayout(String aircraftType, int seats) {
+        AircraftLayout layout;
+        if (aircraftType == null || aircraftType.trim().isEmpty()) {
+            int columns = GENERIC_LETTERS.replace(" ", "").length();
+            int rows = (seats + columns - 1) / columns;
+            String genericType = "GENERIC-" + rows + "x" + columns;
+            layout = layoutRepository.findByAircraftType(genericType)
+                    .orElseGet(() -> layoutRepository.save(genericLayout(genericType, rows)));
+        } else {
+            layout = layoutRepository.findByAircraftType(aircraftType)
+                    .orElseThrow(() -> new IllegalArgumentException("No layout for aircraft type " + aircraftType));
+        }
+        
+        if (seats > layout.getSeatCount()) {
+            throw new IllegalArgumentException("Aircraft type " + layout.getAircraftType() + " only has "
+                + layout.getSeatCount() + " seats, cannot sell " + seats);
+        }
+        return layout;
+    }
+    
+    @Transactional(readOnly = true)
+    public AircraftLayout getLayout(Long layoutId) {
+        AircraftLayout layout = layouts.get(layoutId);
+        if (layout == null) {
+            layout = layoutRepository.findById(layoutId)
+                    .orElseThrow(() -> new IllegalStateException("Aircraft layout " + layoutId + " does not exist"));
+            AircraftLayout cached = layouts.putIfAbsent(layoutId, layout);
+            if (cached != null) {
+                layout = cached;
+            }
+        }
+        return layout;
+    }
+    
+    @Transactional(readOnly = true)
+    public AircraftLayout getLayoutForFlight(Long flightId) {
+        return getSeatingForFlight(flightId).getLayout();
+    }
+    
+    @Transactional(readOnly = true)
+    public FlightSeating getSeatingForFlight(Long flightId) {
+        FlightSeating seating = flightSeatings.get(flightId);
+        if (seating == null) {
+            Flight flight = flightRepository.findById(flightId)
+                    .orElseThrow(() -> new FlightNotFoundException(flightId));
+            seating = new FlightSeating(getLayout(flight.getLayoutId()), flight.getMaxPassengers());
+            flightSeatings.put(flightId, seating);
+        }
+        return seating;
+    }
+    
+    private AircraftLayout genericLayout(String aircraftType, int rows) {
+        AircraftLayout layout = new AircraftLayout();
+        layout.setAircraftType(aircraftType);
+        layout.setRowCount(rows);
+        layout.setFirstRow(1);
+        layout.setColumnLetters(GENERIC_LETTERS);
+        return layout;
+    }
+    
+    private void validate(AircraftLayout layout) {
+        String letters = layout.getColumnLetters().replace(" ", "");
+        if (letters.chars().distinct().count() < letters.length()) {
+            throw new IllegalArgumentException("Column letters must not repeat: " + layout.getColumnLetters());
+        }
+        
+        // Parses the blocked seats, rejecting any that are not on the aircraft
+        if (layout.getSeatCount() < 1) {
+            throw new IllegalArgumentException("Layout " + layout.getAircraftType() + " has no seats");
+        }
+        
+        if (layout.getCabins() != null) {
+            int firstRow = layout.getFirstRow();
+            BitSet covered = new BitSet();
+            for (String cabin : layout.getCabins().split(",")) {
+                String[] rows = cabin.substring(2).split("-");
+                int from = Integer.parseInt(rows[0]);
+                int to = Integer.parseInt(rows[1]);
+                if (from > to || from < firstRow || to >= firstRow + layout.getRowCount()) {
+                    throw new IllegalArgumentException("Cabin " + cabin + " is outside rows " + firstRow
+                        + "-" + (firstRow + layout.getRowCount() - 1));
+                }
+                if (covered.get(from, to + 1).cardinality() > 0) {
+                    throw new IllegalArgumentException("Cabin " + cabin + " overlaps another cabin");
+                }
+                covered.set(from, to + 1);
+            }
+        }
+    }
+    
+    /**
+     * The seats a flight sells: the first {@code maxPassengers} seats of its layout, front to back.
+     * Any sellable seat without a stored seat row is available.
+     */
+    public static class FlightSeating {
+        
+        private final AircraftLayout layout;
+        
+        private final BitSet sellable;
+        
+        private final int capacity;
+        
+        public FlightSeating(AircraftLayout layout, int capacity) {
+            this.layout = layout;
+            this.capacity = capacity;
+            this.sellable = new BitSet(layout.getPositions());
+            for (int ordinal : layout.seatOrdinals(capacity)) {
+                sellable.set(ordinal);
+            }
+        }
+        
+        public AircraftLayout getLayout() {
+            return layout;
+        }
+        
+        public int getCapacity() {
+            return capacity;
+        }
+        
+        // A copy, so callers can clear the taken seats out of it
+        public BitSet getSellable() {
+            return (BitSet) sellable.clone();
+        }
+        
+        public boolean isSellable(int ordinal) {
+            return ordinal >= 0 && sellable.get(ordinal);
+        }
+        
+        /**
+         * Ordinal of a seat id, or -1 if the id names no seat this flight sells.
+         */
+        public int ordinal(String seatId) {
+            int ordinal = layout.ordinal(seatId);
+            return isSellable(ordinal) ? ordinal : -1;
+        }
+        
+        public String seatId(int ordinal) {
+            return layout.seatId(ordinal);
+        }
+    }
+    
+    private AircraftLayoutResponse convertToResponse(AircraftLayout layout) {
+        AircraftLayoutResponse response = new AircraftLayoutResponse();
+        response.setId(layout.getId());
+        response.setAircraftType(layout.getAircraftType());
+        response.setRowCount(layout.getRowCount());
+        response.setFirstRow(layout.getFirstRow());
+        response.setColumnLetters(layout.getColumnLetters());
+        response.setCabins(layout.getCabins());
+        response.setBlockedSeats(layout.getBlockedSeats() != null
+            ? Arrays.asList(layout.getBlockedSeats().split(","))
+            : Collections.emptyList());
+        response.setSeatCount(layout.getSeatCount());
+        response.setCreatedAt(layout.getCreatedAt());
+        return response;
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.service;
+
+import org.example.util.CrockfordBase32;
+import org.example.util.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Issues booking ids and PNRs without locking on the booking path.
+ *
+ * <p>Booking ids are "BK" followed by a Snowflake id in 13 Crockford base 32 characters: unique
+ * as long as every running instance has its own {@code app.ids.node-id}, and sorted by creation
+ * time. PNRs are six Crockford characters from the {@link PnrPool}, unique without a lookup.
+ */
+@Service
+public class BookingIdService {
+    
+    // 2024-01-01T00:00:00Z
+    static final long EPOCH_MILLIS = 1704067200000L;
+    
+    private static final int BOOKING_ID_LENGTH = 13;
+    
+    @Value("${app.ids.node-id:0}")
+    private int nodeId;
+    
+    @Autowired
+    private PnrPool pnrPool;
+    
+    private SnowflakeIdGenerator bookingIds;
+    
+    @PostConstruct
+    void init() {
+        bookingIds = new SnowflakeIdGenerator(nodeId, EPOCH_MILLIS);
+    }
+    
+    public String nextBookingId() {
+        return "BK" + CrockfordBase32.encode(bookingIds.nextId(), BOOKING_ID_LENGTH);
+    }
+    
+    public String nextPnr() {
+        return pnrPool.next();
+    }
+}
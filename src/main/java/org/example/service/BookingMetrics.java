@@ -0,0 +1,82 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.exception.FlightBookingException;
+import org.example.monitoring.RequestTiming;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timers for the booking pipeline, so a slowdown can be pinned on one stage:
+ *
+ * <ul>
+ *   <li>{@code booking.stage}: each stage of creating or cancelling a booking, tagged with the
+ *       operation, the stage and the outcome</li>
+ *   <li>{@code payment.duration}: gateway calls, tagged with the operation (charge, refund) and
+ *       the outcome</li>
+ *   <li>{@code seat.claim}: claiming a seat row for a hold, tagged acquired or lost to another
+ *       booker; seats are locked by claiming their row, so this is the seat lock wait</li>
+ * </ul>
+ *
+ * Outcomes are {@code success}, {@code rejected} for expected refusals such as a sold-out flight
+ * or a shed request, and {@code error}. Every tag comes from a small fixed set.
+ *
+ * <p>Lock and payment time also goes to the current {@link RequestTiming}, if the request is timed.
+ */
+@Component
+public class BookingMetrics {
+    
+    // Waits on the flight row lock that serialises seat claims
+    static final String LOCK_STAGE = "inventory_lock";
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    
+    public <T> T timeStage(String operation, String stage, Supplier<T> action) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = action.get();
+            outcome = "success";
+            return result;
+        } catch (FlightBookingException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timer("booking.stage", "operation", operation, "stage", stage, "outcome", outcome)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+            if (LOCK_STAGE.equals(stage)) {
+                RequestTiming.add(RequestTiming.Metric.LOCK, elapsed);
+            }
+        }
+    }
+    
+    public void recordPayment(String operation, String outcome, long nanos) {
+        timer("payment.duration", "operation", operation, "outcome", outcome).record(nanos, TimeUnit.NANOSECONDS);
+        RequestTiming.add(RequestTiming.Metric.PAYMENT, nanos);
+    }
+    
+    public void recordSeatClaim(boolean acquired, long nanos) {
+        timer("seat.claim", "outcome", acquired ? "acquired" : "lost").record(nanos, TimeUnit.NANOSECONDS);
+        RequestTiming.add(RequestTiming.Metric.LOCK, nanos);
+    }
+    
+    // Registry lookups build a meter id each time; these run several times per booking
+    private Timer timer(String name, String... tags) {
+        String key = name + String.join(",", tags);
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(key, k -> meterRegistry.timer(name, tags));
+        }
+        return timer;
+    }
+}
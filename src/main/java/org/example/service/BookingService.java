@@ -9,22 +9,26 @@ import org.example.exception.SeatNotAvailableException;
 import org.example.model.Booking;
 import org.example.model.BookingSeat;
 import org.example.model.Flight;
-import org.example.model.Seat;
 import org.example.repository.BookingRepository;
 import org.example.repository.FlightRepository;
 import org.example.enums.BookingStatus;
 import org.example.enums.PaymentStatus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,6 +37,11 @@ public class BookingService {
     
     private static final Logger logger = LoggerFactory.getLogger(BookingService.class);
     
+    // Operation tags on the booking.stage timers
+    private static final String CREATE = "create";
+    
+    private static final String CANCEL = "cancel";
+    
     @Autowired
     private BookingRepository bookingRepository;
     
@@ -45,113 +54,30 @@ public class BookingService {
     @Autowired
     private PaymentService paymentService;
     
-    @Autowired(required = false)
-    private RedisLockService redisLockService;
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private BookingMetrics bookingMetrics;
     
+    @Autowired
+    private BookingIdService bookingIdService;
+    
+    /**
+     * Books in three steps so no database transaction stays open across the payment call: the
+     * seats are held and a pending booking committed, payment runs outside any transaction, then
+     * the hold is turned into occupied seats or released. A hold that lapses while payment is
+     * still running is swept back into inventory, so the payment is left REFUND_PENDING for
+     * {@link RefundWorker} instead.
+     *
+     * <p>Each step is timed as a {@code booking.stage} with operation {@code create}.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BookingResponse createBooking(BookingRequest request) {
-        // Validate flight exists
-        Flight flight = flightRepository.findById(request.getFlightId())
-                .orElseThrow(() -> new FlightNotFoundException("Flight not found with ID: " + request.getFlightId()));
-        
-        // Check if flight has enough available seats
-        if (flight.getAvailableSeats() < request.getNumberOfPassengers()) {
-            throw new SeatNotAvailableException("Not enough seats available for flight " + request.getFlightId());
-        }
-        
-        // Get available seats sequentially
-        List<Seat> availableSeats = seatService.getAvailableSeatsSequentially(
-            request.getFlightId(), request.getNumberOfPassengers());
-        
-        if (availableSeats.size() < request.getNumberOfPassengers()) {
-            throw new SeatNotAvailableException("Not enough seats available for flight " + request.getFlightId());
-        }
-        
-        // Acquire Redis locks for all seats
-        List<String> lockValues = new ArrayList<>();
-        try {
-            // Try to acquire locks if Redis is available
-            if (redisLockService != null) {
-                for (Seat seat : availableSeats) {
-                    String lockValue = redisLockService.acquireSeatLock(request.getFlightId(), seat.getSeatId());
-                    if (lockValue == null) {
-                        // Release all previously acquired locks
-                        releaseAllLocks(request.getFlightId(), availableSeats, lockValues);
-                        throw new SeatNotAvailableException("Seat " + seat.getSeatId() + " is currently being booked by another user");
-                    }
-                    lockValues.add(lockValue);
-                }
-            } else {
-                logger.warn("Redis not available - proceeding without distributed locking");
-            }
-            
-            // Create booking
-            String bookingId = generateBookingId();
-            BigDecimal totalPrice = flight.getPrice().multiply(BigDecimal.valueOf(request.getNumberOfPassengers()));
-            
-            Booking booking = new Booking();
-            booking.setBookingId(bookingId);
-            booking.setFlightId(request.getFlightId());
-            booking.setBookedBy(request.getBookedBy());
-            booking.setPaxDetails(request.getPaxDetails());
-            booking.setNumberOfPassengers(request.getNumberOfPassengers());
-            booking.setTotalPrice(totalPrice);
-            
-            // Save booking
-            Booking savedBooking = bookingRepository.save(booking);
-            
-            // Process payment
-            PaymentService.PaymentResult paymentResult = paymentService.processPayment(
-                bookingId, totalPrice, "CREDIT_CARD");
-            
-            if (paymentResult.isSuccess()) {
-                // Update booking with payment details
-                savedBooking.setPaymentId(paymentResult.getTransactionId());
-                savedBooking.markPaymentSuccess();
-                savedBooking.confirm();
-                savedBooking.setPnr(generatePNR());
-                
-                // Create BookingSeat entries and lock seats
-                List<BookingSeat> bookingSeats = new ArrayList<>();
-                String[] passengerNames = request.getPaxDetails().split(",");
-                
-                for (int i = 0; i < availableSeats.size(); i++) {
-                    Seat seat = availableSeats.get(i);
-                    String passengerName = (i < passengerNames.length) ? passengerNames[i].trim() : "Passenger " + (i + 1);
-                    
-                    BookingSeat bookingSeat = new BookingSeat();
-                    bookingSeat.setBookingId(savedBooking.getId());
-                    bookingSeat.setSeatId(seat.getSeatId());
-                    bookingSeat.setPassengerName(passengerName);
-                    bookingSeat.setSeatPrice(flight.getPrice());
-                    
-                    bookingSeats.add(bookingSeat);
-                    
-                    // Lock the seat
-                    seatService.lockSeat(request.getFlightId(), seat.getSeatId());
-                }
-                
-                savedBooking.setAssignedSeats(bookingSeats);
-                
-                // Decrement available seats
-                flight.setAvailableSeats(flight.getAvailableSeats() - request.getNumberOfPassengers());
-                flightRepository.save(flight);
-                
-            } else {
-                // Payment failed
-                savedBooking.markPaymentFailed();
-                savedBooking.cancel();
-                throw new PaymentFailedException("Payment failed: " + paymentResult.getMessage());
-            }
-            
-            // Save updated booking
-            Booking finalBooking = bookingRepository.save(savedBooking);
-            
-            return convertToResponse(finalBooking);
-            
-        } finally {
-            // Release all locks
-            releaseAllLocks(request.getFlightId(), availableSeats, lockValues);
-        }
+        return bookingMetrics.timeStage(CREATE, "total", () -> book(request));
     }
     
     public BookingResponse getBookingById(String bookingId) {
@@ -173,9 +99,63 @@ public class BookingService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Cancels in one short transaction that never calls the payment gateway: the booking's seats
+     * go back to inventory in a single statement, the flight's available count moves by the number
+     * actually released, and a paid booking is left REFUND_PENDING for {@link RefundWorker}.
+     *
+     * <p>Each step is timed as a {@code booking.stage} with operation {@code cancel}.
+     */
     public BookingResponse cancelBooking(String bookingId) {
-        Booking booking = bookingRepository.findByBookingId(bookingId)
-                .orElseThrow(() -> new BookingNotFoundException("Booking not found with ID: " + bookingId));
+        return bookingMetrics.timeStage(CANCEL, "total", () -> cancel(bookingId));
+    }
+    
+    public List<BookingResponse> getAllBookings() {
+        List<Booking> bookings = bookingRepository.findAll();
+        return bookings.stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+    }
+    
+    private BookingResponse book(BookingRequest request) {
+        SeatHold hold = inTransaction(status -> holdSeats(request));
+        Booking booking = hold.getBooking();
+        
+        // Process payment
+        PaymentService.PaymentResult paymentResult;
+        try {
+            paymentResult = bookingMetrics.timeStage(CREATE, "payment", () -> paymentService.processPayment(
+                booking.getBookingId(), booking.getTotalPrice(), "CREDIT_CARD"));
+        } catch (RuntimeException e) {
+            abandon(booking, PaymentStatus.FAILED);
+            throw e;
+        }
+        
+        if (!paymentResult.isSuccess()) {
+            abandon(booking, PaymentStatus.FAILED);
+            logger.info("Booking {} failed: {}", booking.getBookingId(), paymentResult.getMessage());
+            throw new PaymentFailedException("Payment failed: " + paymentResult.getMessage());
+        }
+        
+        Booking finalBooking = bookingMetrics.timeStage(CREATE, "confirm",
+            () -> inTransaction(status -> confirmHold(hold, paymentResult, status)));
+        if (finalBooking == null) {
+            // The charge went through for seats we no longer have; the refund worker returns it
+            booking.setPaymentId(paymentResult.getTransactionId());
+            abandon(booking, PaymentStatus.COMPLETED);
+            logger.warn("Seat hold for booking {} expired or was cancelled during payment, payment {} queued for refund",
+                booking.getBookingId(), paymentResult.getTransactionId());
+            throw new SeatNotAvailableException("Seat hold for booking " + booking.getBookingId() + " expired or was cancelled before payment completed");
+        }
+        
+        logger.info("Booking {} confirmed on flight {}, seats {}", finalBooking.getBookingId(), finalBooking.getFlightId(), hold.getSeatIds());
+        return convertToResponse(finalBooking);
+    }
+    
+    private BookingResponse cancel(String bookingId) {
+        // Locked until commit: a payment confirming at the same time waits, then finds the booking cancelled
+        Booking booking = bookingMetrics.timeStage(CANCEL, "booking_lookup", () -> bookingRepository.findByBookingIdForUpdate(bookingId)
+                .orElseThrow(() -> new BookingNotFoundException("Booking not found with ID: " + bookingId)));
         
         if (booking.isCancelled()) {
             throw new IllegalArgumentException("Booking is already cancelled");
@@ -185,57 +165,167 @@ public class BookingService {
             throw new IllegalArgumentException("Cannot cancel booking in current status: " + booking.getStatus());
         }
         
-        // Cancel booking
-        booking.cancel();
+        BookingStatus observed = booking.getStatus();
+        Long flightId = booking.getFlightId();
+        List<String> occupiedSeatIds = observed == BookingStatus.CONFIRMED && booking.getAssignedSeats() != null
+            ? booking.getAssignedSeats().stream().map(BookingSeat::getSeatId).collect(Collectors.toList())
+            : new ArrayList<>();
         
-        // Release seats if they were locked
-        if (booking.isConfirmed() && booking.getAssignedSeats() != null) {
-            for (BookingSeat bookingSeat : booking.getAssignedSeats()) {
-                seatService.releaseSeat(booking.getFlightId(), bookingSeat.getSeatId());
-            }
-            
-            // Increment available seats
-            Flight flight = flightRepository.findById(booking.getFlightId())
-                    .orElseThrow(() -> new FlightNotFoundException(booking.getFlightId()));
-            flight.setAvailableSeats(flight.getAvailableSeats() + booking.getNumberOfPassengers());
-            flightRepository.save(flight);
+        // Only applies to the status read above, so seats and refund are decided on what is actually cancelled
+        if (bookingMetrics.timeStage(CANCEL, "cancel_claim", () -> bookingRepository.claimCancellation(booking.getId(), observed)) == 0) {
+            throw new IllegalArgumentException("Booking is already cancelled");
         }
         
-        // Process refund if payment was successful
-        if (booking.isPaymentSuccessful() && booking.getPaymentId() != null) {
-            PaymentService.PaymentResult refundResult = paymentService.refundPayment(
-                booking.getPaymentId(), booking.getPrice());
-            
-            if (refundResult.isSuccess()) {
-                booking.setPaymentStatus(PaymentStatus.REFUNDED);
-            }
+        // A confirmed booking occupies its seats; a pending one may still hold them while payment runs
+        int released = bookingMetrics.timeStage(CANCEL, "seat_release", () -> observed == BookingStatus.CONFIRMED
+            ? seatService.releaseOccupiedSeats(flightId, occupiedSeatIds)
+            : seatService.releaseHeldSeats(flightId, bookingId));
+        
+        if (released > 0 && bookingMetrics.timeStage(CANCEL, "inventory_release",
+                () -> flightRepository.incrementAvailableSeats(flightId, released)) == 0) {
+            throw new FlightNotFoundException(flightId);
+        }
+        
+        // Only a completed payment is refunded; the refund worker calls the gateway
+        if (observed == BookingStatus.CONFIRMED) {
+            bookingRepository.requestRefund(booking.getId(), LocalDateTime.now());
         }
         
-        Booking updatedBooking = bookingRepository.save(booking);
+        Booking updatedBooking = bookingMetrics.timeStage(CANCEL, "booking_save", () -> {
+            Booking cancelled = bookingRepository.findByBookingId(bookingId)
+                .orElseThrow(() -> new BookingNotFoundException("Booking not found with ID: " + bookingId));
+            outboxService.bookingCancelled(cancelled);
+            return cancelled;
+        });
+        logger.info("Booking {} cancelled, {} seats released", bookingId, released);
         return convertToResponse(updatedBooking);
     }
     
-    public List<BookingResponse> getAllBookings() {
-        List<Booking> bookings = bookingRepository.findAll();
-        return bookings.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    private SeatHold holdSeats(BookingRequest request) {
+        // Validate flight exists
+        Flight flight = bookingMetrics.timeStage(CREATE, "flight_lookup", () -> flightRepository.findById(request.getFlightId())
+                .orElseThrow(() -> new FlightNotFoundException("Flight not found with ID: " + request.getFlightId())));
+        
+        // Check if flight has enough available seats
+        if (flight.getAvailableSeats() < request.getNumberOfPassengers()) {
+            throw new SeatNotAvailableException("Not enough seats available for flight " + request.getFlightId());
+        }
+        
+        List<String> requestedSeatIds = request.getSeatIds();
+        if (requestedSeatIds != null) {
+            if (requestedSeatIds.size() > request.getNumberOfPassengers()) {
+                throw new IllegalArgumentException("More seats requested than passengers");
+            }
+            if (new HashSet<>(requestedSeatIds).size() < requestedSeatIds.size()) {
+                throw new IllegalArgumentException("The same seat was requested more than once");
+            }
+        }
+        
+        // Taking the count first locks the flight row. Seat claims are safe without it, but it keeps
+        // concurrent bookings on the flight from waiting on each other's uncommitted seat rows
+        if (bookingMetrics.timeStage(CREATE, BookingMetrics.LOCK_STAGE,
+                () -> flightRepository.decrementAvailableSeats(request.getFlightId(), request.getNumberOfPassengers())) == 0) {
+            throw new SeatNotAvailableException("Not enough seats available for flight " + request.getFlightId());
+        }
+        
+        // Hold the seats for this booking; the hold expires if the booking never completes
+        String bookingId = bookingIdService.nextBookingId();
+        List<String> seatIds = bookingMetrics.timeStage(CREATE, "seat_hold", () -> seatService.holdSeats(
+            request.getFlightId(), request.getNumberOfPassengers(), requestedSeatIds, request.getSeatFallback(), bookingId));
+        
+        // Create pending booking
+        BigDecimal totalPrice = flight.getPrice().multiply(BigDecimal.valueOf(request.getNumberOfPassengers()));
+        
+        Booking booking = new Booking();
+        booking.setBookingId(bookingId);
+        booking.setFlightId(request.getFlightId());
+        booking.setBookedBy(request.getBookedBy());
+        booking.setPaxDetails(request.getPaxDetails());
+        booking.setNumberOfPassengers(request.getNumberOfPassengers());
+        booking.setTotalPrice(totalPrice);
+        
+        logger.debug("Held seats {} on flight {} for booking {}", seatIds, request.getFlightId(), bookingId);
+        Booking pending = bookingMetrics.timeStage(CREATE, "booking_save", () -> bookingRepository.save(booking));
+        return new SeatHold(pending, seatIds, flight.getPrice());
     }
     
-    private String generateBookingId() {
-        return "BK" + System.currentTimeMillis() + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    private Booking confirmHold(SeatHold hold, PaymentService.PaymentResult paymentResult, TransactionStatus status) {
+        // Locked before the seats, in the same order as cancellation and the hold sweeper
+        Booking booking = bookingRepository.findByBookingIdForUpdate(hold.getBooking().getBookingId())
+                .orElseThrow(() -> new BookingNotFoundException("Booking not found with ID: " + hold.getBooking().getBookingId()));
+        List<String> seatIds = hold.getSeatIds();
+        
+        if (!booking.isPending()) {
+            // Cancelled, or failed by the sweeper, while payment was running
+            status.setRollbackOnly();
+            return null;
+        }
+        
+        if (seatService.occupyHeldSeats(booking.getFlightId(), booking.getBookingId()) < seatIds.size()) {
+            // Part of the hold lapsed and was swept while payment was running
+            status.setRollbackOnly();
+            return null;
+        }
+        
+        // Update booking with payment details
+        booking.setPaymentId(paymentResult.getTransactionId());
+        booking.markPaymentSuccess();
+        booking.confirm();
+        booking.setPnr(bookingIdService.nextPnr());
+        
+        // Create BookingSeat entries
+        List<BookingSeat> bookingSeats = new ArrayList<>();
+        String[] passengerNames = booking.getPaxDetails().split(",");
+        
+        for (int i = 0; i < seatIds.size(); i++) {
+            String passengerName = (i < passengerNames.length) ? passengerNames[i].trim() : "Passenger " + (i + 1);
+            
+            BookingSeat bookingSeat = new BookingSeat();
+            bookingSeat.setBookingId(booking.getId());
+            bookingSeat.setSeatId(seatIds.get(i));
+            bookingSeat.setPassengerName(passengerName);
+            bookingSeat.setSeatPrice(hold.getSeatPrice());
+            
+            bookingSeats.add(bookingSeat);
+        }
+        
+        if (booking.getAssignedSeats() == null) {
+            booking.setAssignedSeats(bookingSeats);
+        } else {
+            // Managed collection; replacing it would make Hibernate null out the join column
+            booking.getAssignedSeats().addAll(bookingSeats);
+        }
+        
+        // Save updated booking
+        Booking finalBooking = bookingRepository.save(booking);
+        outboxService.bookingConfirmed(finalBooking);
+        return finalBooking;
     }
     
-    private String generatePNR() {
-        return UUID.randomUUID().toString().substring(0, 6).toUpperCase();
+    private void abandon(Booking booking, PaymentStatus paymentStatus) {
+        bookingMetrics.timeStage(CREATE, "abandon", () -> inTransaction(status -> abandonHold(booking, paymentStatus)));
     }
     
-    private void releaseAllLocks(Long flightId, List<Seat> seats, List<String> lockValues) {
-        if (redisLockService != null) {
-            for (int i = 0; i < seats.size() && i < lockValues.size(); i++) {
-                redisLockService.releaseSeatLock(flightId, seats.get(i).getSeatId(), lockValues.get(i));
-            }
+    private Void abandonHold(Booking booking, PaymentStatus paymentStatus) {
+        // The booking row first, in the same lock order as cancellation; conditional, so a
+        // cancellation that committed meanwhile is not overwritten
+        if (bookingRepository.failPendingBooking(booking.getId(), paymentStatus, booking.getPaymentId()) == 0) {
+            bookingRepository.recordLatePayment(booking.getId(), paymentStatus, booking.getPaymentId());
+        }
+        if (paymentStatus == PaymentStatus.COMPLETED) {
+            bookingRepository.requestRefund(booking.getId(), LocalDateTime.now());
+        }
+        
+        // Whatever the sweeper or a cancellation has not already reclaimed goes back to inventory here
+        int released = seatService.releaseHeldSeats(booking.getFlightId(), booking.getBookingId());
+        if (released > 0) {
+            flightRepository.incrementAvailableSeats(booking.getFlightId(), released);
         }
+        return null;
+    }
+    
+    private <T> T inTransaction(TransactionCallback<T> action) {
+        return new TransactionTemplate(transactionManager).execute(action);
     }
     
     private BookingResponse convertToResponse(Booking booking) {
@@ -244,7 +334,7 @@ public class BookingService {
                 .map(BookingSeat::getSeatId)
                 .collect(Collectors.toList())
             : new ArrayList<>();
-            
+        
         BookingResponse response = new BookingResponse();
         response.setId(booking.getId());
         response.setBookingId(booking.getBookingId());
@@ -262,4 +352,25 @@ public class BookingService {
         response.setUpdatedAt(booking.getUpdatedAt());
         return response;
     }
+    
+    private static final class SeatHold {
+        
+        private final Booking booking;
+        
+        private final List<String> seatIds;
+        
+        private final BigDecimal seatPrice;
+        
+        SeatHold(Booking booking, List<String> seatIds, BigDecimal seatPrice) {
+            this.booking = booking;
+            this.seatIds = seatIds;
+            this.seatPrice = seatPrice;
+        }
+        
+        Booking getBooking() { return booking; }
+        
+        List<String> getSeatIds() { return seatIds; }
+        
+        BigDecimal getSeatPrice() { return seatPrice; }
+    }
 }
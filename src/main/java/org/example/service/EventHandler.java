@@ -0,0 +1,21 @@
+package org.example.service;
+
+import java.util.List;
+
+/**
+ * Consumer of events delivered by the in-process event bus. Handlers bind to routing keys the
+ * same way a queue binds to a topic exchange: {@code *} matches one dot-separated word and
+ * {@code #} matches any number of words.
+ */
+public interface EventHandler<T> {
+    
+    List<String> getBindings();
+    
+    Class<T> getPayloadType();
+    
+    /**
+     * Handles a batch of payloads in publish order. Throwing fails the whole batch, which is
+     * then redelivered from the outbox.
+     */
+    void handle(List<T> payloads);
+}
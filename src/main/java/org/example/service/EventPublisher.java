@@ -0,0 +1,20 @@
+package org.example.service;
+
+import org.example.model.OutboxEvent;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Transport used by {@link OutboxRelay} to deliver outbox events. Selected with
+ * {@code app.messaging.mode}: {@code rabbitmq} (default) or {@code in-process}. The choice is
+ * static on purpose; an unreachable broker leaves events in the outbox rather than diverting them
+ * to handlers on this node.
+ */
+public interface EventPublisher {
+    
+    /**
+     * Publishes the event. The returned future completes once the transport has taken
+     * responsibility for it, and completes exceptionally if the transport rejected it.
+     */
+    CompletableFuture<Void> publish(OutboxEvent event);
+}
@@ -0,0 +1,67 @@
+package org.example.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Evicts cached flights whose seat availability or status changed, so {@code getFlightById}
+ * stops serving stale data before the cache entry expires.
+ */
+@Component
+public class FlightCacheEvictionHandler implements EventHandler<FlightCacheEvictionHandler.FlightReference> {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FlightCacheEvictionHandler.class);
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    public List<String> getBindings() {
+        return Arrays.asList("booking.*", "flight.status.changed");
+    }
+    
+    public Class<FlightReference> getPayloadType() {
+        return FlightReference.class;
+    }
+    
+    public void handle(List<FlightReference> payloads) {
+        Cache flights = cacheManager.getCache("flights");
+        if (flights == null) {
+            return;
+        }
+        Set<Long> flightIds = new LinkedHashSet<>();
+        for (FlightReference payload : payloads) {
+            flightIds.add(payload.getFlightId());
+        }
+        for (Long flightId : flightIds) {
+            try {
+                flights.evict(flightId);
+            } catch (RuntimeException e) {
+                // Best effort: a cache outage must not hold up the events queued behind this batch
+                logger.warn("Failed to evict flight {} from cache: {}", flightId, e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Only the flight id is read from booking and flight events.
+     */
+    public static class FlightReference {
+        private Long flightId;
+        
+        public Long getFlightId() {
+            return flightId;
+        }
+        
+        public void setFlightId(Long flightId) {
+            this.flightId = flightId;
+        }
+    }
+}
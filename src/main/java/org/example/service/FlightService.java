@@ -4,18 +4,18 @@ import org.example.dto.FlightRequest;
 import org.example.dto.FlightResponse;
 import org.example.dto.SearchFlightRequest;
 import org.example.exception.FlightNotFoundException;
+import org.example.model.AircraftLayout;
 import org.example.model.Flight;
 import org.example.repository.FlightRepository;
 import org.example.enums.FlightStatus;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.example.util.SingleFlight;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,21 +23,26 @@ import java.util.stream.Collectors;
 @Transactional
 public class FlightService {
     
-    private static final Logger logger = LoggerFactory.getLogger(FlightService.class);
-    
     @Autowired
     private FlightRepository flightRepository;
     
-    @Autowired(required = false)
-    private RabbitTemplate rabbitTemplate;
+    @Autowired
+    private AircraftLayoutService aircraftLayoutService;
+    
+    @Autowired
+    private OutboxService outboxService;
     
     @Autowired
-    private SeatCreationService seatCreationService;
+    private SeatMapService seatMapService;
     
-    @Value("${app.queue.seat-creation-queue:seat.creation.queue}")
-    private String seatCreationQueue;
+    // Identical reads arriving together (e.g. at sale open) share a single repository query
+    private final SingleFlight<Long, FlightResponse> flightLoads = new SingleFlight<>();
+    
+    private final SingleFlight<String, List<FlightResponse>> searchLoads = new SingleFlight<>();
     
     public FlightResponse addFlight(FlightRequest request) {
+        AircraftLayout layout = aircraftLayoutService.resolveLayout(request.getAircraftType(), request.getMaxPassengers());
+        
         // Create flight entity using builder pattern
         Flight flight = new Flight();
         flight.setFlightNumber(request.getFlightNumber());
@@ -49,42 +54,48 @@ public class FlightService {
         flight.setPrice(request.getPrice());
         flight.setMaxPassengers(request.getMaxPassengers());
         flight.setAvailableSeats(request.getMaxPassengers());
+        flight.setLayoutId(layout.getId());
         
-        // Save flight
+        // Save flight; seats need no rows until they are held, so there is nothing to provision
         Flight savedFlight = flightRepository.save(flight);
         
-        // Create seats for the flight
-        seatCreationService.createSeatsForFlight(savedFlight.getId(), savedFlight.getMaxPassengers());
-        
-        // Send message to queue for seat creation (if RabbitMQ is available)
-        sendSeatCreationMessage(savedFlight.getId(), savedFlight.getMaxPassengers());
-        
         return convertToResponse(savedFlight);
     }
     
+    // SUPPORTS keeps callers waiting on a coalesced load from each holding a DB connection
     @Cacheable(value = "flights", key = "#id")
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public FlightResponse getFlightById(Long id) {
-        Flight flight = flightRepository.findById(id)
-                .orElseThrow(() -> new FlightNotFoundException(id));
-        return convertToResponse(flight);
+        return flightLoads.load(id, () -> {
+            Flight flight = flightRepository.findById(id)
+                    .orElseThrow(() -> new FlightNotFoundException(id));
+            return convertToResponse(flight);
+        });
     }
     
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<FlightResponse> searchFlights(SearchFlightRequest request) {
-        LocalDateTime startDate = request.getDate().withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime endDate = request.getDate().withHour(23).withMinute(59).withSecond(59);
+        String searchKey = request.getFrom() + "|" + request.getTo() + "|"
+            + request.getDate().toLocalDate() + "|" + request.getPassengers();
         
-        List<Flight> flights = flightRepository.findAvailableFlights(
-            request.getFrom(),
-            request.getTo(),
-            startDate,
-            endDate,
-            FlightStatus.SCHEDULED,
-            request.getPassengers()
-        );
-        
-        return flights.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return searchLoads.load(searchKey, () -> {
+            LocalDateTime startDate = request.getDate().withHour(0).withMinute(0).withSecond(0);
+            LocalDateTime endDate = request.getDate().withHour(23).withMinute(59).withSecond(59);
+            
+            List<Flight> flights = flightRepository.findAvailableFlights(
+                request.getFrom(),
+                request.getTo(),
+                startDate,
+                endDate,
+                FlightStatus.SCHEDULED,
+                request.getPassengers()
+            );
+            
+            // Shared between all coalesced callers, so it must not be mutated
+            return Collections.unmodifiableList(flights.stream()
+                    .map(this::convertToResponse)
+                    .collect(Collectors.toList()));
+        });
     }
     
     public List<FlightResponse> getAllFlights() {
@@ -98,9 +109,14 @@ public class FlightService {
         Flight flight = flightRepository.findById(id)
                 .orElseThrow(() -> new FlightNotFoundException(id));
         
+        FlightStatus previousStatus = flight.getStatus();
         flight.setStatus(status);
         Flight updatedFlight = flightRepository.save(flight);
         
+        if (previousStatus != status) {
+            outboxService.flightStatusChanged(updatedFlight, previousStatus);
+        }
+        
         return convertToResponse(updatedFlight);
     }
     
@@ -109,21 +125,7 @@ public class FlightService {
             throw new FlightNotFoundException(id);
         }
         flightRepository.deleteById(id);
-    }
-    
-    private void sendSeatCreationMessage(Long flightId, Integer maxPassengers) {
-        if (rabbitTemplate != null) {
-            try {
-                SeatCreationMessage message = new SeatCreationMessage(flightId, maxPassengers);
-                rabbitTemplate.convertAndSend(seatCreationQueue, message);
-                logger.info("Seat creation message sent for flight ID: {}", flightId);
-            } catch (Exception e) {
-                logger.warn("Failed to send seat creation message for flight ID: {}. Error: {}", flightId, e.getMessage());
-                // Continue execution - this is not critical for basic functionality
-            }
-        } else {
-            logger.info("RabbitMQ not available - skipping seat creation message for flight ID: {}", flightId);
-        }
+        seatMapService.evict(id);
     }
     
     private FlightResponse convertToResponse(Flight flight) {
@@ -143,33 +145,4 @@ public class FlightService {
         response.setUpdatedAt(flight.getUpdatedAt());
         return response;
     }
-    
-    // Inner class for seat creation message
-    public static class SeatCreationMessage {
-        private Long flightId;
-        private Integer maxPassengers;
-        
-        public SeatCreationMessage() {}
-        
-        public SeatCreationMessage(Long flightId, Integer maxPassengers) {
-            this.flightId = flightId;
-            this.maxPassengers = maxPassengers;
-        }
-        
-        public Long getFlightId() {
-            return flightId;
-        }
-        
-        public void setFlightId(Long flightId) {
-            this.flightId = flightId;
-        }
-        
-        public Integer getMaxPassengers() {
-            return maxPassengers;
-        }
-        
-        public void setMaxPassengers(Integer maxPassengers) {
-            this.maxPassengers = maxPassengers;
-        }
-    }
 }
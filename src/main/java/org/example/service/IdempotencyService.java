@@ -0,0 +1,209 @@
+package org.example.service;
+
+import org.example.dto.BookingRequest;
+import org.example.dto.BookingResponse;
+import org.example.exception.IdempotencyConflictException;
+import org.example.service.IdempotencyStore.IdempotencyRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Makes booking creation safe to retry. The first request carrying an Idempotency-Key runs the
+ * booking; concurrent duplicates on the same node wait on its in-flight future, duplicates on
+ * other nodes poll the shared store, and later retries replay the stored response. Keys belong to
+ * the authenticated caller, never to anything in the request body; anonymous callers share one
+ * scope per distinct request, so a replay always returns the booking that exact request made.
+ */
+@Service
+public class IdempotencyService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+    
+    private static final int MAX_KEY_LENGTH = 255;
+    
+    private final Map<String, Execution> localExecutions = new ConcurrentHashMap<>();
+    
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+    
+    @Value("${app.idempotency.wait-timeout:30000}")
+    private long waitTimeout;
+    
+    @Value("${app.idempotency.poll-interval:50}")
+    private long pollInterval;
+    
+    public BookingResponse execute(String idempotencyKey, BookingRequest request, Supplier<BookingResponse> action) {
+        if (idempotencyKey == null || idempotencyKey.trim().isEmpty()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must not exceed " + MAX_KEY_LENGTH + " characters");
+        }
+        
+        // Keys are scoped per caller so one client cannot replay another client's booking.
+        // Without a caller the request itself is the scope: a reused key with a different body
+        // is a different booking rather than a conflict.
+        String fingerprint = fingerprint(request);
+        String caller = callerName();
+        String key = caller != null
+            ? "user:" + caller + ":" + idempotencyKey
+            : "anonymous:" + fingerprint + ":" + idempotencyKey;
+        long deadline = System.currentTimeMillis() + waitTimeout;
+        
+        while (true) {
+            Execution execution = new Execution(fingerprint);
+            Execution inFlight = localExecutions.putIfAbsent(key, execution);
+            if (inFlight != null) {
+                checkFingerprint(inFlight.fingerprint, fingerprint);
+                BookingResponse response = awaitLocal(inFlight, deadline);
+                if (response != null) {
+                    return response;
+                }
+                continue;
+            }
+            
+            try {
+                IdempotencyRecord existing = idempotencyStore.claim(key, fingerprint);
+                if (existing == null) {
+                    return run(key, execution, action);
+                }
+                
+                checkFingerprint(existing.getFingerprint(), fingerprint);
+                BookingResponse response = existing.isCompleted()
+                    ? existing.getResponse()
+                    : awaitRemote(key, deadline);
+                if (response != null) {
+                    logger.debug("Replaying booking {} for idempotency key {}", response.getBookingId(), key);
+                    execution.future.complete(response);
+                    return response;
+                }
+                // The remote execution failed or expired without a result; local waiters retry with us
+                localExecutions.remove(key, execution);
+                execution.future.complete(null);
+            } catch (RuntimeException e) {
+                execution.future.completeExceptionally(e);
+                throw e;
+            } finally {
+                localExecutions.remove(key, execution);
+            }
+        }
+    }
+    
+    private BookingResponse run(String key, Execution execution, Supplier<BookingResponse> action) {
+        BookingResponse response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            // Failures are not recorded, so a retry with the same key performs the booking again
+            idempotencyStore.release(key);
+            throw e;
+        }
+        idempotencyStore.complete(key, execution.fingerprint, response);
+        execution.future.complete(response);
+        return response;
+    }
+    
+    private BookingResponse awaitLocal(Execution execution, long deadline) {
+        try {
+            return execution.future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException("A request with the same Idempotency-Key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for a request with the same Idempotency-Key");
+        }
+    }
+    
+    private BookingResponse awaitRemote(String key, long deadline) {
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(pollInterval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            
+            IdempotencyRecord record = idempotencyStore.get(key);
+            if (record == null) {
+                return null;
+            }
+            if (record.isCompleted()) {
+                return record.getResponse();
+            }
+        }
+        throw new IdempotencyConflictException("A request with the same Idempotency-Key is still in progress");
+    }
+    
+    private void checkFingerprint(String stored, String actual) {
+        if (!stored.equals(actual)) {
+            throw new IllegalArgumentException("Idempotency-Key was already used with a different booking request");
+        }
+    }
+    
+    private static String callerName() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+    
+    // Every field is length-prefixed, so no two different requests encode to the same string
+    private String fingerprint(BookingRequest request) {
+        StringBuilder canonical = new StringBuilder();
+        append(canonical, request.getFlightId());
+        append(canonical, request.getNumberOfPassengers());
+        append(canonical, request.getPaxDetails());
+        append(canonical, request.getBookedBy());
+        List<String> seatIds = request.getSeatIds();
+        append(canonical, seatIds == null ? null : seatIds.size());
+        if (seatIds != null) {
+            for (String seatId : seatIds) {
+                append(canonical, seatId);
+            }
+        }
+        append(canonical, request.getSeatFallback());
+        return DigestUtils.md5DigestAsHex(canonical.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static void append(StringBuilder canonical, Object field) {
+        if (field == null) {
+            canonical.append("-1:");
+        } else {
+            String value = field.toString();
+            canonical.append(value.length()).append(':').append(value);
+        }
+    }
+    
+    private static class Execution {
+        private final String fingerprint;
+        private final CompletableFuture<BookingResponse> future = new CompletableFuture<>();
+        
+        Execution(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
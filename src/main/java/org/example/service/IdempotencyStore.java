@@ -0,0 +1,49 @@
+package org.example.service;
+
+import org.example.dto.BookingResponse;
+
+public interface IdempotencyStore {
+    
+    /**
+     * Claims the key for a new execution. Returns null when the claim succeeded,
+     * otherwise the record already stored under the key.
+     */
+    IdempotencyRecord claim(String key, String fingerprint);
+    
+    IdempotencyRecord get(String key);
+    
+    void complete(String key, String fingerprint, BookingResponse response);
+    
+    void release(String key);
+    
+    class IdempotencyRecord {
+        private String fingerprint;
+        private boolean completed;
+        private BookingResponse response;
+        
+        public IdempotencyRecord() {}
+        
+        public IdempotencyRecord(String fingerprint, boolean completed, BookingResponse response) {
+            this.fingerprint = fingerprint;
+            this.completed = completed;
+            this.response = response;
+        }
+        
+        public static IdempotencyRecord inProgress(String fingerprint) {
+            return new IdempotencyRecord(fingerprint, false, null);
+        }
+        
+        public static IdempotencyRecord completed(String fingerprint, BookingResponse response) {
+            return new IdempotencyRecord(fingerprint, true, response);
+        }
+        
+        public String getFingerprint() { return fingerprint; }
+        public void setFingerprint(String fingerprint) { this.fingerprint = fingerprint; }
+        
+        public boolean isCompleted() { return completed; }
+        public void setCompleted(boolean completed) { this.completed = completed; }
+        
+        public BookingResponse getResponse() { return response; }
+        public void setResponse(BookingResponse response) { this.response = response; }
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.service;
+
+import org.example.dto.BookingResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@ConditionalOnProperty(name = "app.redis.enabled", havingValue = "false", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+    
+    private static final int PURGE_INTERVAL = 1024;
+    
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    
+    private final AtomicInteger writesSincePurge = new AtomicInteger();
+    
+    @Value("${app.idempotency.in-progress-ttl:60000}")
+    private long inProgressTtl;
+    
+    @Value("${app.idempotency.completed-ttl:86400000}")
+    private long completedTtl;
+    
+    public IdempotencyRecord claim(String key, String fingerprint) {
+        purgeExpiredPeriodically();
+        
+        Entry claimed = new Entry(IdempotencyRecord.inProgress(fingerprint), System.currentTimeMillis() + inProgressTtl);
+        Entry result = entries.compute(key, (k, existing) ->
+            existing == null || existing.isExpired() ? claimed : existing);
+        return result == claimed ? null : result.record;
+    }
+    
+    public IdempotencyRecord get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.isExpired()) {
+            return null;
+        }
+        return entry.record;
+    }
+    
+    public void complete(String key, String fingerprint, BookingResponse response) {
+        entries.put(key, new Entry(IdempotencyRecord.completed(fingerprint, response),
+            System.currentTimeMillis() + completedTtl));
+    }
+    
+    public void release(String key) {
+        entries.remove(key);
+    }
+    
+    private void purgeExpiredPeriodically() {
+        if (writesSincePurge.incrementAndGet() >= PURGE_INTERVAL) {
+            writesSincePurge.set(0);
+            entries.entrySet().removeIf(e -> e.getValue().isExpired());
+        }
+    }
+    
+    private static class Entry {
+        private final IdempotencyRecord record;
+        private final long expiresAt;
+        
+        Entry(IdempotencyRecord record, long expiresAt) {
+            this.record = record;
+            this.expiresAt = expiresAt;
+        }
+        
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
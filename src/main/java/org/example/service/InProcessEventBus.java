@@ -0,0 +1,234 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.model.OutboxEvent;
+import org.example.util.RingBuffer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+/**
+ * Single-node replacement for RabbitMQ. Outbox events go into a preallocated ring buffer and a
+ * dedicated consumer thread drains it in batches, handing each {@link EventHandler} every
+ * payload bound to it in one call. When the buffer is full, publishing waits and then fails,
+ * which leaves the events in the outbox for the relay to retry. A publish future completes
+ * only after the handlers have run, so the outbox keeps anything not yet handled.
+ */
+@Service
+@ConditionalOnProperty(name = "app.messaging.mode", havingValue = "in-process")
+public class InProcessEventBus implements EventPublisher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(InProcessEventBus.class);
+    
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    
+    @Autowired(required = false)
+    private List<EventHandler<?>> handlers = Collections.emptyList();
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${app.messaging.in-process.buffer-size:4096}")
+    private int bufferSize;
+    
+    @Value("${app.messaging.in-process.max-batch:256}")
+    private int maxBatch;
+    
+    @Value("${app.messaging.in-process.publish-timeout:1000}")
+    private long publishTimeout;
+    
+    private RingBuffer<EventSlot> ringBuffer;
+    
+    private List<Subscription> subscriptions;
+    
+    // Batch state, only touched by the consumer thread
+    private final List<CompletableFuture<Void>> batchFutures = new ArrayList<>();
+    
+    private final Map<CompletableFuture<Void>, Throwable> batchFailures = new IdentityHashMap<>();
+    
+    private Thread consumer;
+    
+    private volatile boolean running;
+    
+    @PostConstruct
+    public void start() {
+        ringBuffer = new RingBuffer<>(bufferSize, EventSlot::new);
+        subscriptions = new ArrayList<>();
+        for (EventHandler<?> handler : handlers) {
+            subscriptions.add(new Subscription(handler));
+        }
+        
+        running = true;
+        consumer = new Thread(this::consume, "event-bus-consumer");
+        consumer.setDaemon(true);
+        consumer.start();
+        logger.info("In-process event bus started with {} handlers and {} slots", subscriptions.size(), bufferSize);
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(consumer);
+        consumer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+    
+    public CompletableFuture<Void> publish(OutboxEvent event) {
+        CompletableFuture<Void> handled = new CompletableFuture<>();
+        long sequence = ringBuffer.claim(publishTimeout, TimeUnit.MILLISECONDS);
+        if (sequence < 0) {
+            handled.completeExceptionally(new RejectedExecutionException("In-process event bus is full"));
+            return handled;
+        }
+        
+        EventSlot slot = ringBuffer.get(sequence);
+        slot.routingKey = event.getRoutingKey();
+        slot.payload = event.getPayload();
+        slot.handled = handled;
+        ringBuffer.publish(sequence);
+        return handled;
+    }
+    
+    public long getBacklog() {
+        return ringBuffer.size();
+    }
+    
+    private void consume() {
+        while (running) {
+            if (ringBuffer.poll(maxBatch, this::onEvent) == 0) {
+                LockSupport.parkNanos(IDLE_NANOS);
+            }
+        }
+    }
+    
+    private void onEvent(EventSlot slot, long sequence, boolean endOfBatch) {
+        CompletableFuture<Void> handled = slot.handled;
+        batchFutures.add(handled);
+        for (Subscription subscription : subscriptions) {
+            if (!subscription.matches(slot.routingKey)) {
+                continue;
+            }
+            try {
+                subscription.payloads.add(objectMapper.readValue(slot.payload, subscription.handler.getPayloadType()));
+                subscription.futures.add(handled);
+            } catch (Exception e) {
+                batchFailures.put(handled, e);
+            }
+        }
+        slot.clear();
+        
+        if (endOfBatch) {
+            dispatch();
+        }
+    }
+    
+    private void dispatch() {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.payloads.isEmpty()) {
+                continue;
+            }
+            try {
+                subscription.deliver();
+            } catch (Exception e) {
+                logger.error("Event handler {} failed for a batch of {} events",
+                    subscription.handler.getClass().getSimpleName(), subscription.payloads.size(), e);
+                for (CompletableFuture<Void> future : subscription.futures) {
+                    batchFailures.put(future, e);
+                }
+            } finally {
+                subscription.payloads.clear();
+                subscription.futures.clear();
+            }
+        }
+        
+        for (CompletableFuture<Void> future : batchFutures) {
+            Throwable failure = batchFailures.get(future);
+            if (failure == null) {
+                future.complete(null);
+            } else {
+                future.completeExceptionally(failure);
+            }
+        }
+        batchFutures.clear();
+        batchFailures.clear();
+    }
+    
+    private static class EventSlot {
+        private String routingKey;
+        private String payload;
+        private CompletableFuture<Void> handled;
+        
+        private void clear() {
+            routingKey = null;
+            payload = null;
+            handled = null;
+        }
+    }
+    
+    private static class Subscription {
+        private final EventHandler<?> handler;
+        private final List<Pattern> bindings = new ArrayList<>();
+        private final List<Object> payloads = new ArrayList<>();
+        private final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        
+        private Subscription(EventHandler<?> handler) {
+            this.handler = handler;
+            for (String binding : handler.getBindings()) {
+                bindings.add(toPattern(binding));
+            }
+        }
+        
+        private boolean matches(String routingKey) {
+            for (Pattern binding : bindings) {
+                if (binding.matcher(routingKey).matches()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        @SuppressWarnings("unchecked")
+        private void deliver() {
+            ((EventHandler<Object>) handler).handle(payloads);
+        }
+        
+        // Topic exchange semantics: '*' is exactly one word, '#' is zero or more words
+        private static Pattern toPattern(String binding) {
+            if ("#".equals(binding)) {
+                return Pattern.compile(".*");
+            }
+            StringBuilder regex = new StringBuilder();
+            String[] words = binding.split("\\.", -1);
+            boolean leadingHash = false;
+            for (int i = 0; i < words.length; i++) {
+                String word = words[i];
+                if ("#".equals(word)) {
+                    leadingHash = i == 0;
+                    regex.append(leadingHash ? "(?:[^.]+\\.)*" : "(?:\\.[^.]+)*");
+                    continue;
+                }
+                if (i > 0 && !leadingHash) {
+                    regex.append("\\.");
+                }
+                leadingHash = false;
+                regex.append("*".equals(word) ? "[^.]+" : Pattern.quote(word));
+            }
+            return Pattern.compile(regex.toString());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.service;
+
+import org.example.model.OutboxEvent;
+import org.example.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains the outbox table through the configured {@link EventPublisher}. Each batch is sent in id
+ * order and the relay waits for every publish to be confirmed (publisher confirms for RabbitMQ,
+ * handler completion in-process); only the confirmed prefix of the batch is marked published, so a
+ * rejection or timeout does not let later events in the batch overtake the failed one.
+ *
+ * <p>Ids are assigned at insert, not at commit, so events from different transactions can become
+ * visible out of id order and be relayed that way. Events about one booking or flight are written by
+ * transactions serialised on that row and keep their order. An event rejected
+ * {@code app.outbox.max-attempts} times is parked and skipped, after which later events for the same
+ * aggregate do go out ahead of it. Delivery is at-least-once: consumers should de-duplicate on the
+ * message id. Run a single relay instance per database.
+ */
+@Component
+public class OutboxRelay {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    
+    private static final int MAX_ERROR_LENGTH = 255;
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private EventPublisher eventPublisher;
+    
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+    
+    @Value("${app.outbox.confirm-timeout:5000}")
+    private long confirmTimeout;
+    
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+    
+    @Value("${app.outbox.max-backoff:30000}")
+    private long maxBackoff;
+    
+    @Value("${app.outbox.retention:86400000}")
+    private long retention;
+    
+    private long backoffMillis;
+    
+    private long nextAttemptAt;
+    
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:500}")
+    public void relay() {
+        if (System.currentTimeMillis() < nextAttemptAt) {
+            return;
+        }
+        try {
+            int published;
+            do {
+                published = relayBatch();
+            } while (published == batchSize);
+            backoffMillis = 0;
+        } catch (Exception e) {
+            // Transport down or refusing events: back off instead of hammering it every poll
+            backoffMillis = backoffMillis == 0 ? 1000 : Math.min(maxBackoff, backoffMillis * 2);
+            nextAttemptAt = System.currentTimeMillis() + backoffMillis;
+            logger.warn("Outbox relay failed, retrying in {} ms: {}", backoffMillis, e.getMessage());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.outbox.cleanup-interval:3600000}")
+    public void purgePublished() {
+        int deleted = outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minusNanos(retention * 1_000_000L));
+        if (deleted > 0) {
+            logger.info("Purged {} published outbox events", deleted);
+        }
+    }
+    
+    /**
+     * Publishes the next batch of unpublished events and returns how many were confirmed.
+     * Throws when the transport rejects or fails to confirm an event in time; an event rejected for
+     * the last allowed time is parked first, so the next batch starts after it.
+     */
+    public int relayBatch() throws InterruptedException {
+        List<OutboxEvent> batch = outboxEventRepository.findByPublishedAtIsNullAndFailedAtIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        
+        List<CompletableFuture<Void>> confirms = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            confirms.add(eventPublisher.publish(event));
+        }
+        
+        List<Long> confirmedIds = new ArrayList<>(batch.size());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeout);
+        String failure = null;
+        boolean rejected = false;
+        for (int i = 0; i < batch.size() && failure == null; i++) {
+            try {
+                confirms.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                confirmedIds.add(batch.get(i).getId());
+            } catch (ExecutionException e) {
+                failure = String.valueOf(e.getCause());
+                rejected = true;
+            } catch (TimeoutException e) {
+                failure = "No publish confirmation within " + confirmTimeout + " ms";
+            }
+        }
+        
+        if (!confirmedIds.isEmpty()) {
+            outboxEventRepository.markPublished(confirmedIds, LocalDateTime.now());
+        }
+        if (failure != null) {
+            OutboxEvent failed = batch.get(confirmedIds.size());
+            String error = failure.length() > MAX_ERROR_LENGTH ? failure.substring(0, MAX_ERROR_LENGTH) : failure;
+            // Only rejections count towards parking; a timeout says more about the broker than the event
+            if (rejected && failed.getAttempts() + 1 >= maxAttempts) {
+                outboxEventRepository.park(failed.getId(), error, LocalDateTime.now());
+                logger.error("Outbox event {} ({} {}) parked after {} rejected attempts: {}",
+                    failed.getId(), failed.getEventType(), failed.getAggregateId(), maxAttempts, error);
+            } else {
+                outboxEventRepository.recordFailure(failed.getId(), error);
+            }
+            throw new IllegalStateException("Outbox event " + failed.getId() + " not published. " + failure);
+        }
+        return confirmedIds.size();
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.enums.FlightStatus;
+import org.example.event.BookingEvent;
+import org.example.event.FlightStatusChangedEvent;
+import org.example.model.Booking;
+import org.example.model.BookingSeat;
+import org.example.model.Flight;
+import org.example.model.OutboxEvent;
+import org.example.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * Records domain events in the outbox table. Every method joins the caller's transaction, so an
+ * event exists if and only if the change it describes was committed; {@link OutboxRelay} takes
+ * care of getting it to the broker.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+    
+    public static final String BOOKING_CONFIRMED = "BookingConfirmed";
+    public static final String BOOKING_CANCELLED = "BookingCancelled";
+    public static final String FLIGHT_STATUS_CHANGED = "FlightStatusChanged";
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${app.outbox.booking-exchange:booking.exchange}")
+    private String bookingExchange;
+    
+    @Value("${app.outbox.flight-exchange:flight.exchange}")
+    private String flightExchange;
+    
+    public void bookingConfirmed(Booking booking) {
+        record("Booking", booking.getBookingId(), BOOKING_CONFIRMED,
+            bookingExchange, "booking.confirmed", toBookingEvent(booking));
+    }
+    
+    public void bookingCancelled(Booking booking) {
+        record("Booking", booking.getBookingId(), BOOKING_CANCELLED,
+            bookingExchange, "booking.cancelled", toBookingEvent(booking));
+    }
+    
+    public void flightStatusChanged(Flight flight, FlightStatus previousStatus) {
+        FlightStatusChangedEvent event = new FlightStatusChangedEvent();
+        event.setFlightId(flight.getId());
+        event.setFlightNumber(flight.getFlightNumber());
+        event.setPreviousStatus(previousStatus);
+        event.setStatus(flight.getStatus());
+        event.setOccurredAt(LocalDateTime.now());
+        record("Flight", String.valueOf(flight.getId()), FLIGHT_STATUS_CHANGED,
+            flightExchange, "flight.status.changed", event);
+    }
+    
+    private void record(String aggregateType, String aggregateId, String eventType,
+                        String exchange, String routingKey, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + eventType + " event for " + aggregateType + " " + aggregateId, e);
+        }
+        outboxEventRepository.save(new OutboxEvent(aggregateType, aggregateId, eventType,
+            exchange, routingKey, payload.getClass().getName(), json));
+    }
+    
+    private BookingEvent toBookingEvent(Booking booking) {
+        BookingEvent event = new BookingEvent();
+        event.setBookingId(booking.getBookingId());
+        event.setPnr(booking.getPnr());
+        event.setFlightId(booking.getFlightId());
+        event.setBookedBy(booking.getBookedBy());
+        event.setNumberOfPassengers(booking.getNumberOfPassengers());
+        event.setSeatIds(booking.getAssignedSeats() != null
+            ? booking.getAssignedSeats().stream().map(BookingSeat::getSeatId).collect(Collectors.toList())
+            : new ArrayList<>());
+        event.setTotalPrice(booking.getTotalPrice());
+        event.setStatus(booking.getStatus());
+        event.setOccurredAt(LocalDateTime.now());
+        return event;
+    }
+}
@@ -1,13 +1,32 @@
 package org.example.service;
 
 import org.example.enums.PaymentStatus;
+import org.example.exception.FlightBookingException;
+import org.example.util.AdaptiveConcurrencyLimiter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.function.Supplier;
 
 @Service
 public class PaymentService {
     
+    // Gateway calls are limited separately so a slow gateway sheds payments before it ties up booking threads
+    @Autowired
+    @Qualifier("paymentConcurrencyLimiter")
+    private AdaptiveConcurrencyLimiter paymentConcurrencyLimiter;
+    
+    // Refunds only come from RefundWorker, which retries a shed call, and never queue behind charges
+    @Autowired
+    @Qualifier("refundConcurrencyLimiter")
+    private AdaptiveConcurrencyLimiter refundConcurrencyLimiter;
+    
+    @Autowired
+    private BookingMetrics bookingMetrics;
+    
     public static class PaymentResult {
         private String paymentId;
         private PaymentStatus status;
@@ -27,10 +46,12 @@ public class PaymentService {
     }
     
     public PaymentResult processPayment(String bookingId, BigDecimal amount, String paymentDetails) {
-        // Mock payment processing - always return success for demo
-        // In real implementation, this would call a payment gateway
-        String paymentId = "PAY_" + System.currentTimeMillis();
-        return new PaymentResult(paymentId, PaymentStatus.COMPLETED, "Payment successful");
+        return timed("charge", () -> paymentConcurrencyLimiter.execute(() -> {
+            // Mock payment processing - always return success for demo
+            // In real implementation, this would call a payment gateway
+            String paymentId = "PAY_" + System.currentTimeMillis();
+            return new PaymentResult(paymentId, PaymentStatus.COMPLETED, "Payment successful");
+        }));
     }
     
     public PaymentStatus getPaymentStatus(String paymentId) {
@@ -39,7 +60,25 @@ public class PaymentService {
     }
     
     public PaymentResult refundPayment(String paymentId, BigDecimal amount) {
-        // Mock refund processing - always return success for demo
-        return new PaymentResult(paymentId, PaymentStatus.REFUNDED, "Refund successful");
+        return timed("refund", () -> refundConcurrencyLimiter.execute(() -> {
+            // Mock refund processing - always return success for demo
+            return new PaymentResult(paymentId, PaymentStatus.REFUNDED, "Refund successful");
+        }));
+    }
+    
+    // Records gateway latency by result status; shed and failed calls are timed as well
+    private PaymentResult timed(String operation, Supplier<PaymentResult> call) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            PaymentResult result = call.get();
+            outcome = result.getStatus().name().toLowerCase(Locale.ROOT);
+            return result;
+        } catch (FlightBookingException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            bookingMetrics.recordPayment(operation, outcome, System.nanoTime() - start);
+        }
     }
 }
\ No newline at end of file
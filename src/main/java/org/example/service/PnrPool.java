@@ -0,0 +1,142 @@
+package org.example.service;
+
+import org.example.model.PnrRange;
+import org.example.repository.PnrRangeRepository;
+import org.example.util.CrockfordBase32;
+import org.example.util.FeistelPermutation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unique PNRs handed out from memory. Codes are reserved from the database in ranges of
+ * {@link #RANGE_SIZE}: range {@code n} is the counter values {@code [n * RANGE_SIZE,
+ * (n + 1) * RANGE_SIZE)}, and each counter value goes through a keyed {@link FeistelPermutation}
+ * to a six-character Crockford code. The permutation is a bijection, so codes are unique across
+ * instances and restarts without ever checking the bookings table, yet consecutive codes look
+ * unrelated.
+ *
+ * <p>Taking a code is an atomic increment on the current range. Once a range has
+ * {@code app.pnr-pool.low-water-mark} codes left, the next one is reserved on a background thread;
+ * a booking only reserves a range itself if that refill has fallen behind. Codes left in memory
+ * at shutdown are never issued, which costs at most two ranges per restart out of about a million.
+ *
+ * <p>{@code app.pnr-pool.key} decides which code each counter value maps to. Changing it, or
+ * {@link #RANGE_SIZE}, after PNRs have been issued breaks the uniqueness guarantee.
+ */
+@Service
+public class PnrPool {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PnrPool.class);
+    
+    static final int RANGE_SIZE = 1024;
+    
+    private static final int PNR_LENGTH = 6;
+    
+    private static final long CODES = 1L << (5 * PNR_LENGTH);
+    
+    // Taking any code from it moves on to the next range
+    private static final Range EXHAUSTED = new Range(0, RANGE_SIZE);
+    
+    @Autowired
+    private PnrRangeRepository rangeRepository;
+    
+    @Value("${app.pnr-pool.low-water-mark:256}")
+    private int lowWaterMark;
+    
+    @Value("${app.pnr-pool.key:7046029254386353131}")
+    private long key;
+    
+    private FeistelPermutation permutation;
+    
+    private final AtomicReference<Range> current = new AtomicReference<>(EXHAUSTED);
+    
+    private final Queue<Range> ready = new ConcurrentLinkedQueue<>();
+    
+    private ExecutorService refiller;
+    
+    @PostConstruct
+    public void start() {
+        if (lowWaterMark < 1 || lowWaterMark > RANGE_SIZE) {
+            throw new IllegalArgumentException("app.pnr-pool.low-water-mark must be between 1 and " + RANGE_SIZE);
+        }
+        permutation = new FeistelPermutation(5 * PNR_LENGTH, key);
+        refiller = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "pnr-pool-refill");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refill();
+    }
+    
+    @PreDestroy
+    public void stop() {
+        refiller.shutdownNow();
+    }
+    
+    public String next() {
+        while (true) {
+            Range range = current.get();
+            int index = range.next.getAndIncrement();
+            if (index < RANGE_SIZE) {
+                // Exactly one caller sees this index, so each range asks for one refill
+                if (index == RANGE_SIZE - lowWaterMark) {
+                    refill();
+                }
+                return CrockfordBase32.encode(permutation.permute(range.first + index), PNR_LENGTH);
+            }
+            
+            Range replacement = ready.poll();
+            if (replacement == null) {
+                logger.debug("PNR pool ran dry, reserving a range on the booking thread");
+                replacement = reserve();
+            }
+            if (!current.compareAndSet(range, replacement)) {
+                // Another thread moved on first; keep this range for later
+                ready.offer(replacement);
+            }
+        }
+    }
+    
+    private void refill() {
+        refiller.execute(() -> {
+            try {
+                ready.offer(reserve());
+            } catch (RuntimeException e) {
+                logger.warn("Could not reserve a PNR range in the background", e);
+            }
+        });
+    }
+    
+    private Range reserve() {
+        // Sequence values start at 1
+        long first = (rangeRepository.save(new PnrRange()).getId() - 1) * RANGE_SIZE;
+        if (first + RANGE_SIZE > CODES) {
+            throw new IllegalStateException("All " + CODES + " PNRs have been reserved");
+        }
+        return new Range(first, 0);
+    }
+    
+    private static final class Range {
+        
+        private final long first;
+        
+        private final AtomicInteger next;
+        
+        Range(long first, int next) {
+            this.first = first;
+            this.next = new AtomicInteger(next);
+        }
+    }
+}
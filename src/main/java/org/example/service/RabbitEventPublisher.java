@@ -0,0 +1,60 @@
+package org.example.service;
+
+import org.example.model.OutboxEvent;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Publishes outbox events to RabbitMQ. The future completes when the broker's publisher
+ * confirm arrives. Messages are sent mandatory, and one the broker could not route is acked
+ * after being returned, so a returned message fails the publish despite the ack.
+ */
+@Service
+@ConditionalOnProperty(name = "app.messaging.mode", havingValue = "rabbitmq", matchIfMissing = true)
+public class RabbitEventPublisher implements EventPublisher {
+    
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+    
+    public CompletableFuture<Void> publish(OutboxEvent event) {
+        CompletableFuture<Void> confirmed = new CompletableFuture<>();
+        CorrelationData correlation = new CorrelationData(String.valueOf(event.getId()));
+        correlation.getFuture().addCallback(confirm -> {
+            // The return, if any, is delivered before the confirm
+            ReturnedMessage returned = correlation.getReturned();
+            if (returned != null) {
+                confirmed.completeExceptionally(new IllegalStateException("Broker returned event: "
+                    + returned.getReplyCode() + " " + returned.getReplyText()));
+            } else if (confirm != null && confirm.isAck()) {
+                confirmed.complete(null);
+            } else {
+                confirmed.completeExceptionally(new IllegalStateException("Broker rejected event: "
+                    + (confirm != null ? confirm.getReason() : "no confirm")));
+            }
+        }, confirmed::completeExceptionally);
+        
+        rabbitTemplate.send(event.getExchange(), event.getRoutingKey(), toMessage(event), correlation);
+        return confirmed;
+    }
+    
+    private Message toMessage(OutboxEvent event) {
+        return MessageBuilder.withBody(event.getPayload().getBytes(StandardCharsets.UTF_8))
+            .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+            .setContentEncoding(StandardCharsets.UTF_8.name())
+            .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+            .setMessageId("outbox-" + event.getId())
+            .setType(event.getEventType())
+            .setHeader("__TypeId__", event.getPayloadType())
+            .build();
+    }
+}
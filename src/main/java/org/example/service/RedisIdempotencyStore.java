@@ -0,0 +1,74 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.BookingResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+@Service
+@ConditionalOnProperty(name = "app.redis.enabled", havingValue = "true")
+public class RedisIdempotencyStore implements IdempotencyStore {
+    
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${app.idempotency.key-prefix:idempotency:booking:}")
+    private String keyPrefix;
+    
+    @Value("${app.idempotency.in-progress-ttl:60000}")
+    private long inProgressTtl;
+    
+    @Value("${app.idempotency.completed-ttl:86400000}")
+    private long completedTtl;
+    
+    public IdempotencyRecord claim(String key, String fingerprint) {
+        Boolean claimed = redisTemplate.opsForValue().setIfAbsent(
+            keyPrefix + key, write(IdempotencyRecord.inProgress(fingerprint)), inProgressTtl, TimeUnit.MILLISECONDS);
+        if (Boolean.TRUE.equals(claimed)) {
+            return null;
+        }
+        
+        IdempotencyRecord existing = get(key);
+        // The previous claim may have expired between SETNX and GET; report it as still in progress
+        return existing != null ? existing : IdempotencyRecord.inProgress(fingerprint);
+    }
+    
+    public IdempotencyRecord get(String key) {
+        String json = redisTemplate.opsForValue().get(keyPrefix + key);
+        return json != null ? read(json) : null;
+    }
+    
+    public void complete(String key, String fingerprint, BookingResponse response) {
+        redisTemplate.opsForValue().set(
+            keyPrefix + key, write(IdempotencyRecord.completed(fingerprint, response)), completedTtl, TimeUnit.MILLISECONDS);
+    }
+    
+    public void release(String key) {
+        redisTemplate.delete(keyPrefix + key);
+    }
+    
+    private String write(IdempotencyRecord record) {
+        try {
+            return objectMapper.writeValueAsString(record);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize idempotency record", e);
+        }
+    }
+    
+    private IdempotencyRecord read(String json) {
+        try {
+            return objectMapper.readValue(json, IdempotencyRecord.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to deserialize idempotency record", e);
+        }
+    }
+}
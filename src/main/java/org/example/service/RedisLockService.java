@@ -1,18 +0,0 @@
-package org.example.service;
-
-import org.springframework.stereotype.Service;
-
-@Service
-public class RedisLockService {
-    
-    public String acquireSeatLock(Long flightId, String seatId) {
-        // Mock Redis lock acquisition - always return success for demo
-        // In real implementation, this would use Redis distributed locks
-        return "LOCK_" + System.currentTimeMillis();
-    }
-    
-    public void releaseSeatLock(Long flightId, String seatId, String lockValue) {
-        // Mock Redis lock release - always return success for demo
-        // In real implementation, this would release the Redis distributed lock
-    }
-}
\ No newline at end of file
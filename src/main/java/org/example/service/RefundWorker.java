@@ -0,0 +1,114 @@
+package org.example.service;
+
+import org.example.enums.PaymentStatus;
+import org.example.model.Booking;
+import org.example.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Refunds cancelled bookings outside the cancel request. Bookings wait as REFUND_PENDING and are
+ * read in due order through the (payment_status, refund_next_attempt_at) index; each one is
+ * leased to a single worker before the gateway is called, so several nodes can run this safely.
+ * A failed refund is retried with exponential backoff and ends as REFUND_FAILED after
+ * {@code app.refund.max-attempts}. A worker that dies mid-call lets its lease lapse and the refund
+ * is tried again, so the gateway must de-duplicate refunds per payment id.
+ */
+@Component
+public class RefundWorker {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RefundWorker.class);
+    
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    @Autowired
+    private PaymentService paymentService;
+    
+    @Value("${app.refund.batch-size:50}")
+    private int batchSize;
+    
+    @Value("${app.refund.max-attempts:8}")
+    private int maxAttempts;
+    
+    @Value("${app.refund.initial-backoff:1000}")
+    private long initialBackoff;
+    
+    @Value("${app.refund.max-backoff:600000}")
+    private long maxBackoff;
+    
+    @Value("${app.refund.lease:60000}")
+    private long lease;
+    
+    @Scheduled(fixedDelayString = "${app.refund.poll-interval:1000}")
+    public void processRefunds() {
+        int refunded = 0;
+        int[] result;
+        try {
+            do {
+                result = processBatch();
+                refunded += result[1];
+            } while (result[0] == batchSize);
+        } catch (Exception e) {
+            logger.warn("Refund run failed after {} refunds: {}", refunded, e.getMessage());
+            return;
+        }
+        if (refunded > 0) {
+            logger.info("Refunded {} cancelled bookings", refunded);
+        }
+    }
+    
+    /**
+     * Returns the number of due refunds read and the number actually refunded.
+     */
+    int[] processBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> due = bookingRepository.findDueRefunds(now, PageRequest.of(0, batchSize));
+        
+        int refunded = 0;
+        for (Booking booking : due) {
+            if (bookingRepository.claimRefund(booking.getId(), now, after(now, lease)) == 1
+                    && refund(booking)) {
+                refunded++;
+            }
+        }
+        return new int[] {due.size(), refunded};
+    }
+    
+    private boolean refund(Booking booking) {
+        int attempts = booking.getRefundAttempts() + 1;
+        String failure;
+        try {
+            PaymentService.PaymentResult result = paymentService.refundPayment(booking.getPaymentId(), booking.getTotalPrice());
+            if (result.getStatus() == PaymentStatus.REFUNDED) {
+                bookingRepository.recordRefundAttempt(booking.getId(), PaymentStatus.REFUNDED, attempts, null);
+                return true;
+            }
+            failure = result.getMessage();
+        } catch (RuntimeException e) {
+            failure = e.getMessage();
+        }
+        
+        if (attempts >= maxAttempts) {
+            bookingRepository.recordRefundAttempt(booking.getId(), PaymentStatus.REFUND_FAILED, attempts, null);
+            logger.error("Refund for booking {} failed after {} attempts: {}", booking.getBookingId(), attempts, failure);
+        } else {
+            long backoff = Math.min(maxBackoff, initialBackoff << Math.min(attempts - 1, 30));
+            bookingRepository.recordRefundAttempt(booking.getId(), PaymentStatus.REFUND_PENDING, attempts,
+                after(LocalDateTime.now(), backoff));
+            logger.warn("Refund for booking {} failed, retrying in {} ms: {}", booking.getBookingId(), backoff, failure);
+        }
+        return false;
+    }
+    
+    private static LocalDateTime after(LocalDateTime time, long millis) {
+        return time.plusNanos(millis * 1_000_000L);
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.service;
+
+import org.example.enums.SeatStatus;
+import org.example.model.Seat;
+import org.example.repository.BookingRepository;
+import org.example.repository.FlightRepository;
+import org.example.repository.SeatRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Returns lapsed seat holds to inventory. Expired holds are read oldest first through the
+ * (status, hold_expires_at) index in batches, so each run costs in proportion to the holds that
+ * actually expired rather than to the size of the seats table. Each batch fails the pending
+ * bookings that held the seats, releases the seats and adds them back to the flights' available
+ * count, all in one transaction. Booking rows are locked before seat rows, the same order as
+ * confirmation and cancellation.
+ */
+@Component
+public class SeatHoldSweeper {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SeatHoldSweeper.class);
+    
+    @Autowired
+    private SeatRepository seatRepository;
+    
+    @Autowired
+    private FlightRepository flightRepository;
+    
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${app.seat-hold.sweep-batch-size:500}")
+    private int batchSize;
+    
+    @Scheduled(fixedDelayString = "${app.seat-hold.sweep-interval:5000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int total = 0;
+        int found;
+        try {
+            do {
+                int[] result = transactionTemplate.execute(status -> sweepBatch(now));
+                found = result[0];
+                total += result[1];
+            } while (found == batchSize);
+        } catch (Exception e) {
+            logger.warn("Seat hold sweep failed after releasing {} seats: {}", total, e.getMessage());
+            return;
+        }
+        if (total > 0) {
+            logger.info("Released {} seats from expired holds", total);
+        }
+    }
+    
+    /**
+     * Returns the number of expired holds read and the number of seats actually released; the two
+     * differ when a booking confirmed its hold between the read and the update.
+     */
+    private int[] sweepBatch(LocalDateTime now) {
+        List<Seat> expired = seatRepository.findExpiredHolds(SeatStatus.LOCKED, now, PageRequest.of(0, batchSize));
+        
+        Map<Long, List<Long>> seatIdsByFlight = new LinkedHashMap<>();
+        Set<String> bookingIds = new LinkedHashSet<>();
+        for (Seat seat : expired) {
+            seatIdsByFlight.computeIfAbsent(seat.getFlightId(), id -> new ArrayList<>()).add(seat.getId());
+            if (seat.getHeldBy() != null) {
+                bookingIds.add(seat.getHeldBy());
+            }
+        }
+        
+        if (!bookingIds.isEmpty()) {
+            bookingRepository.failPendingBookings(bookingIds);
+        }
+        
+        int released = 0;
+        for (Map.Entry<Long, List<Long>> entry : seatIdsByFlight.entrySet()) {
+            int count = seatRepository.releaseExpiredHolds(entry.getValue(), now);
+            if (count > 0) {
+                flightRepository.incrementAvailableSeats(entry.getKey(), count);
+                released += count;
+            }
+        }
+        return new int[] {expired.size(), released};
+    }
+}
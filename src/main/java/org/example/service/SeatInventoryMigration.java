@@ -0,0 +1,67 @@
+package org.example.service;
+
+import org.example.repository.SeatRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.List;
+
+/**
+ * Converts flights whose seats were provisioned eagerly, one row per seat, to the sparse model
+ * where only seats that are not available have rows. Each flight's AVAILABLE rows are deleted in
+ * their own transaction; held and occupied rows are kept as they are. Seat operations treat
+ * leftover AVAILABLE rows as free, so the migration can run on a live system and be re-run if it
+ * is interrupted. Enable with {@code app.seat-inventory.migrate-on-startup=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.seat-inventory.migrate-on-startup", havingValue = "true")
+public class SeatInventoryMigration implements ApplicationRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SeatInventoryMigration.class);
+    
+    @Autowired
+    private SeatRepository seatRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${app.seat-inventory.migration-batch-size:100}")
+    private int batchSize;
+    
+    public void run(ApplicationArguments args) {
+        migrate();
+    }
+    
+    /**
+     * Returns the number of seat rows deleted.
+     */
+    public long migrate() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long flights = 0;
+        long deleted = 0;
+        List<Long> flightIds;
+        // Migrated flights drop out of the query, so the first page is always the next one
+        while (!(flightIds = seatRepository.findFlightIdsWithAvailableRows(PageRequest.of(0, batchSize))).isEmpty()) {
+            long pageDeleted = 0;
+            for (Long flightId : flightIds) {
+                Integer count = transactionTemplate.execute(status -> seatRepository.deleteAvailableRows(flightId));
+                pageDeleted += count;
+                flights++;
+            }
+            deleted += pageDeleted;
+            if (pageDeleted == 0) {
+                break;
+            }
+        }
+        logger.info("Seat inventory migration removed {} available seat rows from {} flights", deleted, flights);
+        return deleted;
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.service;
+
+import org.example.dto.SeatMapResponse;
+import org.example.exception.FlightNotFoundException;
+import org.example.model.AircraftLayout;
+import org.example.repository.FlightRepository;
+import org.example.repository.SeatRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Serves seat maps from per-flight snapshots keyed by the flight's seat map version. The version
+ * is bumped in the same statement as every change to a flight's seat inventory, so a lookup of
+ * the version alone is enough to answer a conditional request, and the seats table is only read
+ * again after the map has actually changed.
+ *
+ * <p>At most {@code app.seat-map.max-snapshots} flights are kept; past that, maps are built per
+ * request. Snapshots of departed or deleted flights are dropped by a periodic sweep, which also
+ * catches deletions made through other nodes.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SeatMapService {
+    
+    public static final char OPEN = '.';
+    
+    public static final char TAKEN = 'X';
+    
+    public static final char NO_SEAT = '-';
+    
+    public static final char AISLE = ' ';
+    
+    @Autowired
+    private FlightRepository flightRepository;
+    
+    @Autowired
+    private SeatRepository seatRepository;
+    
+    @Autowired
+    private AircraftLayoutService aircraftLayoutService;
+    
+    @Value("${app.seat-map.max-snapshots:10000}")
+    private int maxSnapshots;
+    
+    private final ConcurrentMap<Long, SeatMapResponse> snapshots = new ConcurrentHashMap<>();
+    
+    public long getVersion(Long flightId) {
+        return flightRepository.findSeatMapVersion(flightId)
+                .orElseThrow(() -> new FlightNotFoundException(flightId));
+    }
+    
+    public String getETag(Long flightId, long version) {
+        return "\"" + flightId + "-" + version + "\"";
+    }
+    
+    /**
+     * Returns the snapshot for the given version, rebuilding it from the taken seats only if the
+     * cached snapshot is older.
+     */
+    public SeatMapResponse getSeatMap(Long flightId, long version) {
+        SeatMapResponse snapshot = snapshots.get(flightId);
+        if (snapshot != null && snapshot.getVersion() >= version) {
+            return snapshot;
+        }
+        
+        SeatMapResponse rebuilt = buildSeatMap(flightId, version);
+        if (snapshot == null && snapshots.size() >= maxSnapshots) {
+            return rebuilt;
+        }
+        return snapshots.merge(flightId, rebuilt,
+            (current, candidate) -> current.getVersion() >= candidate.getVersion() ? current : candidate);
+    }
+    
+    public void evict(Long flightId) {
+        snapshots.remove(flightId);
+    }
+    
+    @Scheduled(fixedDelayString = "${app.seat-map.sweep-interval:300000}")
+    public void evictDepartedFlights() {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        // A snapshot added while this runs may be dropped too; it is simply rebuilt on the next request
+        Set<Long> departing = new HashSet<>(flightRepository.findIdsDepartingAfter(
+            new ArrayList<>(snapshots.keySet()), LocalDateTime.now()));
+        snapshots.keySet().retainAll(departing);
+    }
+    
+    int getSnapshotCount() {
+        return snapshots.size();
+    }
+    
+    private SeatMapResponse buildSeatMap(Long flightId, long version) {
+        AircraftLayoutService.FlightSeating seating = aircraftLayoutService.getSeatingForFlight(flightId);
+        AircraftLayout layout = seating.getLayout();
+        
+        // One cell per layout position, indexed by seat ordinal; only taken seats have rows
+        BitSet free = seating.getSellable();
+        for (Integer ordinal : seatRepository.findTakenOrdinals(flightId)) {
+            free.clear(ordinal);
+        }
+        char[] cells = new char[layout.getPositions()];
+        Arrays.fill(cells, NO_SEAT);
+        BitSet sellable = seating.getSellable();
+        for (int ordinal = sellable.nextSetBit(0); ordinal >= 0; ordinal = sellable.nextSetBit(ordinal + 1)) {
+            cells[ordinal] = free.get(ordinal) ? OPEN : TAKEN;
+        }
+        int available = free.cardinality();
+        
+        // Rows are laid out like the column letters, aisles included, so "ABC DEF" gives "..X .--"
+        String columnLetters = layout.getColumnLetters();
+        int columns = layout.getColumns();
+        Map<String, String> rows = new LinkedHashMap<>();
+        char[] encoded = new char[columnLetters.length()];
+        for (int row = 0; row < layout.getRowCount(); row++) {
+            int cell = row * columns;
+            for (int i = 0; i < encoded.length; i++) {
+                encoded[i] = columnLetters.charAt(i) == AISLE ? AISLE : cells[cell++];
+            }
+            rows.put(layout.rowLabel(row), new String(encoded));
+        }
+        
+        SeatMapResponse response = new SeatMapResponse();
+        response.setFlightId(flightId);
+        response.setVersion(version);
+        response.setAircraftType(layout.getAircraftType());
+        response.setColumns(columnLetters);
+        response.setAvailableSeats(available);
+        response.setRows(rows);
+        return response;
+    }
+}
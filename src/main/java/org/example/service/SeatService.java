@@ -1,16 +1,22 @@
 package org.example.service;
 
+import org.example.model.AircraftLayout;
 import org.example.model.Seat;
 import org.example.repository.SeatRepository;
-import org.example.enums.SeatStatus;
+import org.example.enums.SeatFallbackPolicy;
 import org.example.exception.SeatNotAvailableException;
-import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.example.util.SeatAllocator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 @Transactional
@@ -19,96 +25,182 @@ public class SeatService {
     @Autowired
     private SeatRepository seatRepository;
     
-    @RabbitListener(queues = "${app.queue.seat-creation-queue:seat.creation.queue}")
-    public void createSeatsForFlight(FlightService.SeatCreationMessage message) {
-        Long flightId = message.getFlightId();
-        Integer maxPassengers = message.getMaxPassengers();
-        
-        // Create seats for the flight
-        for (int i = 1; i <= maxPassengers; i++) {
-            String seatId = generateSeatId(i);
-            Seat seat = new Seat(flightId, seatId);
-            seatRepository.save(seat);
-        }
-    }
+    @Autowired
+    private AircraftLayoutService aircraftLayoutService;
     
+    @Autowired
+    private BookingMetrics bookingMetrics;
+    
+    @Value("${app.seat-hold.ttl:600000}")
+    private long holdTtl;
+    
+    /**
+     * Every seat the flight still sells, front to back. Available seats have no stored row, so the
+     * returned seats are built from the layout and are not persistent.
+     */
     public List<Seat> getAvailableSeatsByFlightId(Long flightId) {
-        return seatRepository.findAvailableSeatsByFlightId(flightId, SeatStatus.AVAILABLE);
+        return toSeats(flightId, freeSeats(flightId, aircraftLayoutService.getSeatingForFlight(flightId)), Integer.MAX_VALUE);
     }
     
+    // Only seats that are held, occupied or out of service have rows
     public List<Seat> getSeatsByFlightId(Long flightId) {
         return seatRepository.findByFlightId(flightId);
     }
     
     public Optional<Seat> getSeatByFlightIdAndSeatId(Long flightId, String seatId) {
-        return seatRepository.findByFlightIdAndSeatId(flightId, seatId);
+        int ordinal = aircraftLayoutService.getSeatingForFlight(flightId).ordinal(seatId);
+        if (ordinal < 0) {
+            return Optional.empty();
+        }
+        Optional<Seat> stored = seatRepository.findByFlightIdAndOrdinal(flightId, ordinal);
+        return stored.isPresent() ? stored : Optional.of(new Seat(flightId, ordinal));
     }
     
     public boolean isSeatAvailable(Long flightId, String seatId) {
-        Optional<Seat> seat = seatRepository.findAvailableSeatByFlightIdAndSeatId(
-            flightId, seatId, SeatStatus.AVAILABLE);
-        return seat.isPresent();
+        return getSeatByFlightIdAndSeatId(flightId, seatId).map(Seat::isAvailable).orElse(false);
     }
     
-    public Seat lockSeat(Long flightId, String seatId) {
-        Optional<Seat> seatOpt = seatRepository.findAvailableSeatByFlightIdAndSeatId(
-            flightId, seatId, SeatStatus.AVAILABLE);
+    /**
+     * Renders the seat's ordinal as its id in the flight's layout, e.g. "12C".
+     */
+    public String getSeatId(Seat seat) {
+        return aircraftLayoutService.getLayoutForFlight(seat.getFlightId()).seatId(seat.getOrdinal());
+    }
+    
+    /**
+     * Holds {@code count} seats for a booking and returns their ids, requested seats first. A
+     * requested seat that is gone fails the booking under {@link SeatFallbackPolicy#FAIL}; under
+     * {@link SeatFallbackPolicy#ANY_AVAILABLE} the shortfall is assigned automatically, and a seat
+     * another booker claims first is just skipped.
+     *
+     * <p>Each seat is claimed on its own by inserting its row, with the unique constraint on the
+     * seat deciding between concurrent bookers, so a claim is correct without any flight-wide lock.
+     * Holds lapse after {@code app.seat-hold.ttl} unless the booking occupies them first;
+     * {@link SeatHoldSweeper} returns lapsed holds to inventory.
+     */
+    public List<String> holdSeats(Long flightId, int count, List<String> requestedSeatIds,
+                                  SeatFallbackPolicy fallback, String heldBy) {
+        AircraftLayoutService.FlightSeating seating = aircraftLayoutService.getSeatingForFlight(flightId);
+        LocalDateTime expiresAt = holdExpiry();
+        List<String> held = new ArrayList<>(count);
+        
+        if (requestedSeatIds != null) {
+            for (String seatId : requestedSeatIds) {
+                int ordinal = seating.ordinal(seatId);
+                if (ordinal >= 0 && claim(flightId, ordinal, heldBy, expiresAt)) {
+                    held.add(seating.seatId(ordinal));
+                } else if (fallback != SeatFallbackPolicy.ANY_AVAILABLE) {
+                    throw new SeatNotAvailableException("Seat " + seatId + " is not available for flight " + flightId);
+                }
+            }
+        }
         
-        if (!seatOpt.isPresent()) {
-            throw new IllegalArgumentException("Seat " + seatId + " is not available for flight " + flightId);
+        if (held.size() < count) {
+            BitSet free = freeSeats(flightId, seating);
+            if (!free.isEmpty()) {
+                holdBlock(flightId, seating, count - held.size(), free, heldBy, expiresAt, held);
+            }
         }
         
-        Seat seat = seatOpt.get();
-        seat.lock();
-        return seatRepository.save(seat);
+        if (held.size() < count) {
+            throw new SeatNotAvailableException("Not enough seats available for flight " + flightId);
+        }
+        return held;
     }
     
-    public Seat occupySeat(Long flightId, String seatId) {
-        Optional<Seat> seatOpt = seatRepository.findByFlightIdAndSeatId(flightId, seatId);
-        
-        if (!seatOpt.isPresent()) {
-            throw new IllegalArgumentException("Seat " + seatId + " not found for flight " + flightId);
+    /**
+     * Seats the rest of the party from a row/column model of the free seats, keeping it in one
+     * block where the cabin allows. The search starts at a random row so concurrent bookers spread
+     * out; seats lost to another booker are left marked taken and the shortfall is allocated again.
+     */
+    private void holdBlock(Long flightId, AircraftLayoutService.FlightSeating seating, int count, BitSet free,
+                           String heldBy, LocalDateTime expiresAt, List<String> held) {
+        AircraftLayout layout = seating.getLayout();
+        SeatAllocator allocator = new SeatAllocator(layout.getRowCount(), layout.getColumns());
+        for (int ordinal = free.nextSetBit(0); ordinal >= 0; ordinal = free.nextSetBit(ordinal + 1)) {
+            allocator.release(ordinal);
         }
         
-        Seat seat = seatOpt.get();
-        seat.occupy();
-        return seatRepository.save(seat);
+        int startRow = ThreadLocalRandom.current().nextInt(layout.getRowCount());
+        int target = held.size() + count;
+        int[] block;
+        while (held.size() < target && (block = allocator.allocate(target - held.size(), startRow)) != null) {
+            for (int ordinal : block) {
+                if (claim(flightId, ordinal, heldBy, expiresAt)) {
+                    held.add(seating.seatId(ordinal));
+                }
+            }
+        }
     }
     
-    public Seat releaseSeat(Long flightId, String seatId) {
-        Optional<Seat> seatOpt = seatRepository.findByFlightIdAndSeatId(flightId, seatId);
-        
-        if (!seatOpt.isPresent()) {
-            throw new IllegalArgumentException("Seat " + seatId + " not found for flight " + flightId);
+    /**
+     * Turns every seat the booking still holds into an occupied seat and returns how many it
+     * converted. Fewer than expected means part of the hold lapsed and was swept.
+     */
+    public int occupyHeldSeats(Long flightId, String heldBy) {
+        return seatRepository.occupyHeldSeats(flightId, heldBy);
+    }
+    
+    public int releaseHeldSeats(Long flightId, String heldBy) {
+        return seatRepository.releaseHeldSeats(flightId, heldBy);
+    }
+    
+    /**
+     * Returns a booking's occupied seats to inventory in one statement and returns how many it
+     * released. Seats that are not occupied are left alone.
+     */
+    public int releaseOccupiedSeats(Long flightId, Collection<String> seatIds) {
+        AircraftLayoutService.FlightSeating seating = aircraftLayoutService.getSeatingForFlight(flightId);
+        List<Integer> ordinals = new ArrayList<>(seatIds.size());
+        for (String seatId : seatIds) {
+            int ordinal = seating.ordinal(seatId);
+            if (ordinal >= 0) {
+                ordinals.add(ordinal);
+            }
         }
-        
-        Seat seat = seatOpt.get();
-        seat.release();
-        return seatRepository.save(seat);
+        return ordinals.isEmpty() ? 0 : seatRepository.releaseOccupiedSeats(flightId, ordinals);
     }
     
     public Long getAvailableSeatsCount(Long flightId) {
-        return seatRepository.countAvailableSeatsByFlightId(flightId, SeatStatus.AVAILABLE);
+        return aircraftLayoutService.getSeatingForFlight(flightId).getCapacity() - seatRepository.countTakenSeats(flightId);
     }
     
     public List<Seat> getAvailableSeatsSequentially(Long flightId, Integer numberOfPassengers) {
-        List<Seat> availableSeats = seatRepository.findAvailableSeatsByFlightId(flightId, SeatStatus.AVAILABLE)
-                .stream()
-                .sorted((s1, s2) -> s1.getSeatId().compareTo(s2.getSeatId()))
-                .collect(Collectors.toList());
+        BitSet free = freeSeats(flightId, aircraftLayoutService.getSeatingForFlight(flightId));
         
-        if (availableSeats.size() < numberOfPassengers) {
+        if (free.cardinality() < numberOfPassengers) {
             throw new SeatNotAvailableException("Not enough seats available for flight " + flightId);
         }
         
-        return availableSeats.subList(0, numberOfPassengers);
+        return toSeats(flightId, free, numberOfPassengers);
+    }
+    
+    // Inserts the seat's row as a hold, or takes over an AVAILABLE row left by eager provisioning
+    private boolean claim(Long flightId, int ordinal, String heldBy, LocalDateTime expiresAt) {
+        long start = System.nanoTime();
+        boolean claimed = seatRepository.insertHold(flightId, ordinal, heldBy, expiresAt) == 1
+            || seatRepository.holdStoredSeat(flightId, ordinal, heldBy, expiresAt) == 1;
+        bookingMetrics.recordSeatClaim(claimed, System.nanoTime() - start);
+        return claimed;
+    }
+    
+    private BitSet freeSeats(Long flightId, AircraftLayoutService.FlightSeating seating) {
+        BitSet free = seating.getSellable();
+        for (Integer ordinal : seatRepository.findTakenOrdinals(flightId)) {
+            free.clear(ordinal);
+        }
+        return free;
+    }
+    
+    private static List<Seat> toSeats(Long flightId, BitSet free, int limit) {
+        List<Seat> seats = new ArrayList<>(Math.min(free.cardinality(), limit));
+        for (int ordinal = free.nextSetBit(0); ordinal >= 0 && seats.size() < limit; ordinal = free.nextSetBit(ordinal + 1)) {
+            seats.add(new Seat(flightId, ordinal));
+        }
+        return seats;
     }
     
-    private String generateSeatId(int seatNumber) {
-        // Generate seat ID like A1, A2, B1, B2, etc.
-        int row = (seatNumber - 1) / 6; // 6 seats per row
-        int col = ((seatNumber - 1) % 6) + 1;
-        char rowChar = (char) ('A' + row);
-        return rowChar + String.valueOf(col);
+    private LocalDateTime holdExpiry() {
+        return LocalDateTime.now().plusNanos(holdTtl * 1_000_000L);
     }
 }
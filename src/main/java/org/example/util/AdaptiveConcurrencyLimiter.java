@@ -0,0 +1,140 @@
+package org.example.util;
+
+import org.example.exception.ServiceOverloadedException;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * AIMD concurrency limiter in the spirit of Netflix concurrency-limits. Latencies of completed
+ * calls are collected into windows; when a window's p99 exceeds the latency threshold the limit
+ * is cut multiplicatively, otherwise it grows by one as long as the current limit is actually
+ * being used. Calls over the limit are rejected immediately rather than queued.
+ */
+public class AdaptiveConcurrencyLimiter {
+    
+    private final String name;
+    
+    private final int minLimit;
+    
+    private final int maxLimit;
+    
+    private final long latencyThresholdNanos;
+    
+    private final double backoffRatio;
+    
+    private final long[] window;
+    
+    private final long windowNanos;
+    
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    private final AtomicLong rejected = new AtomicLong();
+    
+    private volatile int limit;
+    
+    // Window state, guarded by this
+    private int samples;
+    
+    private long windowStart = System.nanoTime();
+    
+    private boolean limitReached;
+    
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      long latencyThresholdMillis, double backoffRatio,
+                                      int windowSize, long windowMillis) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max for limiter " + name);
+        }
+        this.name = name;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdMillis * 1_000_000L;
+        this.backoffRatio = backoffRatio;
+        this.window = new long[windowSize];
+        this.windowNanos = windowMillis * 1_000_000L;
+    }
+    
+    /**
+     * Takes a slot if the in-flight count is below the current limit. Callers that get a slot
+     * must hand it back through {@link #release(long)}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                if (current + 1 >= limit) {
+                    markLimitReached();
+                }
+                return true;
+            }
+        }
+    }
+    
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        onSample(latencyNanos);
+    }
+    
+    public <T> T execute(Supplier<T> action) {
+        if (!tryAcquire()) {
+            throw new ServiceOverloadedException(name + " is over its concurrency limit, try again shortly");
+        }
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            release(System.nanoTime() - start);
+        }
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+    
+    private synchronized void markLimitReached() {
+        limitReached = true;
+    }
+    
+    private synchronized void onSample(long latencyNanos) {
+        window[samples++] = latencyNanos;
+        long now = System.nanoTime();
+        if (samples < window.length && now - windowStart < windowNanos) {
+            return;
+        }
+        
+        long[] sorted = Arrays.copyOf(window, samples);
+        Arrays.sort(sorted);
+        long p99 = sorted[Math.max(0, (int) Math.ceil(samples * 0.99) - 1)];
+        
+        if (p99 > latencyThresholdNanos) {
+            limit = Math.max(minLimit, (int) (limit * backoffRatio));
+        } else if (limitReached) {
+            // Only probe upwards when the current limit is actually constraining callers
+            limit = Math.min(maxLimit, limit + 1);
+        }
+        
+        samples = 0;
+        windowStart = now;
+        limitReached = false;
+    }
+}
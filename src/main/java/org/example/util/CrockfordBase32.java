@@ -0,0 +1,25 @@
+package org.example.util;
+
+/**
+ * Crockford's base 32: digits and upper-case letters without I, L, O and U, so codes read
+ * unambiguously over the phone. Fixed-width encodings sort in numeric order.
+ */
+public final class CrockfordBase32 {
+    
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    
+    private CrockfordBase32() {
+    }
+    
+    /**
+     * The low {@code 5 * length} bits of {@code value}, most significant first.
+     */
+    public static String encode(long value, int length) {
+        char[] chars = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(chars);
+    }
+}
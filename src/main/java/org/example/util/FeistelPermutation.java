@@ -0,0 +1,54 @@
+package org.example.util;
+
+import java.util.SplittableRandom;
+
+/**
+ * Keyed bijection on the integers {@code [0, 2^bits)} for an even {@code bits}: a balanced
+ * Feistel network over the two halves. Distinct inputs always give distinct outputs, so
+ * consecutive counter values come out unique but scattered across the whole range.
+ *
+ * <p>The output depends on the key; anything relying on uniqueness of earlier outputs must keep
+ * the same key and width forever.
+ */
+public class FeistelPermutation {
+    
+    private static final int ROUNDS = 4;
+    
+    private final int halfBits;
+    
+    private final int halfMask;
+    
+    private final int[] roundKeys = new int[ROUNDS];
+    
+    public FeistelPermutation(int bits, long key) {
+        if (bits < 2 || bits > 62 || bits % 2 != 0) {
+            throw new IllegalArgumentException("Width must be an even number of bits from 2 to 62: " + bits);
+        }
+        this.halfBits = bits / 2;
+        this.halfMask = (int) ((1L << halfBits) - 1);
+        SplittableRandom random = new SplittableRandom(key);
+        for (int i = 0; i < ROUNDS; i++) {
+            roundKeys[i] = random.nextInt();
+        }
+    }
+    
+    public long permute(long value) {
+        int left = (int) (value >>> halfBits) & halfMask;
+        int right = (int) value & halfMask;
+        for (int roundKey : roundKeys) {
+            int next = left ^ round(right, roundKey);
+            left = right;
+            right = next;
+        }
+        return (long) left << halfBits | right;
+    }
+    
+    // Murmur3's finaliser over the half and round key, cut to the half's width
+    private int round(int half, int roundKey) {
+        int h = (half ^ roundKey) * 0x9E3779B1;
+        h ^= h >>> 15;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h & halfMask;
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Bounded multi-producer, single-consumer ring buffer in the style of the LMAX Disruptor. Slots
+ * are allocated once up front and reused: producers claim a sequence, fill the slot in place and
+ * publish it; the consumer drains every contiguous published slot as one batch. A full buffer
+ * makes producers wait (back-pressure) rather than dropping or allocating.
+ */
+public class RingBuffer<E> {
+    
+    /**
+     * Receives drained slots in sequence order. The slot may only be used for the duration of the call.
+     */
+    public interface BatchHandler<E> {
+        void onEvent(E slot, long sequence, boolean endOfBatch);
+    }
+    
+    private static final long WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    
+    private final Object[] slots;
+    
+    private final int mask;
+    
+    // Sequence most recently published into each slot; lets the consumer see exactly which claims are complete
+    private final AtomicLongArray published;
+    
+    private final AtomicLong claimed = new AtomicLong(-1);
+    
+    private volatile long consumed = -1;
+    
+    public RingBuffer(int capacity, Supplier<E> slotFactory) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be a power of two: " + capacity);
+        }
+        this.slots = new Object[capacity];
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = slotFactory.get();
+            published.set(i, -1);
+        }
+    }
+    
+    /**
+     * Claims the next sequence, waiting up to the timeout for the consumer to free a slot.
+     * Returns -1 if the buffer stayed full. A claimed sequence must always be published.
+     */
+    public long claim(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            long current = claimed.get();
+            long next = current + 1;
+            if (next - consumed > slots.length) {
+                if (System.nanoTime() - deadline >= 0) {
+                    return -1;
+                }
+                LockSupport.parkNanos(WAIT_NANOS);
+                continue;
+            }
+            if (claimed.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) slots[(int) (sequence & mask)];
+    }
+    
+    public void publish(long sequence) {
+        published.lazySet((int) (sequence & mask), sequence);
+    }
+    
+    /**
+     * Hands up to {@code maxBatch} published slots to the handler and frees them afterwards.
+     * Must only be called from the single consumer thread. Returns the number of slots handled.
+     */
+    public int poll(int maxBatch, BatchHandler<E> handler) {
+        long next = consumed + 1;
+        long limit = next + maxBatch - 1;
+        long available = next - 1;
+        while (available < limit && published.get((int) ((available + 1) & mask)) == available + 1) {
+            available++;
+        }
+        if (available < next) {
+            return 0;
+        }
+        
+        try {
+            for (long sequence = next; sequence <= available; sequence++) {
+                handler.onEvent(get(sequence), sequence, sequence == available);
+            }
+        } finally {
+            consumed = available;
+        }
+        return (int) (available - next + 1);
+    }
+    
+    public int getCapacity() {
+        return slots.length;
+    }
+    
+    /**
+     * Slots claimed but not yet consumed.
+     */
+    public long size() {
+        return claimed.get() - consumed;
+    }
+}
@@ -0,0 +1,176 @@
+package org.example.util;
+
+import java.util.BitSet;
+
+/**
+ * Row/column model of a cabin that finds seats for a party. Each row keeps a bit mask of its free
+ * columns, and rows are indexed by their longest free run and by their free seat count, so finding
+ * a row that fits a party is a scan over those index bit sets rather than over seats.
+ *
+ * <p>Allocation prefers, in order: one contiguous block, the same row, and finally the largest
+ * runs still available, continuing from the last row used so a fragmented party stays close
+ * together. Seats are identified by ordinal, {@code row * columns + column} with zero-based
+ * columns. Not thread-safe; build one per allocation.
+ */
+public class SeatAllocator {
+    
+    private final int rows;
+    
+    private final int columns;
+    
+    private final long[] freeMasks;
+    
+    // runIndex[k]: rows whose longest free run is at least k; countIndex[k]: rows with at least k free seats
+    private final BitSet[] runIndex;
+    
+    private final BitSet[] countIndex;
+    
+    // Current longest run and free count per row, so reindexing only touches the index entries that change
+    private final byte[] runs;
+    
+    private final byte[] counts;
+    
+    private int freeSeats;
+    
+    public SeatAllocator(int rows, int columns) {
+        if (columns < 1 || columns > 63) {
+            throw new IllegalArgumentException("Rows must have between 1 and 63 columns: " + columns);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.freeMasks = new long[rows];
+        this.runs = new byte[rows];
+        this.counts = new byte[rows];
+        this.runIndex = new BitSet[columns + 1];
+        this.countIndex = new BitSet[columns + 1];
+        for (int k = 1; k <= columns; k++) {
+            runIndex[k] = new BitSet(rows);
+            countIndex[k] = new BitSet(rows);
+        }
+    }
+    
+    public void release(int ordinal) {
+        int row = ordinal / columns;
+        long bit = 1L << (ordinal % columns);
+        if ((freeMasks[row] & bit) == 0) {
+            freeMasks[row] |= bit;
+            freeSeats++;
+            reindex(row);
+        }
+    }
+    
+    public void take(int ordinal) {
+        int row = ordinal / columns;
+        long bit = 1L << (ordinal % columns);
+        if ((freeMasks[row] & bit) != 0) {
+            freeMasks[row] &= ~bit;
+            freeSeats--;
+            reindex(row);
+        }
+    }
+    
+    /**
+     * Takes seats for a party of {@code count} and returns their ordinals, or {@code null} if
+     * fewer seats are free. The search for each block starts at {@code startRow} and wraps.
+     */
+    public int[] allocate(int count, int startRow) {
+        if (count < 1 || count > freeSeats) {
+            return null;
+        }
+        int[] seats = new int[count];
+        
+        if (count <= columns) {
+            int row = findRow(runIndex[count], startRow);
+            if (row >= 0) {
+                takeRun(row, count, seats, 0);
+                return seats;
+            }
+            row = findRow(countIndex[count], startRow);
+            if (row >= 0) {
+                takeLowest(row, count, seats, 0);
+                return seats;
+            }
+        }
+        
+        // Fragmented: largest runs first, each search continuing from the previous block's row
+        int filled = 0;
+        int cursor = startRow;
+        while (filled < count) {
+            int run = Math.min(count - filled, columns);
+            while (runIndex[run].isEmpty()) {
+                run--;
+            }
+            int row = findRow(runIndex[run], cursor);
+            takeRun(row, run, seats, filled);
+            filled += run;
+            cursor = row;
+        }
+        return seats;
+    }
+    
+    public int getFreeSeats() {
+        return freeSeats;
+    }
+    
+    public int getRows() {
+        return rows;
+    }
+    
+    public int getColumns() {
+        return columns;
+    }
+    
+    private int findRow(BitSet index, int startRow) {
+        int row = index.nextSetBit(startRow);
+        return row >= 0 ? row : index.nextSetBit(0);
+    }
+    
+    private void takeRun(int row, int length, int[] seats, int offset) {
+        // Bit c of starts is set when columns c .. c+length-1 are all free
+        long mask = freeMasks[row];
+        long starts = mask;
+        for (int i = 1; i < length; i++) {
+            starts &= mask >>> i;
+        }
+        int first = Long.numberOfTrailingZeros(starts);
+        for (int i = 0; i < length; i++) {
+            seats[offset + i] = row * columns + first + i;
+        }
+        freeMasks[row] &= ~(((1L << length) - 1) << first);
+        freeSeats -= length;
+        reindex(row);
+    }
+    
+    private void takeLowest(int row, int count, int[] seats, int offset) {
+        long mask = freeMasks[row];
+        for (int i = 0; i < count; i++) {
+            int column = Long.numberOfTrailingZeros(mask);
+            seats[offset + i] = row * columns + column;
+            mask &= mask - 1;
+        }
+        freeMasks[row] = mask;
+        freeSeats -= count;
+        reindex(row);
+    }
+    
+    private void reindex(int row) {
+        long mask = freeMasks[row];
+        int run = 0;
+        for (long m = mask; m != 0; m &= m >>> 1) {
+            run++;
+        }
+        update(runIndex, row, runs[row], run);
+        update(countIndex, row, counts[row], Long.bitCount(mask));
+        runs[row] = (byte) run;
+        counts[row] = (byte) Long.bitCount(mask);
+    }
+    
+    private static void update(BitSet[] index, int row, int previous, int current) {
+        for (int k = current + 1; k <= previous; k++) {
+            index[k].clear(row);
+        }
+        for (int k = previous + 1; k <= current; k++) {
+            index[k].set(row);
+        }
+    }
+}
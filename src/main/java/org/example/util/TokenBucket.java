@@ -0,0 +1,66 @@
+package org.example.util;
+
+/**
+ * Classic token bucket: holds up to {@code capacity} tokens and refills at
+ * {@code refillPerSecond}. Each admitted request consumes one token.
+ */
+public class TokenBucket {
+    
+    private final double capacity;
+    
+    private final double refillPerNano;
+    
+    private double tokens;
+    
+    private long lastRefill;
+    
+    public TokenBucket(double capacity, double refillPerSecond) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+    
+    public synchronized boolean tryConsume() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Whether a token is available, without taking it.
+     */
+    public synchronized boolean hasToken() {
+        refill();
+        return tokens >= 1;
+    }
+    
+    /**
+     * Whether the bucket has refilled completely, i.e. it is indistinguishable from a new one.
+     */
+    public synchronized boolean isFull() {
+        refill();
+        return tokens >= capacity;
+    }
+    
+    /**
+     * Seconds until the next token becomes available, rounded up.
+     */
+    public synchronized long secondsUntilNextToken() {
+        refill();
+        if (tokens >= 1 || refillPerNano <= 0) {
+            return 0;
+        }
+        double nanos = (1 - tokens) / refillPerNano;
+        return Math.max(1, (long) Math.ceil(nanos / 1_000_000_000d));
+    }
+    
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.BookingRequest;
+import org.example.dto.BookingResponse;
+import org.example.monitoring.SlowRequestLog;
+import org.example.service.AdmissionControlService;
+import org.example.service.BookingService;
+import org.example.service.IdempotencyService;
+import org.example.service.InMemoryIdempotencyStore;
+import org.example.util.AdaptiveConcurrencyLimiter;
+import org.example.util.TestDataBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Runs the Idempotency-Key header through the real {@link IdempotencyService}. Filters are off,
+ * so every request here reaches the controller without an authenticated caller.
+ */
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(controllers = BookingController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import({SlowRequestLog.class, IdempotencyService.class, InMemoryIdempotencyStore.class})
+@ActiveProfiles("test")
+class BookingControllerIdempotencyTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @MockBean
+    private BookingService bookingService;
+    
+    @MockBean
+    private AdmissionControlService admissionControlService;
+    
+    @MockBean(name = "bookingConcurrencyLimiter")
+    private AdaptiveConcurrencyLimiter bookingConcurrencyLimiter;
+    
+    private BookingRequest request;
+    
+    @BeforeEach
+    void setUp() {
+        request = TestDataBuilder.createBookingRequest();
+        Mockito.when(admissionControlService.execute(any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<BookingResponse>>getArgument(1).get());
+        Mockito.when(bookingConcurrencyLimiter.execute(any()))
+                .thenAnswer(invocation -> invocation.<Supplier<BookingResponse>>getArgument(0).get());
+    }
+    
+    @Test
+    void createBooking_ShouldReplayBooking_WhenAnonymousRetryReusesKey() throws Exception {
+        // Given
+        BookingResponse response = new BookingResponse();
+        response.setBookingId("BK001");
+        Mockito.when(bookingService.createBooking(any(BookingRequest.class))).thenReturn(response);
+        
+        // When
+        perform("web-key-1")
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.bookingId").value("BK001"));
+        perform("web-key-1")
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.bookingId").value("BK001"));
+        
+        // Then
+        Mockito.verify(bookingService, Mockito.times(1)).createBooking(any(BookingRequest.class));
+    }
+    
+    @Test
+    void createBooking_ShouldReturnUnauthorized_WhenAuthenticationIsMissing() throws Exception {
+        // Given
+        Mockito.when(bookingService.createBooking(any(BookingRequest.class)))
+                .thenThrow(new AuthenticationCredentialsNotFoundException("No credentials"));
+        
+        // When & Then
+        perform("web-key-2")
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.status").value(401));
+    }
+    
+    private ResultActions perform(String idempotencyKey) throws Exception {
+        MvcResult asyncResult = mockMvc.perform(post("/bookings")
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(asyncResult));
+    }
+}
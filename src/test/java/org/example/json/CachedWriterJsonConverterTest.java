@@ -0,0 +1,93 @@
+package org.example.json;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.FlightResponse;
+import org.example.enums.FlightStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedWriterJsonConverterTest {
+    
+    private static final Type FLIGHT_LIST = new ParameterizedTypeReference<List<FlightResponse>>() {}.getType();
+    
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    
+    private final MappingJackson2HttpMessageConverter standard = new MappingJackson2HttpMessageConverter(objectMapper);
+    
+    private final CachedWriterJsonConverter cached = new CachedWriterJsonConverter(objectMapper);
+    
+    @Test
+    void write_ShouldMatchDefaultConverter() throws Exception {
+        // Given
+        List<FlightResponse> flights = Arrays.asList(flight(1L), flight(2L));
+        Map<String, Object> error = Collections.singletonMap("message", "Flight not found");
+        
+        // When & Then: twice, so the second write uses the cached writer
+        for (int i = 0; i < 2; i++) {
+            assertEquals(write(standard, flights, FLIGHT_LIST), write(cached, flights, FLIGHT_LIST));
+            assertEquals(write(standard, flights.get(0), FlightResponse.class), write(cached, flights.get(0), FlightResponse.class));
+            assertEquals(write(standard, error, Object.class), write(cached, error, Object.class));
+        }
+    }
+    
+    @Test
+    void write_ShouldApplyJsonView() throws Exception {
+        // Given
+        Summary summary = new Summary();
+        MappingJacksonValue value = new MappingJacksonValue(summary);
+        value.setSerializationView(Summary.Public.class);
+        
+        // When
+        String json = write(cached, value, Summary.class);
+        
+        // Then
+        assertEquals("{\"flightNumber\":\"BA117\"}", json);
+    }
+    
+    private static String write(MappingJackson2HttpMessageConverter converter, Object value, Type type) throws Exception {
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        converter.write(value, type, MediaType.APPLICATION_JSON, outputMessage);
+        return outputMessage.getBodyAsString();
+    }
+    
+    private static FlightResponse flight(Long id) {
+        LocalDateTime departure = LocalDateTime.of(2024, 6, 1, 9, 30);
+        FlightResponse flight = new FlightResponse();
+        flight.setId(id);
+        flight.setFlightNumber("BA11" + id);
+        flight.setFrom("LHR");
+        flight.setTo("JFK");
+        flight.setDepartureTime(departure);
+        flight.setArrivalTime(departure.plusHours(8).plusNanos(250_000_000));
+        flight.setStatus(FlightStatus.SCHEDULED);
+        flight.setPrice(new BigDecimal("499.00"));
+        flight.setAvailableSeats(120);
+        return flight;
+    }
+    
+    static class Summary {
+        
+        interface Public {}
+        
+        @JsonView(Public.class)
+        public String flightNumber = "BA117";
+        
+        public String internalNotes = "overbooked";
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.json;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IsoLocalDateTimeSerializerTest {
+    
+    private final ObjectMapper standard = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    
+    private final ObjectMapper fast = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .registerModule(new SimpleModule().addSerializer(LocalDateTime.class, new IsoLocalDateTimeSerializer()))
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    
+    @Test
+    void serialize_ShouldMatchDefaultSerializer() throws Exception {
+        // Given
+        List<LocalDateTime> values = Arrays.asList(
+            LocalDateTime.of(2024, 3, 9, 7, 5),
+            LocalDateTime.of(2024, 12, 31, 23, 59, 59, 500_000_000),
+            LocalDateTime.of(2024, 1, 1, 0, 0, 0, 120_000),
+            LocalDateTime.of(999, 1, 1, 0, 0, 0, 1),
+            LocalDateTime.of(10000, 1, 1, 12, 0));
+        Random random = new Random(42);
+        
+        // When & Then
+        for (LocalDateTime value : values) {
+            assertEquals(standard.writeValueAsString(value), fast.writeValueAsString(value));
+        }
+        for (int i = 0; i < 1000; i++) {
+            LocalDateTime value = LocalDateTime.of(random.nextInt(10000), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                random.nextInt(24), random.nextInt(60), random.nextInt(60), random.nextInt(3) == 0 ? 0 : random.nextInt(1_000_000_000));
+            assertEquals(standard.writeValueAsString(value), fast.writeValueAsString(value));
+        }
+    }
+    
+    @Test
+    void serialize_ShouldHonourTimestampsAndFormatOverrides() throws Exception {
+        // Given
+        Departure departure = new Departure();
+        departure.at = LocalDateTime.of(2024, 3, 9, 7, 5, 30);
+        
+        // When & Then
+        assertEquals("{\"at\":\"09/03/2024 07:05\"}", fast.writeValueAsString(departure));
+        assertEquals(standard.copy().enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).writeValueAsString(departure.at),
+            fast.copy().enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).writeValueAsString(departure.at));
+    }
+    
+    static class Departure {
+        
+        @JsonFormat(pattern = "dd/MM/yyyy HH:mm")
+        public LocalDateTime at;
+    }
+}
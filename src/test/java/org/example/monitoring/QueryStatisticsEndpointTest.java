@@ -0,0 +1,64 @@
+package org.example.monitoring;
+
+import org.example.model.Flight;
+import org.example.repository.FlightRepository;
+import org.example.util.TestDataBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(QueryStatisticsEndpoint.class)
+@ActiveProfiles("test")
+class QueryStatisticsEndpointTest {
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private FlightRepository flightRepository;
+    
+    @Autowired
+    private QueryStatisticsEndpoint queryStatisticsEndpoint;
+    
+    private Flight testFlight;
+    
+    @BeforeEach
+    void setUp() {
+        testFlight = TestDataBuilder.createFlight();
+        testFlight.setId(null);
+        testFlight = entityManager.persistAndFlush(testFlight);
+        queryStatisticsEndpoint.reset();
+    }
+    
+    @Test
+    void topQueries_ShouldListQueriesByTotalTime() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            flightRepository.findByFlightNumber(testFlight.getFlightNumber());
+        }
+        flightRepository.findAll();
+        
+        // When
+        List<QueryStatisticsEndpoint.QuerySummary> queries = queryStatisticsEndpoint.topQueries(null);
+        
+        // Then
+        assertEquals(2, queries.size());
+        assertTrue(queries.get(0).getTotalTime() >= queries.get(1).getTotalTime());
+        QueryStatisticsEndpoint.QuerySummary byNumber = queries.stream()
+            .filter(query -> query.getQuery().contains("flightNumber"))
+            .findFirst()
+            .orElseThrow(AssertionError::new);
+        assertEquals(3, byNumber.getExecutions());
+        assertEquals(3, byNumber.getRows());
+        assertEquals(1, queryStatisticsEndpoint.topQueries(1).size());
+    }
+}
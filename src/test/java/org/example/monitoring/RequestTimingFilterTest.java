@@ -0,0 +1,82 @@
+package org.example.monitoring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTimingFilterTest {
+    
+    private final SlowRequestLog slowRequestLog = new SlowRequestLog();
+    
+    @AfterEach
+    void tearDown() {
+        RequestTiming.unbind();
+    }
+    
+    @Test
+    void doFilter_ShouldAddServerTimingHeader_WhenEnabled() throws Exception {
+        // Given: a handler that runs two statements, waits on a lock and writes its body
+        ReflectionTestUtils.setField(slowRequestLog, "capacity", 10);
+        RequestTimingFilter filter = new RequestTimingFilter(true, 0, slowRequestLog);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/flights/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                RequestTiming.statementExecuted(TimeUnit.MILLISECONDS.toNanos(2));
+                RequestTiming.statementExecuted(TimeUnit.MILLISECONDS.toNanos(3));
+                RequestTiming.add(RequestTiming.Metric.LOCK, TimeUnit.MILLISECONDS.toNanos(4));
+                RequestTiming.current().serializationStarted();
+                resp.getWriter().write("{\"id\":1}");
+            }
+        });
+        
+        // When
+        filter.doFilter(request, response, chain);
+        
+        // Then
+        String header = response.getHeader(RequestTimingFilter.HEADER);
+        assertNotNull(header);
+        assertTrue(header.startsWith("db;dur=5.0;desc=\"2 statements\", lock;dur=4.0, payment;dur=0.0, serialization;dur="), header);
+        assertTrue(header.contains("total;dur="), header);
+        assertEquals("{\"id\":1}", response.getContentAsString());
+        assertNull(RequestTiming.current());
+        
+        SlowRequest recorded = slowRequestLog.slowRequests().get(0);
+        assertEquals("/api/v1/flights/1", recorded.getUri());
+        assertEquals(2, recorded.getStatements());
+        assertEquals(5.0, recorded.getBreakdown().get("db"), 0.001);
+    }
+    
+    @Test
+    void doFilter_ShouldNotTimeRequest_WhenHeaderAndSamplingAreOff() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(slowRequestLog, "capacity", 10);
+        RequestTimingFilter filter = new RequestTimingFilter(false, 0, slowRequestLog);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+                assertNull(RequestTiming.current());
+            }
+        });
+        
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/flights"), response, chain);
+        
+        // Then
+        assertNull(response.getHeader(RequestTimingFilter.HEADER));
+        assertTrue(slowRequestLog.slowRequests().isEmpty());
+    }
+}
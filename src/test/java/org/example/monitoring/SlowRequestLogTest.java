@@ -0,0 +1,59 @@
+package org.example.monitoring;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowRequestLogTest {
+    
+    private SlowRequestLog slowRequestLog;
+    
+    @BeforeEach
+    void setUp() {
+        slowRequestLog = new SlowRequestLog();
+        ReflectionTestUtils.setField(slowRequestLog, "capacity", 3);
+    }
+    
+    @Test
+    void record_ShouldKeepOnlySlowestRequests() {
+        // When
+        for (long millis : new long[] {40, 10, 70, 20, 90, 30}) {
+            slowRequestLog.record(request("/bookings/" + millis, millis));
+        }
+        
+        // Then
+        List<String> uris = slowRequestLog.slowRequests().stream()
+            .map(SlowRequest::getUri)
+            .collect(Collectors.toList());
+        assertEquals(Arrays.asList("/bookings/90", "/bookings/70", "/bookings/40"), uris);
+        assertEquals(90.0, slowRequestLog.slowRequests().get(0).getDuration(), 0.001);
+    }
+    
+    @Test
+    void reset_ShouldForgetRetainedRequests() {
+        // Given
+        for (long millis : new long[] {50, 60, 70}) {
+            slowRequestLog.record(request("/flights/" + millis, millis));
+        }
+        
+        // When
+        slowRequestLog.reset();
+        slowRequestLog.record(request("/flights/1", 1));
+        
+        // Then: the fast request is kept once the threshold of the full log is gone
+        assertEquals(1, slowRequestLog.slowRequests().size());
+        assertEquals("/flights/1", slowRequestLog.slowRequests().get(0).getUri());
+    }
+    
+    private static SlowRequest request(String uri, long millis) {
+        RequestTiming timing = new RequestTiming();
+        ReflectionTestUtils.setField(timing, "totalNanos", millis * 1_000_000L);
+        return new SlowRequest("GET", uri, 200, timing);
+    }
+}
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
@@ -284,4 +285,49 @@ class BookingRepositoryTest {
         // Then
         assertFalse(result.isPresent());
     }
-}
\ No newline at end of file
+    
+    @Test
+    void claimRefund_ShouldLeaseDueRefundToOneWorker() {
+        // Given
+        Booking cancelled = TestDataBuilder.createBooking();
+        cancelled.setId(null);
+        cancelled.setBookingId("BK-REFUND");
+        cancelled.setPnr("RFND01");
+        cancelled.setStatus(BookingStatus.CANCELLED);
+        cancelled.requestRefund(LocalDateTime.now().minusMinutes(1));
+        cancelled = entityManager.persistAndFlush(cancelled);
+        LocalDateTime now = LocalDateTime.now();
+        
+        // When
+        List<Booking> due = bookingRepository.findDueRefunds(now, PageRequest.of(0, 10));
+        int first = bookingRepository.claimRefund(cancelled.getId(), now, now.plusMinutes(1));
+        int second = bookingRepository.claimRefund(cancelled.getId(), now, now.plusMinutes(1));
+        
+        // Then
+        assertEquals(1, due.size());
+        assertEquals(1, first);
+        assertEquals(0, second);
+        assertTrue(bookingRepository.findDueRefunds(now, PageRequest.of(0, 10)).isEmpty());
+    }
+    
+    @Test
+    void recordLatePayment_ShouldQueueRefund_WhenBookingWasSweptDuringPayment() {
+        // Given: the hold sweeper failed the booking while its payment was still running
+        testBooking.setStatus(BookingStatus.FAILED);
+        testBooking.setPaymentStatus(PaymentStatus.PENDING);
+        testBooking.setPaymentId(null);
+        entityManager.persistAndFlush(testBooking);
+        
+        // When
+        int recorded = bookingRepository.recordLatePayment(testBooking.getId(), PaymentStatus.COMPLETED, "PAY-LATE");
+        int requested = bookingRepository.requestRefund(testBooking.getId(), LocalDateTime.now());
+        
+        // Then
+        assertEquals(1, recorded);
+        assertEquals(1, requested);
+        Booking swept = bookingRepository.findById(testBooking.getId()).get();
+        assertEquals(BookingStatus.FAILED, swept.getStatus());
+        assertEquals(PaymentStatus.REFUND_PENDING, swept.getPaymentStatus());
+        assertEquals("PAY-LATE", swept.getPaymentId());
+    }
+}
@@ -11,6 +11,8 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -214,6 +216,23 @@ class FlightRepositoryTest {
         assertEquals(2, count);
     }
     
+    @Test
+    void findIdsDepartingAfter_ShouldSkipDepartedAndMissingFlights() {
+        // Given
+        Flight departed = TestDataBuilder.createFlight(2L, "FL002", "Chicago", "Miami");
+        departed.setId(null); // Let JPA generate the ID
+        departed.setDepartureTime(LocalDateTime.now().minusHours(2));
+        departed.setArrivalTime(LocalDateTime.now().minusHours(1));
+        departed = entityManager.persistAndFlush(departed);
+        
+        // When
+        List<Long> ids = flightRepository.findIdsDepartingAfter(
+            Arrays.asList(testFlight.getId(), departed.getId(), 999L), LocalDateTime.now());
+        
+        // Then
+        assertEquals(Collections.singletonList(testFlight.getId()), ids);
+    }
+    
     @Test
     void deleteById_ShouldDeleteFlight_WhenFlightExists() {
         // Given
@@ -0,0 +1,116 @@
+package org.example.repository;
+
+import org.example.enums.SeatStatus;
+import org.example.model.Seat;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class SeatRepositoryTest {
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private SeatRepository seatRepository;
+    
+    @Test
+    void insertHold_ShouldClaimSeatOnce() {
+        // Given
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(10);
+        
+        // When
+        int first = seatRepository.insertHold(1L, 4, "BK1", expiresAt);
+        int second = seatRepository.insertHold(1L, 4, "BK2", expiresAt);
+        
+        // Then
+        assertEquals(1, first);
+        assertEquals(0, second);
+        Optional<Seat> seat = seatRepository.findByFlightIdAndOrdinal(1L, 4);
+        assertTrue(seat.isPresent());
+        assertEquals(SeatStatus.LOCKED, seat.get().getStatus());
+        assertEquals("BK1", seat.get().getHeldBy());
+    }
+    
+    @Test
+    void holdStoredSeat_ShouldClaimSeatStillStoredAsAvailable() {
+        // Given: a flight whose seats were provisioned eagerly
+        persist(1L, 4, SeatStatus.AVAILABLE);
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(10);
+        
+        // When
+        int inserted = seatRepository.insertHold(1L, 4, "BK1", expiresAt);
+        int claimed = seatRepository.holdStoredSeat(1L, 4, "BK1", expiresAt);
+        
+        // Then
+        assertEquals(0, inserted);
+        assertEquals(1, claimed);
+        assertEquals(0, seatRepository.holdStoredSeat(1L, 4, "BK2", expiresAt));
+    }
+    
+    @Test
+    void findTakenOrdinals_ShouldIgnoreStoredAvailableSeats() {
+        // Given
+        persist(1L, 0, SeatStatus.OCCUPIED);
+        persist(1L, 1, SeatStatus.AVAILABLE);
+        persist(1L, 2, SeatStatus.MAINTENANCE);
+        persist(2L, 3, SeatStatus.OCCUPIED);
+        
+        // When & Then
+        assertEquals(new HashSet<>(Arrays.asList(0, 2)), new HashSet<>(seatRepository.findTakenOrdinals(1L)));
+        assertEquals(2L, seatRepository.countTakenSeats(1L));
+    }
+    
+    @Test
+    void releaseHeldSeats_ShouldDeleteOnlyTheBookingsHolds() {
+        // Given
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(10);
+        seatRepository.insertHold(1L, 0, "BK1", expiresAt);
+        seatRepository.insertHold(1L, 1, "BK1", expiresAt);
+        seatRepository.insertHold(1L, 2, "BK2", expiresAt);
+        
+        // When
+        int released = seatRepository.releaseHeldSeats(1L, "BK1");
+        
+        // Then
+        assertEquals(2, released);
+        assertEquals(Collections.singletonList(2), seatRepository.findTakenOrdinals(1L));
+    }
+    
+    @Test
+    void deleteAvailableRows_ShouldKeepTakenSeats() {
+        // Given
+        persist(1L, 0, SeatStatus.OCCUPIED);
+        persist(1L, 1, SeatStatus.AVAILABLE);
+        persist(1L, 2, SeatStatus.AVAILABLE);
+        persist(2L, 0, SeatStatus.AVAILABLE);
+        
+        // When
+        int deleted = seatRepository.deleteAvailableRows(1L);
+        
+        // Then
+        assertEquals(2, deleted);
+        assertEquals(1, seatRepository.findByFlightId(1L).size());
+        assertEquals(Collections.singletonList(2L), seatRepository.findFlightIdsWithAvailableRows(PageRequest.of(0, 10)));
+    }
+    
+    private void persist(Long flightId, int ordinal, SeatStatus status) {
+        Seat seat = new Seat(flightId, ordinal);
+        seat.setStatus(status);
+        seat.setCreatedAt(LocalDateTime.now());
+        entityManager.persistAndFlush(seat);
+    }
+}
@@ -0,0 +1,269 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.exception.AdmissionRejectedException;
+import org.example.exception.FlightNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AdmissionControlServiceTest {
+    
+    private AdmissionControlService admissionControlService;
+    private MeterRegistry meterRegistry;
+    private FlightService flightService;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        admissionControlService = createService(1000, 1000, 1, 1, 2000);
+    }
+    
+    @Test
+    void execute_ShouldRejectWithRetryAfter_WhenFlightRateExceeded() {
+        // Given
+        admissionControlService = createService(1, 2, 10, 10, 100);
+        admissionControlService.execute(1L, () -> "first");
+        admissionControlService.execute(1L, () -> "second");
+        
+        // When
+        AdmissionRejectedException ex = assertThrows(AdmissionRejectedException.class, () ->
+            admissionControlService.execute(1L, () -> "third"));
+        
+        // Then
+        assertTrue(ex.getRetryAfterSeconds() >= 1);
+        assertNull(ex.getQueuePosition());
+        assertEquals("other", admissionControlService.execute(2L, () -> "other"));
+        assertEquals(1.0, meterRegistry.get("booking.admission.rejected").tag("reason", "rate_limited").counter().count());
+    }
+    
+    @Test
+    void execute_ShouldQueueAndAdmit_WhenPermitReleasedInTime() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<String> holder = executor.submit(() -> admissionControlService.execute(1L, () -> {
+            started.countDown();
+            awaitQuietly(release);
+            return "holder";
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        
+        // When
+        Future<String> queued = executor.submit(() -> admissionControlService.execute(1L, () -> "queued"));
+        Thread.sleep(100);
+        assertEquals(1, admissionControlService.getQueueDepth());
+        assertEquals(1.0, meterRegistry.get("booking.admission.queue.depth").gauge().value());
+        release.countDown();
+        
+        // Then
+        assertEquals("holder", holder.get(5, TimeUnit.SECONDS));
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+        assertEquals(0, admissionControlService.getQueueDepth());
+        executor.shutdown();
+    }
+    
+    @Test
+    void execute_ShouldAdmitQueuedRequests_InArrivalOrder() throws Exception {
+        // Given
+        admissionControlService = createService(1000, 1000, 1, 10, 5000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> admitted = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        Future<String> holder = executor.submit(() -> admissionControlService.execute(1L, () -> {
+            started.countDown();
+            awaitQuietly(release);
+            return "holder";
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        
+        // When: three requests queue one after another
+        List<Future<Boolean>> queued = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            int order = i;
+            queued.add(executor.submit(() -> admissionControlService.execute(1L, () -> admitted.add(order))));
+            awaitQueueDepth(i);
+        }
+        release.countDown();
+        
+        // Then
+        assertEquals("holder", holder.get(5, TimeUnit.SECONDS));
+        for (Future<Boolean> request : queued) {
+            assertTrue(request.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(Arrays.asList(1, 2, 3), admitted);
+        executor.shutdown();
+    }
+    
+    @Test
+    void execute_ShouldNotOvertakeQueuedWaiter_WhenPermitIsFree() throws Exception {
+        // Given: a waiter at the head of the fair queue that a single free permit cannot satisfy yet
+        admissionControlService = createService(1000, 1000, 2, 10, 50);
+        Semaphore permits = (Semaphore) ReflectionTestUtils.getField(admissionControlService, "permits");
+        permits.acquire(2);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> waiter = executor.submit(() -> {
+            permits.acquireUninterruptibly(2);
+            permits.release(2);
+        });
+        while (!permits.hasQueuedThreads()) {
+            Thread.sleep(5);
+        }
+        permits.release();
+        
+        // When & Then: the free permit stays with the waiter instead of going to the newcomer
+        assertThrows(AdmissionRejectedException.class, () ->
+            admissionControlService.execute(1L, () -> "newcomer"));
+        assertEquals(1.0, meterRegistry.get("booking.admission.rejected").tag("reason", "queue_timeout").counter().count());
+        permits.release();
+        waiter.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+    
+    @Test
+    void execute_ShouldRejectWithQueuePosition_WhenQueueIsFull() throws Exception {
+        // Given
+        admissionControlService = createService(1000, 1000, 1, 0, 2000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<String> holder = executor.submit(() -> admissionControlService.execute(1L, () -> {
+            started.countDown();
+            awaitQuietly(release);
+            return "holder";
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        
+        // When
+        AdmissionRejectedException ex = assertThrows(AdmissionRejectedException.class, () ->
+            admissionControlService.execute(1L, () -> "rejected"));
+        
+        // Then
+        assertEquals(Integer.valueOf(1), ex.getQueuePosition());
+        assertTrue(ex.getRetryAfterSeconds() >= 1);
+        release.countDown();
+        assertEquals("holder", holder.get(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+    
+    @Test
+    void execute_ShouldNotTakeFlightToken_WhenQueueRejects() throws Exception {
+        // Given: one token for flight 1, and the only permit held by a booking on flight 2
+        admissionControlService = createService(0.001, 1, 1, 0, 2000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<String> holder = executor.submit(() -> admissionControlService.execute(2L, () -> {
+            started.countDown();
+            awaitQuietly(release);
+            return "holder";
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        assertThrows(AdmissionRejectedException.class, () -> admissionControlService.execute(1L, () -> "rejected"));
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        
+        // When & Then: flight 1 still has its token
+        assertEquals("admitted", admissionControlService.execute(1L, () -> "admitted"));
+        executor.shutdown();
+    }
+    
+    @Test
+    void execute_ShouldNotTrackBucket_WhenFlightDoesNotExist() {
+        // Given
+        when(flightService.getFlightById(99L)).thenThrow(new FlightNotFoundException("Flight not found with ID: 99"));
+        
+        // When & Then
+        assertThrows(FlightNotFoundException.class, () -> admissionControlService.execute(99L, () -> "never"));
+        assertEquals(0, admissionControlService.getTrackedFlights());
+    }
+    
+    @Test
+    void evictIdleBuckets_ShouldDropOnlyRefilledBuckets() {
+        // Given: flight 1 has used a token that refills in about 1000 seconds, flight 2's has already refilled
+        admissionControlService = createService(0.001, 2, 10, 10, 100);
+        admissionControlService.execute(1L, () -> "booked");
+        ReflectionTestUtils.setField(admissionControlService, "perFlightRate", 1_000_000d);
+        admissionControlService.execute(2L, () -> "booked");
+        
+        // When
+        admissionControlService.evictIdleBuckets();
+        
+        // Then
+        assertEquals(1, admissionControlService.getTrackedFlights());
+    }
+    
+    @Test
+    void execute_ShouldReleasePermit_WhenActionThrows() {
+        // Given
+        assertThrows(IllegalStateException.class, () ->
+            admissionControlService.execute(1L, () -> {
+                throw new IllegalStateException("boom");
+            }));
+        
+        // When & Then
+        assertEquals("next", admissionControlService.execute(1L, () -> "next"));
+    }
+    
+    @Test
+    void execute_ShouldBypassLimits_WhenDisabled() {
+        // Given
+        admissionControlService = createService(1, 1, 1, 0, 0);
+        ReflectionTestUtils.setField(admissionControlService, "enabled", false);
+        
+        // When & Then
+        for (int i = 0; i < 5; i++) {
+            assertEquals("ok", admissionControlService.execute(1L, () -> "ok"));
+        }
+    }
+    
+    private AdmissionControlService createService(double rate, double burst, int maxConcurrent,
+                                                  int maxQueueDepth, long maxQueueWait) {
+        meterRegistry = new SimpleMeterRegistry();
+        AdmissionControlService service = new AdmissionControlService();
+        flightService = mock(FlightService.class);
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(service, "flightService", flightService);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "perFlightRate", rate);
+        ReflectionTestUtils.setField(service, "perFlightBurst", burst);
+        ReflectionTestUtils.setField(service, "maxConcurrent", maxConcurrent);
+        ReflectionTestUtils.setField(service, "maxQueueDepth", maxQueueDepth);
+        ReflectionTestUtils.setField(service, "maxQueueWait", maxQueueWait);
+        service.init();
+        return service;
+    }
+    
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (admissionControlService.getQueueDepth() < depth && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(depth, admissionControlService.getQueueDepth());
+    }
+    
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package org.example.service;
+
+import org.example.dto.AircraftLayoutRequest;
+import org.example.dto.AircraftLayoutResponse;
+import org.example.model.AircraftLayout;
+import org.example.model.Flight;
+import org.example.repository.AircraftLayoutRepository;
+import org.example.repository.FlightRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AircraftLayoutServiceTest {
+    
+    @Mock
+    private AircraftLayoutRepository layoutRepository;
+    
+    @Mock
+    private FlightRepository flightRepository;
+    
+    @InjectMocks
+    private AircraftLayoutService aircraftLayoutService;
+    
+    @Test
+    void seatIds_ShouldStayReadablePastTwentySixRows() {
+        // Given
+        AircraftLayout layout = layout("A321", 40, "ABC DEF", null);
+        
+        // When
+        int ordinal = layout.ordinal("27A");
+        
+        // Then: row 27 used to render as '[' + column
+        assertEquals(156, ordinal);
+        assertEquals("27A", layout.seatId(ordinal));
+        assertEquals("40F", layout.seatId(layout.getPositions() - 1));
+        assertEquals(-1, layout.ordinal("41A"));
+        assertEquals(-1, layout.ordinal("1G"));
+        assertEquals(-1, layout.ordinal("A1"));
+    }
+    
+    @Test
+    void seatOrdinals_ShouldSkipBlockedSeats() {
+        // Given: the front row has no window seats
+        AircraftLayout layout = layout("E190", 25, "AB CD", "1A,1D");
+        
+        // When
+        int[] ordinals = layout.seatOrdinals(3);
+        
+        // Then
+        assertEquals(98, layout.getSeatCount());
+        assertEquals(-1, layout.ordinal("1A"));
+        assertEquals(Arrays.asList("1B", "1C", "2A"),
+            Arrays.asList(layout.seatId(ordinals[0]), layout.seatId(ordinals[1]), layout.seatId(ordinals[2])));
+    }
+    
+    @Test
+    void createLayout_ShouldSaveLayout() {
+        // Given
+        AircraftLayoutRequest request = request("A320", 30, "ABC DEF");
+        request.setCabins("J:1-3,Y:4-30");
+        request.setBlockedSeats(Arrays.asList("1C", "1D"));
+        when(layoutRepository.save(any(AircraftLayout.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // When
+        AircraftLayoutResponse response = aircraftLayoutService.createLayout(request);
+        
+        // Then
+        assertEquals("A320", response.getAircraftType());
+        assertEquals(Integer.valueOf(178), response.getSeatCount());
+        assertEquals(Arrays.asList("1C", "1D"), response.getBlockedSeats());
+    }
+    
+    @Test
+    void createLayout_ShouldRejectLayout_WhenBlockedSeatIsNotOnAircraft() {
+        // Given
+        AircraftLayoutRequest request = request("A320", 30, "ABC DEF");
+        request.setBlockedSeats(Arrays.asList("31A"));
+        
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> aircraftLayoutService.createLayout(request));
+        verify(layoutRepository, never()).save(any(AircraftLayout.class));
+    }
+    
+    @Test
+    void createLayout_ShouldRejectLayout_WhenCabinsOverlap() {
+        // Given
+        AircraftLayoutRequest request = request("A320", 30, "ABC DEF");
+        request.setCabins("J:1-5,Y:5-30");
+        
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> aircraftLayoutService.createLayout(request));
+        verify(layoutRepository, never()).save(any(AircraftLayout.class));
+    }
+    
+    @Test
+    void resolveLayout_ShouldStoreGenericLayoutOncePerSize() {
+        // Given
+        AircraftLayout stored = layout("GENERIC-27x6", 27, "ABC DEF", null);
+        when(layoutRepository.findByAircraftType("GENERIC-27x6"))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(stored));
+        when(layoutRepository.save(any(AircraftLayout.class))).thenReturn(stored);
+        
+        // When
+        AircraftLayout first = aircraftLayoutService.resolveLayout(null, 160);
+        AircraftLayout second = aircraftLayoutService.resolveLayout(null, 157);
+        
+        // Then
+        assertSame(stored, first);
+        assertSame(stored, second);
+        verify(layoutRepository, times(1)).save(any(AircraftLayout.class));
+    }
+    
+    @Test
+    void resolveLayout_ShouldThrowException_WhenAircraftHasTooFewSeats() {
+        // Given
+        when(layoutRepository.findByAircraftType("E190"))
+            .thenReturn(Optional.of(layout("E190", 25, "AB CD", null)));
+        when(layoutRepository.findByAircraftType("B777")).thenReturn(Optional.empty());
+        
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> aircraftLayoutService.resolveLayout("E190", 101));
+        assertThrows(IllegalArgumentException.class, () -> aircraftLayoutService.resolveLayout("B777", 10));
+    }
+    
+    @Test
+    void getSeatingForFlight_ShouldOnlyQueryOncePerFlight() {
+        // Given
+        AircraftLayout layout = layout("A320", 30, "ABC DEF", null);
+        Flight flight = new Flight();
+        flight.setLayoutId(layout.getId());
+        flight.setMaxPassengers(150);
+        when(flightRepository.findById(1L)).thenReturn(Optional.of(flight));
+        when(layoutRepository.findById(layout.getId())).thenReturn(Optional.of(layout));
+        
+        // When
+        aircraftLayoutService.getSeatingForFlight(1L);
+        AircraftLayoutService.FlightSeating cached = aircraftLayoutService.getSeatingForFlight(1L);
+        
+        // Then
+        assertSame(layout, cached.getLayout());
+        assertSame(layout, aircraftLayoutService.getLayoutForFlight(1L));
+        verify(flightRepository, times(1)).findById(1L);
+        verify(layoutRepository, times(1)).findById(layout.getId());
+    }
+    
+    @Test
+    void flightSeating_ShouldOnlySellFirstSeatsUpToCapacity() {
+        // Given
+        AircraftLayoutService.FlightSeating seating =
+            new AircraftLayoutService.FlightSeating(layout("E190", 25, "AB CD", "1A,1D"), 6);
+        
+        // When
+        int lastSold = seating.ordinal("2D");
+        int unsold = seating.ordinal("3A");
+        
+        // Then
+        assertEquals("2D", seating.seatId(lastSold));
+        assertEquals(-1, unsold);
+        assertEquals(-1, seating.ordinal("1A"));
+        assertEquals(6, seating.getSellable().cardinality());
+    }
+    
+    private static AircraftLayout layout(String aircraftType, int rows, String columnLetters, String blockedSeats) {
+        AircraftLayout layout = new AircraftLayout();
+        layout.setId(5L);
+        layout.setAircraftType(aircraftType);
+        layout.setRowCount(rows);
+        layout.setFirstRow(1);
+        layout.setColumnLetters(columnLetters);
+        layout.setBlockedSeats(blockedSeats);
+        return layout;
+    }
+    
+    private static AircraftLayoutRequest request(String aircraftType, int rows, String columnLetters) {
+        AircraftLayoutRequest request = new AircraftLayoutRequest();
+        request.setAircraftType(aircraftType);
+        request.setRowCount(rows);
+        request.setColumnLetters(columnLetters);
+        return request;
+    }
+}
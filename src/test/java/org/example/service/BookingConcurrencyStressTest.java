@@ -0,0 +1,263 @@
+package org.example.service;
+
+import org.example.dto.BookingRequest;
+import org.example.dto.BookingResponse;
+import org.example.dto.FlightRequest;
+import org.example.enums.BookingStatus;
+import org.example.enums.SeatFallbackPolicy;
+import org.example.enums.SeatStatus;
+import org.example.exception.SeatNotAvailableException;
+import org.example.model.Booking;
+import org.example.model.Flight;
+import org.example.repository.BookingRepository;
+import org.example.repository.FlightRepository;
+import org.example.repository.SeatRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Books and cancels on a small flight from many threads at once, through the real services and
+ * database, then checks that no seat was sold twice, that the flight's seat count matches its seat
+ * rows and never went negative, and that every acknowledged booking and cancellation is reflected.
+ * Changes to seat locking or inventory accounting must keep these green.
+ *
+ * <p>Runs with 8 threads by default; raise the pressure with {@code -Dstress.threads} and
+ * {@code -Dstress.operations}. A failure prints the random seed, which {@code -Dstress.seed} replays
+ * as far as thread scheduling allows.
+ */
+// The flight cache lives in Redis in the application; an in-memory cache keeps the run local
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "spring.cache.type=simple")
+@ActiveProfiles("test")
+class BookingConcurrencyStressTest {
+    
+    private static final int SEATS = 12;
+    
+    private static final List<String> SEAT_IDS = Arrays.asList(
+        "1A", "1B", "1C", "1D", "1E", "1F", "2A", "2B", "2C", "2D", "2E", "2F");
+    
+    @Autowired
+    private BookingService bookingService;
+    
+    @Autowired
+    private FlightService flightService;
+    
+    @Autowired
+    private AircraftLayoutService aircraftLayoutService;
+    
+    @Autowired
+    private FlightRepository flightRepository;
+    
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    @Autowired
+    private SeatRepository seatRepository;
+    
+    private final int threads = Integer.getInteger("stress.threads", 8);
+    
+    private final int operations = Integer.getInteger("stress.operations", 150);
+    
+    private final long seed = Long.getLong("stress.seed", System.nanoTime());
+    
+    private ExecutorService executor;
+    
+    private Long flightId;
+    
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(threads + 1);
+        flightId = addFlight();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void bookAndCancel_ShouldNeverOversellOrLoseSeats() throws Exception {
+        // Given: threads share one queue of confirmed bookings, so they also race to cancel the same one
+        Queue<String> confirmed = new ConcurrentLinkedQueue<>();
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger cancelled = new AtomicInteger();
+        AtomicInteger lowestAvailable = new AtomicInteger(SEATS);
+        CyclicBarrier start = new CyclicBarrier(threads);
+        
+        // When
+        Future<?> sampler = executor.submit(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                int available = flightRepository.findById(flightId).get().getAvailableSeats();
+                lowestAvailable.accumulateAndGet(available, Math::min);
+            }
+        });
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(seed + t);
+            workers.add(() -> {
+                start.await();
+                for (int i = 0; i < operations; i++) {
+                    String bookingId = confirmed.peek();
+                    if (bookingId != null && random.nextInt(3) == 0) {
+                        cancel(bookingId, confirmed, cancelled);
+                    } else {
+                        book(random, confirmed, booked);
+                    }
+                }
+                return null;
+            });
+        }
+        List<Future<Void>> results = executor.invokeAll(workers, 5, TimeUnit.MINUTES);
+        sampler.cancel(true);
+        for (Future<Void> result : results) {
+            assertFalse(result.isCancelled(), "Stress run timed out, seed " + seed);
+            result.get();
+        }
+        
+        // Then
+        String context = " (seed " + seed + ")";
+        Flight flight = flightRepository.findById(flightId).get();
+        List<Booking> bookings = bookingRepository.findByFlightId(flightId);
+        List<Booking> live = bookings.stream()
+            .filter(b -> b.getStatus() == BookingStatus.CONFIRMED)
+            .collect(Collectors.toList());
+        assertTrue(lowestAvailable.get() >= 0, "Available seats went negative" + context);
+        assertEquals(0, bookings.stream().filter(b -> b.getStatus() == BookingStatus.PENDING).count(),
+            "Pending bookings left behind" + context);
+        
+        // No lost updates: every acknowledged booking and cancellation is in the database
+        assertEquals(booked.get() - cancelled.get(), live.size(), "Confirmed bookings" + context);
+        assertEquals(cancelled.get(), bookings.stream().filter(Booking::isCancelled).count(),
+            "Cancelled bookings" + context);
+        
+        // No seat sold twice, and the seats sold are exactly the occupied seat rows
+        List<String> soldSeats = new ArrayList<>();
+        for (Booking booking : live) {
+            BookingResponse response = bookingService.getBookingById(booking.getBookingId());
+            assertEquals(booking.getNumberOfPassengers().intValue(), response.getAssignedSeats().size(), context);
+            soldSeats.addAll(response.getAssignedSeats());
+        }
+        Set<String> distinctSeats = new HashSet<>(soldSeats);
+        assertEquals(soldSeats.size(), distinctSeats.size(), "Seat sold twice: " + soldSeats + context);
+        AircraftLayoutService.FlightSeating seating = aircraftLayoutService.getSeatingForFlight(flightId);
+        Set<String> occupied = seatRepository.findByFlightIdAndStatus(flightId, SeatStatus.OCCUPIED).stream()
+            .map(seat -> seating.seatId(seat.getOrdinal()))
+            .collect(Collectors.toSet());
+        assertEquals(distinctSeats, occupied, "Occupied seat rows" + context);
+        
+        // The counter agrees with the seat rows
+        assertEquals(SEATS - seatRepository.countTakenSeats(flightId), flight.getAvailableSeats().longValue(),
+            "Available seat counter" + context);
+        assertEquals(SEATS - soldSeats.size(), flight.getAvailableSeats().intValue(), context);
+    }
+    
+    @Test
+    void createBooking_ShouldSellContestedSeatOnce() throws Exception {
+        // Given
+        CyclicBarrier start = new CyclicBarrier(threads);
+        List<Callable<Boolean>> bookers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String bookedBy = "rival" + t + "@example.com";
+            bookers.add(() -> {
+                start.await();
+                try {
+                    bookingService.createBooking(request(1, Collections.singletonList("1C"), SeatFallbackPolicy.FAIL, bookedBy));
+                    return true;
+                } catch (SeatNotAvailableException e) {
+                    return false;
+                }
+            });
+        }
+        
+        // When
+        int sold = 0;
+        for (Future<Boolean> result : executor.invokeAll(bookers, 1, TimeUnit.MINUTES)) {
+            sold += result.get() ? 1 : 0;
+        }
+        
+        // Then
+        assertEquals(1, sold);
+        assertEquals(SEATS - 1, flightRepository.findById(flightId).get().getAvailableSeats().intValue());
+        assertEquals(1, seatRepository.countTakenSeats(flightId));
+    }
+    
+    private void book(Random random, Queue<String> confirmed, AtomicInteger booked) {
+        int passengers = 1 + random.nextInt(3);
+        List<String> seatIds = null;
+        SeatFallbackPolicy fallback = SeatFallbackPolicy.FAIL;
+        // A third of bookings pick seats, so picked seats collide with automatic assignment too
+        if (random.nextInt(3) == 0) {
+            List<String> shuffled = new ArrayList<>(SEAT_IDS);
+            Collections.shuffle(shuffled, random);
+            seatIds = shuffled.subList(0, passengers);
+            fallback = random.nextBoolean() ? SeatFallbackPolicy.FAIL : SeatFallbackPolicy.ANY_AVAILABLE;
+        }
+        try {
+            BookingResponse response = bookingService.createBooking(
+                request(passengers, seatIds, fallback, "stress" + random.nextInt(1000) + "@example.com"));
+            booked.incrementAndGet();
+            confirmed.add(response.getBookingId());
+        } catch (SeatNotAvailableException e) {
+            // Sold out, or the picked seats were taken: expected under contention
+        }
+    }
+    
+    private void cancel(String bookingId, Queue<String> confirmed, AtomicInteger cancelled) {
+        try {
+            bookingService.cancelBooking(bookingId);
+            cancelled.incrementAndGet();
+            confirmed.remove(bookingId);
+        } catch (IllegalArgumentException e) {
+            // Another thread cancelled it first
+        }
+    }
+    
+    private BookingRequest request(int passengers, List<String> seatIds, SeatFallbackPolicy fallback, String bookedBy) {
+        BookingRequest request = new BookingRequest();
+        request.setFlightId(flightId);
+        request.setNumberOfPassengers(passengers);
+        request.setPaxDetails("Ada Lovelace, Alan Turing, Grace Hopper");
+        request.setBookedBy(bookedBy);
+        request.setSeatIds(seatIds);
+        request.setSeatFallback(fallback);
+        return request;
+    }
+    
+    private Long addFlight() {
+        LocalDateTime departure = LocalDateTime.now().plusDays(30);
+        FlightRequest request = new FlightRequest();
+        request.setFlightNumber("ST" + (seed % 10000));
+        request.setFrom("LHR");
+        request.setTo("JFK");
+        request.setDepartureTime(departure);
+        request.setArrivalTime(departure.plusHours(8));
+        request.setPrice(new BigDecimal("199.00"));
+        request.setMaxPassengers(SEATS);
+        return flightService.addFlight(request).getId();
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingIdServiceTest {
+    
+    private final BookingIdService bookingIdService = new BookingIdService();
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bookingIdService, "nodeId", 3);
+        bookingIdService.init();
+    }
+    
+    @Test
+    void nextBookingId_ShouldSortInIssueOrder() {
+        // When
+        String first = bookingIdService.nextBookingId();
+        String second = bookingIdService.nextBookingId();
+        
+        // Then
+        assertTrue(first.matches("BK[0-9A-HJKMNP-TV-Z]{13}"), first);
+        assertTrue(first.compareTo(second) < 0);
+    }
+}
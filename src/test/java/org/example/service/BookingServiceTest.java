@@ -13,15 +13,22 @@ import org.example.repository.BookingRepository;
 import org.example.repository.FlightRepository;
 import org.example.enums.BookingStatus;
 import org.example.enums.PaymentStatus;
+import org.example.enums.SeatFallbackPolicy;
 import org.example.util.TestDataBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.SimpleTransactionStatus;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -30,7 +37,6 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import org.example.model.BookingSeat;
-import org.example.service.LockService;
 
 @ExtendWith(MockitoExtension.class)
 class BookingServiceTest {
@@ -48,7 +54,21 @@ class BookingServiceTest {
     private PaymentService paymentService;
     
     @Mock
-    private LockService redisLockService;
+    private OutboxService outboxService;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @Spy
+    private BookingMetrics bookingMetrics = new BookingMetrics();
+    
+    @Mock
+    private PnrPool pnrPool;
+    
+    @Spy
+    private BookingIdService bookingIdService = new BookingIdService();
+    
+    private SimpleMeterRegistry meterRegistry;
     
     @InjectMocks
     private BookingService bookingService;
@@ -57,6 +77,7 @@ class BookingServiceTest {
     private Flight testFlight;
     private BookingRequest testBookingRequest;
     private List<Seat> testSeats;
+    private List<String> testSeatIds;
     
     @BeforeEach
     void setUp() {
@@ -64,17 +85,29 @@ class BookingServiceTest {
         testFlight = TestDataBuilder.createFlight();
         testBookingRequest = TestDataBuilder.createBookingRequest();
         testSeats = TestDataBuilder.createSeatsForFlight(1L, 2);
+        testSeatIds = Arrays.asList("1A", "1B");
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(bookingMetrics, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(bookingIdService, "pnrPool", pnrPool);
+        bookingIdService.init();
     }
     
     @Test
     void createBooking_ShouldCreateBookingSuccessfully() {
         // Given
+        testBooking.setStatus(BookingStatus.PENDING);
         when(flightRepository.findById(testBookingRequest.getFlightId()))
             .thenReturn(Optional.of(testFlight));
-        when(seatService.getAvailableSeatsSequentially(anyLong(), anyInt()))
-            .thenReturn(testSeats);
+        when(seatService.holdSeats(anyLong(), anyInt(), any(), any(), anyString()))
+            .thenReturn(testSeatIds);
+        when(flightRepository.decrementAvailableSeats(anyLong(), anyInt()))
+            .thenReturn(1);
         when(bookingRepository.save(any(Booking.class)))
             .thenReturn(testBooking);
+        when(bookingRepository.findByBookingIdForUpdate(testBooking.getBookingId()))
+            .thenReturn(Optional.of(testBooking));
+        when(seatService.occupyHeldSeats(anyLong(), anyString()))
+            .thenReturn(testSeats.size());
         
         PaymentService.PaymentResult paymentResult = new PaymentService.PaymentResult(
             "PAY123456", PaymentStatus.COMPLETED, "Payment successful");
@@ -92,9 +125,57 @@ class BookingServiceTest {
         assertEquals(testBooking.getBookedBy(), response.getBookedBy());
         
         verify(flightRepository).findById(testBookingRequest.getFlightId());
-        verify(seatService).getAvailableSeatsSequentially(anyLong(), anyInt());
+        verify(seatService).holdSeats(anyLong(), anyInt(), any(), any(), anyString());
         verify(bookingRepository, atLeastOnce()).save(any(Booking.class));
         verify(paymentService).processPayment(anyString(), any(BigDecimal.class), anyString());
+        verify(seatService).occupyHeldSeats(anyLong(), anyString());
+        verify(outboxService).bookingConfirmed(any(Booking.class));
+        assertEquals(BookingStatus.CONFIRMED, testBooking.getStatus());
+        for (String stage : Arrays.asList("flight_lookup", "inventory_lock", "seat_hold", "booking_save", "payment", "confirm", "total")) {
+            assertEquals(1, meterRegistry.get("booking.stage")
+                .tags("operation", "create", "stage", stage, "outcome", "success").timer().count(), stage);
+        }
+    }
+    
+    @Test
+    void createBooking_ShouldAssignRequestedSeatsInPassengerOrder() {
+        // Given
+        testBookingRequest.setSeatIds(Arrays.asList("3D", "3C"));
+        testBooking.setStatus(BookingStatus.PENDING);
+        when(flightRepository.findById(testBookingRequest.getFlightId()))
+            .thenReturn(Optional.of(testFlight));
+        when(seatService.holdSeats(eq(testBookingRequest.getFlightId()), eq(2), eq(Arrays.asList("3D", "3C")),
+                eq(SeatFallbackPolicy.FAIL), anyString()))
+            .thenReturn(Arrays.asList("3D", "3C"));
+        when(flightRepository.decrementAvailableSeats(anyLong(), anyInt()))
+            .thenReturn(1);
+        when(bookingRepository.save(any(Booking.class)))
+            .thenReturn(testBooking);
+        when(bookingRepository.findByBookingIdForUpdate(testBooking.getBookingId()))
+            .thenReturn(Optional.of(testBooking));
+        when(seatService.occupyHeldSeats(anyLong(), anyString()))
+            .thenReturn(2);
+        when(paymentService.processPayment(anyString(), any(BigDecimal.class), anyString()))
+            .thenReturn(new PaymentService.PaymentResult("PAY123456", PaymentStatus.COMPLETED, "Payment successful"));
+        
+        // When
+        BookingResponse response = bookingService.createBooking(testBookingRequest);
+        
+        // Then
+        assertEquals(Arrays.asList("3D", "3C"), response.getAssignedSeats());
+    }
+    
+    @Test
+    void createBooking_ShouldThrowException_WhenSameSeatRequestedTwice() {
+        // Given
+        testBookingRequest.setSeatIds(Arrays.asList("1A", "1A"));
+        when(flightRepository.findById(testBookingRequest.getFlightId()))
+            .thenReturn(Optional.of(testFlight));
+        
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> 
+            bookingService.createBooking(testBookingRequest));
+        verify(seatService, never()).holdSeats(anyLong(), anyInt(), any(), any(), anyString());
     }
     
     @Test
@@ -107,7 +188,7 @@ class BookingServiceTest {
         assertThrows(FlightNotFoundException.class, () -> 
             bookingService.createBooking(testBookingRequest));
         verify(flightRepository).findById(testBookingRequest.getFlightId());
-        verify(seatService, never()).getAvailableSeatsSequentially(anyLong(), anyInt());
+        verify(seatService, never()).holdSeats(anyLong(), anyInt(), any(), any(), anyString());
     }
     
     @Test
@@ -121,6 +202,8 @@ class BookingServiceTest {
         assertThrows(SeatNotAvailableException.class, () -> 
             bookingService.createBooking(testBookingRequest));
         verify(flightRepository).findById(testBookingRequest.getFlightId());
+        assertEquals(1, meterRegistry.get("booking.stage")
+            .tags("operation", "create", "stage", "total", "outcome", "rejected").timer().count());
     }
     
     @Test
@@ -128,10 +211,16 @@ class BookingServiceTest {
         // Given
         when(flightRepository.findById(testBookingRequest.getFlightId()))
             .thenReturn(Optional.of(testFlight));
-        when(seatService.getAvailableSeatsSequentially(anyLong(), anyInt()))
-            .thenReturn(testSeats);
+        when(seatService.holdSeats(anyLong(), anyInt(), any(), any(), anyString()))
+            .thenReturn(testSeatIds);
+        when(flightRepository.decrementAvailableSeats(anyLong(), anyInt()))
+            .thenReturn(1);
         when(bookingRepository.save(any(Booking.class)))
             .thenReturn(testBooking);
+        when(seatService.releaseHeldSeats(anyLong(), anyString()))
+            .thenReturn(testSeats.size());
+        when(bookingRepository.failPendingBooking(testBooking.getId(), PaymentStatus.FAILED, testBooking.getPaymentId()))
+            .thenReturn(1);
         
         PaymentService.PaymentResult paymentResult = new PaymentService.PaymentResult(
             null, PaymentStatus.FAILED, "Payment failed");
@@ -143,6 +232,81 @@ class BookingServiceTest {
         assertThrows(PaymentFailedException.class, () -> 
             bookingService.createBooking(testBookingRequest));
         verify(paymentService).processPayment(anyString(), any(BigDecimal.class), anyString());
+        verify(flightRepository).incrementAvailableSeats(testBooking.getFlightId(), testSeats.size());
+        verify(seatService, never()).occupyHeldSeats(anyLong(), anyString());
+        verify(bookingRepository).failPendingBooking(testBooking.getId(), PaymentStatus.FAILED, testBooking.getPaymentId());
+        verify(bookingRepository, never()).recordLatePayment(any(), any(), any());
+    }
+    
+    @Test
+    void createBooking_ShouldQueueRefund_WhenHoldExpiredDuringPayment() {
+        // Given
+        SimpleTransactionStatus transactionStatus = new SimpleTransactionStatus();
+        testBooking.setStatus(BookingStatus.PENDING);
+        when(transactionManager.getTransaction(any()))
+            .thenReturn(transactionStatus);
+        when(flightRepository.findById(testBookingRequest.getFlightId()))
+            .thenReturn(Optional.of(testFlight));
+        when(seatService.holdSeats(anyLong(), anyInt(), any(), any(), anyString()))
+            .thenReturn(testSeatIds);
+        when(flightRepository.decrementAvailableSeats(anyLong(), anyInt()))
+            .thenReturn(1);
+        when(bookingRepository.save(any(Booking.class)))
+            .thenReturn(testBooking);
+        when(bookingRepository.findByBookingIdForUpdate(testBooking.getBookingId()))
+            .thenReturn(Optional.of(testBooking));
+        when(bookingRepository.failPendingBooking(testBooking.getId(), PaymentStatus.COMPLETED, "PAY123456"))
+            .thenReturn(1);
+        when(paymentService.processPayment(anyString(), any(BigDecimal.class), anyString()))
+            .thenReturn(new PaymentService.PaymentResult("PAY123456", PaymentStatus.COMPLETED, "Payment successful"));
+        // The sweeper reclaimed one of the two held seats while payment was running
+        when(seatService.occupyHeldSeats(anyLong(), anyString()))
+            .thenReturn(testSeats.size() - 1);
+        when(seatService.releaseHeldSeats(anyLong(), anyString()))
+            .thenReturn(0);
+        
+        // When & Then
+        assertThrows(SeatNotAvailableException.class, () -> 
+            bookingService.createBooking(testBookingRequest));
+        assertTrue(transactionStatus.isRollbackOnly());
+        verify(outboxService, never()).bookingConfirmed(any(Booking.class));
+        verify(bookingRepository).failPendingBooking(testBooking.getId(), PaymentStatus.COMPLETED, "PAY123456");
+        // Left to the refund worker, so a shed or failed gateway call is retried
+        verify(bookingRepository).requestRefund(eq(testBooking.getId()), any(LocalDateTime.class));
+        verify(paymentService, never()).refundPayment(anyString(), any(BigDecimal.class));
+    }
+    
+    @Test
+    void createBooking_ShouldQueueRefund_WhenBookingCancelledDuringPayment() {
+        // Given: the customer cancelled while the payment was running
+        SimpleTransactionStatus transactionStatus = new SimpleTransactionStatus();
+        Booking cancelled = TestDataBuilder.createBooking();
+        cancelled.setBookingId(testBooking.getBookingId());
+        cancelled.setStatus(BookingStatus.CANCELLED);
+        cancelled.setPaymentStatus(PaymentStatus.PENDING);
+        when(transactionManager.getTransaction(any()))
+            .thenReturn(transactionStatus);
+        when(flightRepository.findById(testBookingRequest.getFlightId()))
+            .thenReturn(Optional.of(testFlight));
+        when(seatService.holdSeats(anyLong(), anyInt(), any(), any(), anyString()))
+            .thenReturn(testSeatIds);
+        when(flightRepository.decrementAvailableSeats(anyLong(), anyInt()))
+            .thenReturn(1);
+        when(bookingRepository.save(any(Booking.class)))
+            .thenReturn(testBooking);
+        when(bookingRepository.findByBookingIdForUpdate(testBooking.getBookingId()))
+            .thenReturn(Optional.of(cancelled));
+        when(paymentService.processPayment(anyString(), any(BigDecimal.class), anyString()))
+            .thenReturn(new PaymentService.PaymentResult("PAY123456", PaymentStatus.COMPLETED, "Payment successful"));
+        
+        // When & Then: the seats are not occupied and the cancelled booking is not overwritten as FAILED
+        assertThrows(SeatNotAvailableException.class, () -> 
+            bookingService.createBooking(testBookingRequest));
+        verify(seatService, never()).occupyHeldSeats(anyLong(), anyString());
+        verify(bookingRepository).recordLatePayment(testBooking.getId(), PaymentStatus.COMPLETED, "PAY123456");
+        verify(bookingRepository).requestRefund(eq(testBooking.getId()), any(LocalDateTime.class));
+        verify(paymentService, never()).refundPayment(anyString(), any(BigDecimal.class));
+        assertTrue(transactionStatus.isRollbackOnly());
     }
     
     @Test
@@ -228,44 +392,83 @@ class BookingServiceTest {
         String bookingId = "BK123456789";
         testBooking.setStatus(BookingStatus.CONFIRMED);
         testBooking.setPaymentStatus(PaymentStatus.COMPLETED);
-        // Add assigned seats to avoid NPE during cancellation seat release loop
-        testBooking.setAssignedSeats(TestDataBuilder.createSeatsForFlight(testFlight.getId(), 2)
+        testBooking.setAssignedSeats(Arrays.asList("1A", "1B")
             .stream()
-            .map(seat -> {
+            .map(seatId -> {
                 BookingSeat bs = new BookingSeat();
                 bs.setBookingId(1L);
-                bs.setSeatId(seat.getSeatId());
+                bs.setSeatId(seatId);
                 return bs;
             })
             .collect(java.util.stream.Collectors.toList()));
         
+        Booking cancelled = TestDataBuilder.createBooking();
+        cancelled.setBookingId(bookingId);
+        cancelled.setStatus(BookingStatus.CANCELLED);
+        cancelled.setPaymentStatus(PaymentStatus.REFUND_PENDING);
+        
+        when(bookingRepository.findByBookingIdForUpdate(bookingId))
+            .thenReturn(Optional.of(testBooking));
+        when(bookingRepository.claimCancellation(testBooking.getId(), BookingStatus.CONFIRMED))
+            .thenReturn(1);
+        when(seatService.releaseOccupiedSeats(testBooking.getFlightId(), Arrays.asList("1A", "1B")))
+            .thenReturn(2);
+        when(flightRepository.incrementAvailableSeats(testBooking.getFlightId(), 2))
+            .thenReturn(1);
+        when(bookingRepository.findByBookingId(bookingId))
+            .thenReturn(Optional.of(cancelled));
+        
+        // When
+        BookingResponse response = bookingService.cancelBooking(bookingId);
+        
+        // Then: seats go back in one statement and the refund is left to the refund worker
+        assertEquals(BookingStatus.CANCELLED, response.getStatus());
+        assertEquals(PaymentStatus.REFUND_PENDING, response.getPaymentStatus());
+        verify(bookingRepository).requestRefund(eq(testBooking.getId()), any(LocalDateTime.class));
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(paymentService, never()).refundPayment(anyString(), any(BigDecimal.class));
+        verify(outboxService).bookingCancelled(cancelled);
+    }
+    
+    @Test
+    void cancelBooking_ShouldReleaseHeldSeats_WhenBookingIsPending() {
+        // Given
+        String bookingId = "BK123456789";
+        testBooking.setStatus(BookingStatus.PENDING);
+        testBooking.setPaymentStatus(PaymentStatus.PENDING);
+        
+        testBooking.setBookingId(bookingId);
+        
+        when(bookingRepository.findByBookingIdForUpdate(bookingId))
+            .thenReturn(Optional.of(testBooking));
+        when(bookingRepository.claimCancellation(testBooking.getId(), BookingStatus.PENDING))
+            .thenReturn(1);
+        when(seatService.releaseHeldSeats(testBooking.getFlightId(), bookingId))
+            .thenReturn(1);
+        when(flightRepository.incrementAvailableSeats(testBooking.getFlightId(), 1))
+            .thenReturn(1);
         when(bookingRepository.findByBookingId(bookingId))
             .thenReturn(Optional.of(testBooking));
-        when(bookingRepository.save(any(Booking.class)))
-            .thenReturn(testBooking);
-        when(paymentService.refundPayment(anyString(), any(BigDecimal.class)))
-            .thenReturn(new PaymentService.PaymentResult("REF123", PaymentStatus.REFUNDED, "ok"));
         
-        // Note: Refund payment is not called in the current implementation
-        // The test focuses on booking cancellation logic
+        // When
+        bookingService.cancelBooking(bookingId);
         
-        // When & Then
-        assertDoesNotThrow(() -> bookingService.cancelBooking(bookingId));
-        verify(bookingRepository).findByBookingId(bookingId);
-        verify(bookingRepository).save(any(Booking.class));
+        // Then: only the seats still held are counted back, and nothing was paid so nothing is refunded
+        verify(bookingRepository, never()).requestRefund(any(), any());
+        verify(seatService, never()).releaseOccupiedSeats(anyLong(), any());
     }
     
     @Test
     void cancelBooking_ShouldThrowException_WhenBookingNotFound() {
         // Given
         String bookingId = "NONEXISTENT";
-        when(bookingRepository.findByBookingId(bookingId))
+        when(bookingRepository.findByBookingIdForUpdate(bookingId))
             .thenReturn(Optional.empty());
         
         // When & Then
         assertThrows(BookingNotFoundException.class, () -> 
             bookingService.cancelBooking(bookingId));
-        verify(bookingRepository).findByBookingId(bookingId);
+        verify(bookingRepository).findByBookingIdForUpdate(bookingId);
     }
     
     @Test
@@ -274,13 +477,31 @@ class BookingServiceTest {
         String bookingId = "BK123456789";
         testBooking.setStatus(BookingStatus.CANCELLED);
         
-        when(bookingRepository.findByBookingId(bookingId))
+        when(bookingRepository.findByBookingIdForUpdate(bookingId))
             .thenReturn(Optional.of(testBooking));
         
         // When & Then
         assertThrows(IllegalArgumentException.class, () -> 
             bookingService.cancelBooking(bookingId));
-        verify(bookingRepository).findByBookingId(bookingId);
+        verify(bookingRepository, never()).claimCancellation(any(), any());
+    }
+    
+    @Test
+    void cancelBooking_ShouldThrowException_WhenConcurrentCancellationWins() {
+        // Given: read as confirmed, but another cancellation commits first
+        String bookingId = "BK123456789";
+        testBooking.setStatus(BookingStatus.CONFIRMED);
+        
+        when(bookingRepository.findByBookingIdForUpdate(bookingId))
+            .thenReturn(Optional.of(testBooking));
+        when(bookingRepository.claimCancellation(testBooking.getId(), BookingStatus.CONFIRMED))
+            .thenReturn(0);
+        
+        // When & Then: seats are not released twice and no second refund is requested
+        assertThrows(IllegalArgumentException.class, () -> 
+            bookingService.cancelBooking(bookingId));
+        verifyNoInteractions(seatService, outboxService);
+        verify(bookingRepository, never()).requestRefund(any(), any());
     }
     
     @Test
@@ -4,6 +4,7 @@ import org.example.dto.FlightRequest;
 import org.example.dto.FlightResponse;
 import org.example.dto.SearchFlightRequest;
 import org.example.exception.FlightNotFoundException;
+import org.example.model.AircraftLayout;
 import org.example.model.Flight;
 import org.example.repository.FlightRepository;
 import org.example.enums.FlightStatus;
@@ -14,12 +15,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -32,10 +38,13 @@ class FlightServiceTest {
     private FlightRepository flightRepository;
     
     @Mock
-    private RabbitTemplate rabbitTemplate;
+    private OutboxService outboxService;
     
     @Mock
-    private SeatCreationService seatCreationService;
+    private AircraftLayoutService aircraftLayoutService;
+    
+    @Mock
+    private SeatMapService seatMapService;
     
     @InjectMocks
     private FlightService flightService;
@@ -52,6 +61,8 @@ class FlightServiceTest {
     @Test
     void addFlight_ShouldCreateFlightSuccessfully() {
         // Given
+        AircraftLayout layout = TestDataBuilder.createLayout();
+        when(aircraftLayoutService.resolveLayout(null, testFlightRequest.getMaxPassengers())).thenReturn(layout);
         when(flightRepository.save(any(Flight.class))).thenReturn(testFlight);
         
         // When
@@ -65,8 +76,8 @@ class FlightServiceTest {
         assertEquals(testFlight.getPrice(), response.getPrice());
         assertEquals(testFlight.getMaxPassengers(), response.getMaxPassengers());
         
-        verify(flightRepository).save(any(Flight.class));
-        verify(seatCreationService).createSeatsForFlight(eq(testFlight.getId()), eq(testFlight.getMaxPassengers()));
+        verify(flightRepository).save(argThat(flight -> layout.getId().equals(flight.getLayoutId())));
+        verifyNoInteractions(outboxService);
     }
     
     @Test
@@ -128,6 +139,65 @@ class FlightServiceTest {
         );
     }
     
+    @Test
+    void getFlightById_ShouldQueryOnce_WhenIdenticalRequestsArriveTogether() throws Exception {
+        // Given
+        int clients = 32;
+        Long flightId = 1L;
+        CountDownLatch release = new CountDownLatch(1);
+        when(flightRepository.findById(flightId)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(testFlight);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        
+        // When
+        List<Future<FlightResponse>> results = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            results.add(executor.submit(() -> flightService.getFlightById(flightId)));
+        }
+        Thread.sleep(200);
+        release.countDown();
+        
+        // Then
+        for (Future<FlightResponse> result : results) {
+            assertEquals(testFlight.getFlightNumber(), result.get(5, TimeUnit.SECONDS).getFlightNumber());
+        }
+        verify(flightRepository, times(1)).findById(flightId);
+        executor.shutdown();
+    }
+    
+    @Test
+    void searchFlights_ShouldQueryOnce_WhenIdenticalSearchesArriveTogether() throws Exception {
+        // Given
+        int clients = 32;
+        SearchFlightRequest searchRequest = TestDataBuilder.createSearchRequest();
+        CountDownLatch release = new CountDownLatch(1);
+        when(flightRepository.findAvailableFlights(
+            anyString(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class), any(FlightStatus.class), anyInt()
+        )).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Arrays.asList(testFlight);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        
+        // When
+        List<Future<List<FlightResponse>>> results = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            results.add(executor.submit(() -> flightService.searchFlights(searchRequest)));
+        }
+        Thread.sleep(200);
+        release.countDown();
+        
+        // Then
+        for (Future<List<FlightResponse>> result : results) {
+            assertEquals(1, result.get(5, TimeUnit.SECONDS).size());
+        }
+        verify(flightRepository, times(1)).findAvailableFlights(
+            anyString(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class), any(FlightStatus.class), anyInt());
+        executor.shutdown();
+    }
+    
     @Test
     void getAllFlights_ShouldReturnAllFlights() {
         // Given
@@ -162,6 +232,23 @@ class FlightServiceTest {
         assertEquals(newStatus, response.getStatus());
         verify(flightRepository).findById(flightId);
         verify(flightRepository).save(any(Flight.class));
+        verify(outboxService, never()).flightStatusChanged(any(Flight.class), any());
+    }
+    
+    @Test
+    void updateFlightStatus_ShouldRecordEvent_WhenStatusChanges() {
+        // Given
+        Long flightId = 1L;
+        testFlight.setStatus(FlightStatus.SCHEDULED);
+        
+        when(flightRepository.findById(flightId)).thenReturn(Optional.of(testFlight));
+        when(flightRepository.save(any(Flight.class))).thenReturn(testFlight);
+        
+        // When
+        flightService.updateFlightStatus(flightId, FlightStatus.DELAYED);
+        
+        // Then
+        verify(outboxService).flightStatusChanged(testFlight, FlightStatus.SCHEDULED);
     }
     
     @Test
@@ -191,6 +278,7 @@ class FlightServiceTest {
         // Then
         verify(flightRepository).existsById(flightId);
         verify(flightRepository).deleteById(flightId);
+        verify(seatMapService).evict(flightId);
     }
     
     @Test
@@ -0,0 +1,267 @@
+package org.example.service;
+
+import org.example.dto.BookingRequest;
+import org.example.dto.BookingResponse;
+import org.example.exception.IdempotencyConflictException;
+import org.example.exception.SeatNotAvailableException;
+import org.example.util.TestDataBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyServiceTest {
+    
+    private IdempotencyService idempotencyService;
+    private InMemoryIdempotencyStore idempotencyStore;
+    private BookingRequest testBookingRequest;
+    private AtomicInteger executions;
+    
+    @BeforeEach
+    void setUp() {
+        idempotencyStore = new InMemoryIdempotencyStore();
+        ReflectionTestUtils.setField(idempotencyStore, "inProgressTtl", 60000L);
+        ReflectionTestUtils.setField(idempotencyStore, "completedTtl", 60000L);
+        
+        idempotencyService = new IdempotencyService();
+        ReflectionTestUtils.setField(idempotencyService, "idempotencyStore", idempotencyStore);
+        ReflectionTestUtils.setField(idempotencyService, "waitTimeout", 5000L);
+        ReflectionTestUtils.setField(idempotencyService, "pollInterval", 10L);
+        
+        testBookingRequest = TestDataBuilder.createBookingRequest();
+        executions = new AtomicInteger();
+        authenticateAs("alice");
+    }
+    
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void execute_ShouldReplayStoredResponse_WhenKeyAlreadyCompleted() {
+        // Given
+        BookingResponse first = idempotencyService.execute("key-1", testBookingRequest, this::book);
+        
+        // When
+        BookingResponse replayed = idempotencyService.execute("key-1", testBookingRequest, this::book);
+        
+        // Then
+        assertEquals(1, executions.get());
+        assertEquals(first.getBookingId(), replayed.getBookingId());
+    }
+    
+    @Test
+    void execute_ShouldRunEveryTime_WhenNoKeyProvided() {
+        // When
+        idempotencyService.execute(null, testBookingRequest, this::book);
+        idempotencyService.execute("", testBookingRequest, this::book);
+        
+        // Then
+        assertEquals(2, executions.get());
+    }
+    
+    @Test
+    void execute_ShouldRunBookingOnce_WhenDuplicatesArriveConcurrently() throws Exception {
+        // Given
+        int clients = 16;
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = new DelegatingSecurityContextExecutorService(Executors.newFixedThreadPool(clients));
+        List<Future<BookingResponse>> results = new ArrayList<>();
+        
+        // When
+        for (int i = 0; i < clients; i++) {
+            results.add(executor.submit(() -> idempotencyService.execute("key-1", testBookingRequest, () -> {
+                awaitQuietly(release);
+                return book();
+            })));
+        }
+        Thread.sleep(100);
+        release.countDown();
+        
+        // Then
+        String bookingId = results.get(0).get(5, TimeUnit.SECONDS).getBookingId();
+        for (Future<BookingResponse> result : results) {
+            assertEquals(bookingId, result.get(5, TimeUnit.SECONDS).getBookingId());
+        }
+        assertEquals(1, executions.get());
+        executor.shutdown();
+    }
+    
+    @Test
+    void execute_ShouldAllowRetry_WhenFirstExecutionFails() {
+        // Given
+        assertThrows(SeatNotAvailableException.class, () ->
+            idempotencyService.execute("key-1", testBookingRequest, () -> {
+                executions.incrementAndGet();
+                throw new SeatNotAvailableException("Not enough seats");
+            }));
+        
+        // When
+        BookingResponse response = idempotencyService.execute("key-1", testBookingRequest, this::book);
+        
+        // Then
+        assertNotNull(response);
+        assertEquals(2, executions.get());
+    }
+    
+    @Test
+    void execute_ShouldRejectKeyReuse_WhenRequestDiffers() {
+        // Given
+        idempotencyService.execute("key-1", testBookingRequest, this::book);
+        BookingRequest differentRequest = TestDataBuilder.createBookingRequest(1L, 3);
+        
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () ->
+            idempotencyService.execute("key-1", differentRequest, this::book));
+        assertEquals(1, executions.get());
+    }
+    
+    @Test
+    void execute_ShouldRejectKeyReuse_WhenRequestedSeatsDiffer() {
+        // Given
+        testBookingRequest.setSeatIds(Arrays.asList("A1", "A2"));
+        idempotencyService.execute("key-1", testBookingRequest, this::book);
+        BookingRequest differentSeats = TestDataBuilder.createBookingRequest();
+        differentSeats.setSeatIds(Arrays.asList("B1", "B2"));
+        
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () ->
+            idempotencyService.execute("key-1", differentSeats, this::book));
+        assertEquals(1, executions.get());
+    }
+    
+    @Test
+    void execute_ShouldScopeKeyToCaller_NotToBookedBy() {
+        // Given
+        idempotencyService.execute("key-1", testBookingRequest, this::book);
+        
+        // When: another caller reuses the key, naming alice's bookedBy in the body
+        authenticateAs("mallory");
+        BookingResponse response = idempotencyService.execute("key-1", testBookingRequest, this::book);
+        
+        // Then: mallory gets a booking of their own, not alice's replayed
+        assertEquals("BK2", response.getBookingId());
+        assertEquals(2, executions.get());
+    }
+    
+    @Test
+    void execute_ShouldRejectKeyReuse_WhenFieldsOnlyShiftAcrossSeparator() {
+        // Given
+        testBookingRequest.setPaxDetails("John|Jane");
+        testBookingRequest.setBookedBy("alice");
+        idempotencyService.execute("key-1", testBookingRequest, this::book);
+        BookingRequest shifted = TestDataBuilder.createBookingRequest();
+        shifted.setPaxDetails("John");
+        shifted.setBookedBy("Jane|alice");
+        
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () ->
+            idempotencyService.execute("key-1", shifted, this::book));
+        assertEquals(1, executions.get());
+    }
+    
+    @Test
+    void execute_ShouldReplayAnonymousRequest_WhenBodyMatches() {
+        // Given
+        SecurityContextHolder.clearContext();
+        BookingResponse first = idempotencyService.execute("key-1", testBookingRequest, this::book);
+        
+        // When
+        BookingResponse replay = idempotencyService.execute("key-1", TestDataBuilder.createBookingRequest(), this::book);
+        
+        // Then
+        assertEquals(first.getBookingId(), replay.getBookingId());
+        assertEquals(1, executions.get());
+    }
+    
+    @Test
+    void execute_ShouldNotShareAnonymousScope_WhenBodyDiffers() {
+        // Given
+        SecurityContextHolder.clearContext();
+        idempotencyService.execute("key-1", testBookingRequest, this::book);
+        BookingRequest differentRequest = TestDataBuilder.createBookingRequest(1L, 3);
+        
+        // When
+        BookingResponse response = idempotencyService.execute("key-1", differentRequest, this::book);
+        
+        // Then: without a caller the body is the scope, so this is a separate booking
+        assertEquals("BK2", response.getBookingId());
+        assertEquals(2, executions.get());
+    }
+    
+    @Test
+    void execute_ShouldNotReplayAuthenticatedBooking_ToAnonymousCaller() {
+        // Given
+        idempotencyService.execute("key-1", testBookingRequest, this::book);
+        
+        // When
+        SecurityContextHolder.clearContext();
+        BookingResponse response = idempotencyService.execute("key-1", testBookingRequest, this::book);
+        
+        // Then
+        assertEquals("BK2", response.getBookingId());
+    }
+    
+    @Test
+    void execute_ShouldThrowConflict_WhenOtherNodeStillInProgress() throws Exception {
+        // Given
+        IdempotencyService otherNode = new IdempotencyService();
+        ReflectionTestUtils.setField(otherNode, "idempotencyStore", idempotencyStore);
+        ReflectionTestUtils.setField(otherNode, "waitTimeout", 100L);
+        ReflectionTestUtils.setField(otherNode, "pollInterval", 10L);
+        
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = new DelegatingSecurityContextExecutorService(Executors.newSingleThreadExecutor());
+        Future<BookingResponse> first = executor.submit(() -> idempotencyService.execute("key-1", testBookingRequest, () -> {
+            started.countDown();
+            awaitQuietly(release);
+            return book();
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        
+        // When & Then
+        assertThrows(IdempotencyConflictException.class, () ->
+            otherNode.execute("key-1", testBookingRequest, this::book));
+        release.countDown();
+        assertNotNull(first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+        executor.shutdown();
+    }
+    
+    private static void authenticateAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(username, "n/a", AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+    
+    private BookingResponse book() {
+        BookingResponse response = new BookingResponse();
+        response.setBookingId("BK" + executions.incrementAndGet());
+        return response;
+    }
+    
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
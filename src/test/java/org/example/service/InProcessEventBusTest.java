@@ -0,0 +1,162 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.model.OutboxEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InProcessEventBusTest {
+    
+    private InProcessEventBus eventBus;
+    
+    @AfterEach
+    void tearDown() throws Exception {
+        if (eventBus != null) {
+            eventBus.stop();
+        }
+    }
+    
+    @Test
+    void publish_ShouldDeliverToMatchingHandlers_AndCompleteAfterHandling() throws Exception {
+        // Given
+        RecordingHandler bookings = new RecordingHandler("booking.*");
+        RecordingHandler everything = new RecordingHandler("#");
+        RecordingHandler seats = new RecordingHandler("seat.creation.queue");
+        eventBus = createBus(1024, bookings, everything, seats);
+        
+        // When
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        futures.add(eventBus.publish(event(1L, "booking.confirmed")));
+        futures.add(eventBus.publish(event(2L, "booking.cancelled")));
+        futures.add(eventBus.publish(event(3L, "flight.status.changed")));
+        for (CompletableFuture<Void> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        
+        // Then
+        assertEquals(Arrays.asList(1L, 2L), bookings.flightIds());
+        assertEquals(Arrays.asList(1L, 2L, 3L), everything.flightIds());
+        assertTrue(seats.flightIds().isEmpty());
+    }
+    
+    @Test
+    void publish_ShouldFailFutures_WhenHandlerThrows() throws Exception {
+        // Given
+        RecordingHandler failing = new RecordingHandler("booking.*") {
+            @Override
+            public void handle(List<FlightCacheEvictionHandler.FlightReference> payloads) {
+                throw new IllegalStateException("handler down");
+            }
+        };
+        RecordingHandler other = new RecordingHandler("flight.#");
+        eventBus = createBus(1024, failing, other);
+        
+        // When
+        CompletableFuture<Void> booking = eventBus.publish(event(1L, "booking.confirmed"));
+        CompletableFuture<Void> flight = eventBus.publish(event(2L, "flight.status.changed"));
+        
+        // Then
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> booking.get(5, TimeUnit.SECONDS));
+        assertEquals("handler down", ex.getCause().getMessage());
+        assertNull(flight.get(5, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    void publish_ShouldApplyBackPressure_WhenBufferIsFull() throws Exception {
+        // Given - the consumer is stuck in a handler, so the buffer cannot drain
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingHandler blocking = new RecordingHandler("#") {
+            @Override
+            public void handle(List<FlightCacheEvictionHandler.FlightReference> payloads) {
+                entered.countDown();
+                awaitQuietly(release);
+            }
+        };
+        eventBus = createBus(2, blocking);
+        CompletableFuture<Void> first = eventBus.publish(event(1L, "booking.confirmed"));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        eventBus.publish(event(2L, "booking.confirmed"));
+        
+        // When
+        CompletableFuture<Void> rejected = eventBus.publish(event(3L, "booking.confirmed"));
+        
+        // Then
+        ExecutionException ex = assertThrows(ExecutionException.class, rejected::get);
+        assertTrue(ex.getCause() instanceof RejectedExecutionException);
+        release.countDown();
+        assertNull(first.get(5, TimeUnit.SECONDS));
+    }
+    
+    private InProcessEventBus createBus(int bufferSize, EventHandler<?>... handlers) {
+        InProcessEventBus bus = new InProcessEventBus();
+        ReflectionTestUtils.setField(bus, "handlers", Arrays.asList(handlers));
+        ReflectionTestUtils.setField(bus, "objectMapper",
+            new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+        ReflectionTestUtils.setField(bus, "bufferSize", bufferSize);
+        ReflectionTestUtils.setField(bus, "maxBatch", 64);
+        ReflectionTestUtils.setField(bus, "publishTimeout", 50L);
+        bus.start();
+        return bus;
+    }
+    
+    private OutboxEvent event(Long flightId, String routingKey) {
+        OutboxEvent event = new OutboxEvent("Flight", String.valueOf(flightId), "Test",
+            "booking.exchange", routingKey, "org.example.event.BookingEvent",
+            "{\"flightId\":" + flightId + ",\"bookingId\":\"BK" + flightId + "\"}");
+        event.setId(flightId);
+        return event;
+    }
+    
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static class RecordingHandler implements EventHandler<FlightCacheEvictionHandler.FlightReference> {
+        
+        private final List<String> bindings;
+        
+        private final List<Long> received = new CopyOnWriteArrayList<>();
+        
+        private RecordingHandler(String binding) {
+            this.bindings = Collections.singletonList(binding);
+        }
+        
+        public List<String> getBindings() {
+            return bindings;
+        }
+        
+        public Class<FlightCacheEvictionHandler.FlightReference> getPayloadType() {
+            return FlightCacheEvictionHandler.FlightReference.class;
+        }
+        
+        public void handle(List<FlightCacheEvictionHandler.FlightReference> payloads) {
+            for (FlightCacheEvictionHandler.FlightReference payload : payloads) {
+                received.add(payload.getFlightId());
+            }
+        }
+        
+        private List<Long> flightIds() {
+            return received;
+        }
+    }
+}
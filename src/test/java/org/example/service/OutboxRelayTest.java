@@ -0,0 +1,165 @@
+package org.example.service;
+
+import org.example.config.RabbitMQConfig;
+import org.example.model.OutboxEvent;
+import org.example.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Binding;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.ConnectException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+    
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Mock
+    private EventPublisher eventPublisher;
+    
+    @InjectMocks
+    private OutboxRelay outboxRelay;
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 100);
+        ReflectionTestUtils.setField(outboxRelay, "confirmTimeout", 1000L);
+        ReflectionTestUtils.setField(outboxRelay, "maxAttempts", 3);
+        ReflectionTestUtils.setField(outboxRelay, "maxBackoff", 30000L);
+    }
+    
+    @Test
+    void relayBatch_ShouldMarkAllPublished_WhenEveryEventIsConfirmed() throws Exception {
+        // Given
+        OutboxEvent first = event(1L);
+        when(outboxEventRepository.findByPublishedAtIsNullAndFailedAtIsNullOrderByIdAsc(any(Pageable.class)))
+            .thenReturn(Arrays.asList(first, event(2L), event(3L)));
+        when(eventPublisher.publish(any(OutboxEvent.class))).thenReturn(CompletableFuture.completedFuture(null));
+        
+        // When
+        int published = outboxRelay.relayBatch();
+        
+        // Then
+        assertEquals(3, published);
+        verify(eventPublisher, times(3)).publish(any(OutboxEvent.class));
+        verify(eventPublisher).publish(first);
+        verify(outboxEventRepository).markPublished(eq(Arrays.asList(1L, 2L, 3L)), any(LocalDateTime.class));
+        verify(outboxEventRepository, never()).recordFailure(anyLong(), anyString());
+    }
+    
+    @Test
+    void relayBatch_ShouldOnlyMarkConfirmedPrefix_WhenAnEventIsRejected() {
+        // Given
+        OutboxEvent rejected = event(2L);
+        CompletableFuture<Void> rejection = new CompletableFuture<>();
+        rejection.completeExceptionally(new IllegalStateException("Broker rejected event: rejected"));
+        when(outboxEventRepository.findByPublishedAtIsNullAndFailedAtIsNullOrderByIdAsc(any(Pageable.class)))
+            .thenReturn(Arrays.asList(event(1L), rejected, event(3L)));
+        when(eventPublisher.publish(any(OutboxEvent.class))).thenReturn(CompletableFuture.completedFuture(null));
+        when(eventPublisher.publish(rejected)).thenReturn(rejection);
+        
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> outboxRelay.relayBatch());
+        verify(outboxEventRepository).markPublished(eq(Collections.singletonList(1L)), any(LocalDateTime.class));
+        verify(outboxEventRepository).recordFailure(eq(2L), contains("rejected"));
+    }
+    
+    @Test
+    void relayBatch_ShouldParkEvent_WhenRejectedForTheLastAllowedTime() {
+        // Given: rejected twice before, max-attempts is 3
+        OutboxEvent poison = event(1L);
+        poison.setAttempts(2);
+        CompletableFuture<Void> rejection = new CompletableFuture<>();
+        rejection.completeExceptionally(new IllegalStateException("Broker returned event: NO_ROUTE"));
+        when(outboxEventRepository.findByPublishedAtIsNullAndFailedAtIsNullOrderByIdAsc(any(Pageable.class)))
+            .thenReturn(Arrays.asList(poison, event(2L)));
+        when(eventPublisher.publish(any(OutboxEvent.class))).thenReturn(CompletableFuture.completedFuture(null));
+        when(eventPublisher.publish(poison)).thenReturn(rejection);
+        
+        // When & Then: parked, so the next query no longer returns it
+        assertThrows(IllegalStateException.class, () -> outboxRelay.relayBatch());
+        verify(outboxEventRepository).park(eq(1L), contains("NO_ROUTE"), any(LocalDateTime.class));
+        verify(outboxEventRepository, never()).recordFailure(anyLong(), anyString());
+        verify(outboxEventRepository, never()).markPublished(any(), any());
+    }
+    
+    @Test
+    void relayBatch_ShouldNotPark_WhenConfirmationTimesOut() {
+        // Given
+        OutboxEvent unconfirmed = event(1L);
+        unconfirmed.setAttempts(5);
+        ReflectionTestUtils.setField(outboxRelay, "confirmTimeout", 10L);
+        when(outboxEventRepository.findByPublishedAtIsNullAndFailedAtIsNullOrderByIdAsc(any(Pageable.class)))
+            .thenReturn(Collections.singletonList(unconfirmed));
+        when(eventPublisher.publish(unconfirmed)).thenReturn(new CompletableFuture<>());
+        
+        // When & Then: a slow broker is not the event's fault
+        assertThrows(IllegalStateException.class, () -> outboxRelay.relayBatch());
+        verify(outboxEventRepository).recordFailure(eq(1L), contains("No publish confirmation"));
+        verify(outboxEventRepository, never()).park(anyLong(), anyString(), any(LocalDateTime.class));
+    }
+    
+    @Test
+    void relayBatch_ShouldPublishFlightStatusChanged_ToABoundQueue() throws Exception {
+        // Given
+        OutboxEvent statusChanged = new OutboxEvent("Flight", "42", OutboxService.FLIGHT_STATUS_CHANGED,
+            "flight.exchange", "flight.status.changed", "org.example.event.FlightStatusChangedEvent", "{}");
+        statusChanged.setId(1L);
+        when(outboxEventRepository.findByPublishedAtIsNullAndFailedAtIsNullOrderByIdAsc(any(Pageable.class)))
+            .thenReturn(Collections.singletonList(statusChanged));
+        when(eventPublisher.publish(statusChanged)).thenReturn(CompletableFuture.completedFuture(null));
+        
+        // When
+        int published = outboxRelay.relayBatch();
+        
+        // Then: published, and the broker has a binding for it, so it is not returned as NO_ROUTE
+        assertEquals(1, published);
+        verify(outboxEventRepository).markPublished(eq(Collections.singletonList(1L)), any(LocalDateTime.class));
+        RabbitMQConfig rabbitMQConfig = new RabbitMQConfig();
+        ReflectionTestUtils.setField(rabbitMQConfig, "flightQueue", "flight.queue");
+        Binding binding = rabbitMQConfig.flightBinding();
+        assertEquals(statusChanged.getExchange(), binding.getExchange());
+        assertTrue(statusChanged.getRoutingKey().matches(
+            binding.getRoutingKey().replace(".", "\\.").replace("*", "[^.]+").replace("#", ".*")));
+    }
+    
+    @Test
+    void relay_ShouldBackOff_WhenTransportIsUnavailable() {
+        // Given
+        when(outboxEventRepository.findByPublishedAtIsNullAndFailedAtIsNullOrderByIdAsc(any(Pageable.class)))
+            .thenReturn(Collections.singletonList(event(1L)));
+        when(eventPublisher.publish(any(OutboxEvent.class)))
+            .thenThrow(new AmqpConnectException(new ConnectException("Connection refused")));
+        
+        // When
+        outboxRelay.relay();
+        outboxRelay.relay();
+        
+        // Then - the second run falls inside the backoff window
+        verify(eventPublisher, times(1)).publish(any(OutboxEvent.class));
+        verify(outboxEventRepository, never()).markPublished(any(), any());
+    }
+    
+    private OutboxEvent event(Long id) {
+        OutboxEvent event = new OutboxEvent("Booking", "BK" + id, "BookingConfirmed",
+            "booking.exchange", "booking.confirmed", "org.example.event.BookingEvent", "{}");
+        event.setId(id);
+        return event;
+    }
+}
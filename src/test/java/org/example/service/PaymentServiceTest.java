@@ -2,11 +2,16 @@ package org.example.service;
 
 import org.example.service.PaymentService.PaymentResult;
 import org.example.enums.PaymentStatus;
+import org.example.exception.ServiceOverloadedException;
+import org.example.util.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 
@@ -15,6 +20,19 @@ import static org.junit.jupiter.api.Assertions.*;
 @ExtendWith(MockitoExtension.class)
 class PaymentServiceTest {
     
+    @Spy
+    private AdaptiveConcurrencyLimiter paymentConcurrencyLimiter =
+        new AdaptiveConcurrencyLimiter("payment", 16, 2, 64, 2000, 0.9, 200, 1000);
+    
+    @Spy
+    private AdaptiveConcurrencyLimiter refundConcurrencyLimiter =
+        new AdaptiveConcurrencyLimiter("refund", 8, 2, 32, 2000, 0.9, 200, 1000);
+    
+    @Spy
+    private BookingMetrics bookingMetrics = new BookingMetrics();
+    
+    private SimpleMeterRegistry meterRegistry;
+    
     @InjectMocks
     private PaymentService paymentService;
     
@@ -27,6 +45,8 @@ class PaymentServiceTest {
         testBookingId = "BK123456789";
         testAmount = new BigDecimal("299.99");
         testPaymentMethod = "CREDIT_CARD";
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(bookingMetrics, "meterRegistry", meterRegistry);
     }
     
     @Test
@@ -53,6 +73,19 @@ class PaymentServiceTest {
         assertEquals(result.getPaymentId(), result.getTransactionId());
     }
     
+    @Test
+    void processPayment_ShouldRecordLatencyByOutcome() {
+        // When
+        paymentService.processPayment(testBookingId, testAmount, testPaymentMethod);
+        paymentService.refundPayment("PAY_123456789", testAmount);
+        
+        // Then
+        assertEquals(1, meterRegistry.get("payment.duration")
+            .tags("operation", "charge", "outcome", "completed").timer().count());
+        assertEquals(1, meterRegistry.get("payment.duration")
+            .tags("operation", "refund", "outcome", "refunded").timer().count());
+    }
+    
     @Test
     void getPaymentStatus_ShouldReturnCompleted() {
         // Given
@@ -97,6 +130,19 @@ class PaymentServiceTest {
         assertEquals(transactionId, result.getTransactionId());
     }
     
+    @Test
+    void refundPayment_ShouldNotBeShed_WhenChargesSaturatePaymentLimit() {
+        // Given
+        while (paymentConcurrencyLimiter.tryAcquire()) {
+            // fill every charge slot
+        }
+        
+        // When & Then
+        assertThrows(ServiceOverloadedException.class, () ->
+            paymentService.processPayment(testBookingId, testAmount, testPaymentMethod));
+        assertEquals(PaymentStatus.REFUNDED, paymentService.refundPayment("PAY_123456789", testAmount).getStatus());
+    }
+    
     @Test
     void processPayment_ShouldHandleDifferentAmounts() {
         // Given
@@ -0,0 +1,113 @@
+package org.example.service;
+
+import org.example.model.PnrRange;
+import org.example.repository.PnrRangeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PnrPoolTest {
+    
+    @Mock
+    private PnrRangeRepository rangeRepository;
+    
+    @InjectMocks
+    private PnrPool pnrPool;
+    
+    private final AtomicLong sequence = new AtomicLong();
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(pnrPool, "lowWaterMark", 256);
+        ReflectionTestUtils.setField(pnrPool, "key", 42L);
+        when(rangeRepository.save(any(PnrRange.class))).thenAnswer(invocation -> {
+            PnrRange range = invocation.getArgument(0);
+            range.setId(sequence.incrementAndGet());
+            return range;
+        });
+    }
+    
+    @AfterEach
+    void tearDown() {
+        pnrPool.stop();
+    }
+    
+    @Test
+    void next_ShouldIssueUniqueCodesAcrossRangesAndThreads() throws Exception {
+        // Given
+        pnrPool.start();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Callable<List<String>>> workers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            workers.add(() -> {
+                List<String> pnrs = new ArrayList<>();
+                for (int i = 0; i < 2 * PnrPool.RANGE_SIZE; i++) {
+                    pnrs.add(pnrPool.next());
+                }
+                return pnrs;
+            });
+        }
+        
+        // When
+        Set<String> pnrs = new HashSet<>();
+        for (Future<List<String>> result : executor.invokeAll(workers)) {
+            for (String pnr : result.get()) {
+                assertTrue(pnr.matches("[0-9A-HJKMNP-TV-Z]{6}"), pnr);
+                pnrs.add(pnr);
+            }
+        }
+        executor.shutdown();
+        
+        // Then
+        assertEquals(8 * PnrPool.RANGE_SIZE, pnrs.size());
+    }
+    
+    @Test
+    void next_ShouldReserveNextRangeInBackground_AtLowWaterMark() throws Exception {
+        // Given: the first range is reserved at startup
+        pnrPool.start();
+        awaitReadyRanges(1);
+        
+        // When
+        for (int i = 0; i <= PnrPool.RANGE_SIZE - 256; i++) {
+            pnrPool.next();
+        }
+        awaitReadyRanges(1);
+        for (int i = PnrPool.RANGE_SIZE - 256; i <= PnrPool.RANGE_SIZE; i++) {
+            pnrPool.next();
+        }
+        
+        // Then: moving to the second range took no reservation on this thread
+        verify(rangeRepository, times(2)).save(any(PnrRange.class));
+    }
+    
+    private void awaitReadyRanges(int count) throws InterruptedException {
+        Queue<?> ready = (Queue<?>) ReflectionTestUtils.getField(pnrPool, "ready");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (ready.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, ready.size(), "Ranges reserved in the background");
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.service;
+
+import org.example.model.OutboxEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RabbitEventPublisherTest {
+    
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+    
+    @InjectMocks
+    private RabbitEventPublisher rabbitEventPublisher;
+    
+    @Test
+    void publish_ShouldSendPersistentJsonMessage_AndCompleteOnAck() throws Exception {
+        // When
+        CompletableFuture<Void> confirmed = rabbitEventPublisher.publish(event());
+        
+        // Then
+        ArgumentCaptor<Message> message = ArgumentCaptor.forClass(Message.class);
+        ArgumentCaptor<CorrelationData> correlation = ArgumentCaptor.forClass(CorrelationData.class);
+        verify(rabbitTemplate).send(eq("booking.exchange"), eq("booking.confirmed"), message.capture(), correlation.capture());
+        MessageProperties properties = message.getValue().getMessageProperties();
+        assertEquals("outbox-7", properties.getMessageId());
+        assertEquals("BookingConfirmed", properties.getType());
+        assertEquals(MessageProperties.CONTENT_TYPE_JSON, properties.getContentType());
+        assertEquals("org.example.event.BookingEvent", properties.getHeader("__TypeId__"));
+        assertEquals("7", correlation.getValue().getId());
+        
+        assertFalse(confirmed.isDone());
+        correlation.getValue().getFuture().set(new CorrelationData.Confirm(true, null));
+        assertNull(confirmed.get());
+    }
+    
+    @Test
+    void publish_ShouldFail_WhenBrokerNacks() {
+        // Given
+        CompletableFuture<Void> confirmed = rabbitEventPublisher.publish(event());
+        ArgumentCaptor<CorrelationData> correlation = ArgumentCaptor.forClass(CorrelationData.class);
+        verify(rabbitTemplate).send(anyString(), anyString(), any(Message.class), correlation.capture());
+        
+        // When
+        correlation.getValue().getFuture().set(new CorrelationData.Confirm(false, "queue full"));
+        
+        // Then
+        ExecutionException ex = assertThrows(ExecutionException.class, confirmed::get);
+        assertTrue(ex.getCause().getMessage().contains("queue full"));
+    }
+    
+    @Test
+    void publish_ShouldFail_WhenBrokerReturnsUnroutableMessage() {
+        // Given
+        CompletableFuture<Void> confirmed = rabbitEventPublisher.publish(event());
+        ArgumentCaptor<Message> message = ArgumentCaptor.forClass(Message.class);
+        ArgumentCaptor<CorrelationData> correlation = ArgumentCaptor.forClass(CorrelationData.class);
+        verify(rabbitTemplate).send(anyString(), anyString(), message.capture(), correlation.capture());
+        
+        // When: no queue bound for the routing key, so the broker returns the message and then acks it
+        correlation.getValue().setReturned(new ReturnedMessage(message.getValue(), 312, "NO_ROUTE",
+            "booking.exchange", "booking.confirmed"));
+        correlation.getValue().getFuture().set(new CorrelationData.Confirm(true, null));
+        
+        // Then
+        ExecutionException ex = assertThrows(ExecutionException.class, confirmed::get);
+        assertTrue(ex.getCause().getMessage().contains("NO_ROUTE"));
+    }
+    
+    private OutboxEvent event() {
+        OutboxEvent event = new OutboxEvent("Booking", "BK7", "BookingConfirmed",
+            "booking.exchange", "booking.confirmed", "org.example.event.BookingEvent", "{\"bookingId\":\"BK7\"}");
+        event.setId(7L);
+        return event;
+    }
+}
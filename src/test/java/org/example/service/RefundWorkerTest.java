@@ -0,0 +1,118 @@
+package org.example.service;
+
+import org.example.enums.PaymentStatus;
+import org.example.model.Booking;
+import org.example.repository.BookingRepository;
+import org.example.util.TestDataBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefundWorkerTest {
+    
+    @Mock
+    private BookingRepository bookingRepository;
+    
+    @Mock
+    private PaymentService paymentService;
+    
+    @InjectMocks
+    private RefundWorker refundWorker;
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(refundWorker, "batchSize", 2);
+        ReflectionTestUtils.setField(refundWorker, "maxAttempts", 3);
+        ReflectionTestUtils.setField(refundWorker, "initialBackoff", 1000L);
+        ReflectionTestUtils.setField(refundWorker, "maxBackoff", 60000L);
+        ReflectionTestUtils.setField(refundWorker, "lease", 60000L);
+    }
+    
+    @Test
+    void processBatch_ShouldRefundClaimedBookings_AndSkipOnesClaimedElsewhere() {
+        // Given
+        Booking mine = refundPending(1L, "PAY1", 0);
+        Booking theirs = refundPending(2L, "PAY2", 0);
+        when(bookingRepository.findDueRefunds(any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(Arrays.asList(mine, theirs));
+        when(bookingRepository.claimRefund(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class)))
+            .thenReturn(1);
+        when(bookingRepository.claimRefund(eq(2L), any(LocalDateTime.class), any(LocalDateTime.class)))
+            .thenReturn(0);
+        when(paymentService.refundPayment("PAY1", mine.getTotalPrice()))
+            .thenReturn(new PaymentService.PaymentResult("PAY1", PaymentStatus.REFUNDED, "Refund successful"));
+        
+        // When
+        int[] result = refundWorker.processBatch();
+        
+        // Then
+        assertArrayEquals(new int[] {2, 1}, result);
+        verify(bookingRepository).recordRefundAttempt(1L, PaymentStatus.REFUNDED, 1, null);
+        verify(paymentService, never()).refundPayment(eq("PAY2"), any(BigDecimal.class));
+    }
+    
+    @Test
+    void processBatch_ShouldBackOff_WhenGatewayFails() {
+        // Given
+        Booking booking = refundPending(1L, "PAY1", 1);
+        when(bookingRepository.findDueRefunds(any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(Collections.singletonList(booking));
+        when(bookingRepository.claimRefund(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class)))
+            .thenReturn(1);
+        when(paymentService.refundPayment(anyString(), any(BigDecimal.class)))
+            .thenThrow(new IllegalStateException("gateway timeout"));
+        
+        // When
+        int[] result = refundWorker.processBatch();
+        
+        // Then: second attempt, so the retry waits two seconds
+        assertArrayEquals(new int[] {1, 0}, result);
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(bookingRepository).recordRefundAttempt(eq(1L), eq(PaymentStatus.REFUND_PENDING), eq(2), nextAttempt.capture());
+        assertTrue(nextAttempt.getValue().isAfter(LocalDateTime.now().plusSeconds(1)));
+        assertTrue(nextAttempt.getValue().isBefore(LocalDateTime.now().plusSeconds(3)));
+    }
+    
+    @Test
+    void processBatch_ShouldGiveUp_AfterMaxAttempts() {
+        // Given
+        Booking booking = refundPending(1L, "PAY1", 2);
+        when(bookingRepository.findDueRefunds(any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(Collections.singletonList(booking));
+        when(bookingRepository.claimRefund(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class)))
+            .thenReturn(1);
+        when(paymentService.refundPayment(anyString(), any(BigDecimal.class)))
+            .thenReturn(new PaymentService.PaymentResult("PAY1", PaymentStatus.FAILED, "Card closed"));
+        
+        // When
+        refundWorker.processBatch();
+        
+        // Then
+        verify(bookingRepository).recordRefundAttempt(1L, PaymentStatus.REFUND_FAILED, 3, null);
+    }
+    
+    private static Booking refundPending(Long id, String paymentId, int attempts) {
+        Booking booking = TestDataBuilder.createBooking();
+        booking.setId(id);
+        booking.setPaymentId(paymentId);
+        booking.requestRefund(LocalDateTime.now().minusSeconds(id));
+        booking.setRefundAttempts(attempts);
+        return booking;
+    }
+}
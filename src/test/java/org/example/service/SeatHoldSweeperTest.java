@@ -0,0 +1,114 @@
+package org.example.service;
+
+import org.example.enums.SeatStatus;
+import org.example.model.Seat;
+import org.example.repository.BookingRepository;
+import org.example.repository.FlightRepository;
+import org.example.repository.SeatRepository;
+import org.example.util.TestDataBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatHoldSweeperTest {
+    
+    @Mock
+    private SeatRepository seatRepository;
+    
+    @Mock
+    private FlightRepository flightRepository;
+    
+    @Mock
+    private BookingRepository bookingRepository;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @InjectMocks
+    private SeatHoldSweeper seatHoldSweeper;
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(seatHoldSweeper, "batchSize", 2);
+    }
+    
+    @Test
+    void sweep_ShouldReleaseExpiredHoldsPerFlight_AndFailPendingBookings() {
+        // Given
+        Seat first = heldSeat(1L, 10L, "BK1");
+        Seat second = heldSeat(2L, 10L, "BK1");
+        Seat third = heldSeat(3L, 20L, "BK2");
+        when(seatRepository.findExpiredHolds(eq(SeatStatus.LOCKED), any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(Arrays.asList(first, second))
+            .thenReturn(Collections.singletonList(third));
+        when(seatRepository.releaseExpiredHolds(eq(Arrays.asList(1L, 2L)), any(LocalDateTime.class)))
+            .thenReturn(2);
+        when(seatRepository.releaseExpiredHolds(eq(Collections.singletonList(3L)), any(LocalDateTime.class)))
+            .thenReturn(1);
+        
+        // When
+        seatHoldSweeper.sweep();
+        
+        // Then
+        verify(seatRepository, times(2)).findExpiredHolds(eq(SeatStatus.LOCKED), any(LocalDateTime.class), any(Pageable.class));
+        verify(flightRepository).incrementAvailableSeats(10L, 2);
+        verify(flightRepository).incrementAvailableSeats(20L, 1);
+        verify(bookingRepository).failPendingBookings(Collections.singleton("BK1"));
+        verify(bookingRepository).failPendingBookings(Collections.singleton("BK2"));
+        verify(transactionManager, times(2)).commit(any());
+    }
+    
+    @Test
+    void sweep_ShouldOnlyCountSeatsActuallyReleased() {
+        // Given
+        Seat seat = heldSeat(1L, 10L, "BK1");
+        when(seatRepository.findExpiredHolds(eq(SeatStatus.LOCKED), any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(Collections.singletonList(seat));
+        // The booking occupied its seat between the read and the update
+        when(seatRepository.releaseExpiredHolds(anyCollection(), any(LocalDateTime.class)))
+            .thenReturn(0);
+        
+        // When
+        seatHoldSweeper.sweep();
+        
+        // Then
+        verify(flightRepository, never()).incrementAvailableSeats(anyLong(), anyInt());
+    }
+    
+    @Test
+    void sweep_ShouldDoNothing_WhenNoHoldsExpired() {
+        // Given
+        when(seatRepository.findExpiredHolds(eq(SeatStatus.LOCKED), any(LocalDateTime.class), any(Pageable.class)))
+            .thenReturn(Collections.<Seat>emptyList());
+        
+        // When
+        seatHoldSweeper.sweep();
+        
+        // Then
+        verify(seatRepository, never()).releaseExpiredHolds(anyCollection(), any(LocalDateTime.class));
+        verifyNoInteractions(flightRepository, bookingRepository);
+    }
+    
+    private Seat heldSeat(Long id, Long flightId, String bookingId) {
+        Seat seat = TestDataBuilder.createSeat();
+        seat.setId(id);
+        seat.setFlightId(flightId);
+        seat.lock(bookingId, LocalDateTime.now().minusMinutes(1));
+        return seat;
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.service;
+
+import org.example.repository.SeatRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatInventoryMigrationTest {
+    
+    @Mock
+    private SeatRepository seatRepository;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @InjectMocks
+    private SeatInventoryMigration seatInventoryMigration;
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(seatInventoryMigration, "batchSize", 2);
+    }
+    
+    @Test
+    void migrate_ShouldDeleteAvailableRowsFlightByFlight_UntilNoneAreLeft() {
+        // Given
+        when(seatRepository.findFlightIdsWithAvailableRows(any(Pageable.class)))
+            .thenReturn(Arrays.asList(1L, 2L))
+            .thenReturn(Collections.singletonList(3L))
+            .thenReturn(Collections.emptyList());
+        when(seatRepository.deleteAvailableRows(anyLong())).thenReturn(180, 150, 6);
+        
+        // When
+        long deleted = seatInventoryMigration.migrate();
+        
+        // Then
+        assertEquals(336, deleted);
+        verify(seatRepository, times(3)).deleteAvailableRows(anyLong());
+        verify(transactionManager, times(3)).commit(any());
+    }
+    
+    @Test
+    void migrate_ShouldStop_WhenPageDeletesNothing() {
+        // Given: rows keep showing up but another node already deleted them
+        when(seatRepository.findFlightIdsWithAvailableRows(any(Pageable.class)))
+            .thenReturn(Collections.singletonList(1L));
+        when(seatRepository.deleteAvailableRows(1L)).thenReturn(0);
+        
+        // When
+        long deleted = seatInventoryMigration.migrate();
+        
+        // Then
+        assertEquals(0, deleted);
+        verify(seatRepository, times(1)).deleteAvailableRows(1L);
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.service;
+
+import org.example.dto.SeatMapResponse;
+import org.example.exception.FlightNotFoundException;
+import org.example.model.AircraftLayout;
+import org.example.repository.FlightRepository;
+import org.example.repository.SeatRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatMapServiceTest {
+    
+    @Mock
+    private FlightRepository flightRepository;
+    
+    @Mock
+    private SeatRepository seatRepository;
+    
+    @Mock
+    private AircraftLayoutService aircraftLayoutService;
+    
+    @InjectMocks
+    private SeatMapService seatMapService;
+    
+    private AircraftLayout layout;
+    
+    @BeforeEach
+    void setUp() {
+        layout = new AircraftLayout();
+        layout.setId(7L);
+        layout.setAircraftType("TEST-2x4");
+        layout.setRowCount(2);
+        layout.setFirstRow(9);
+        layout.setColumnLetters("AB CD");
+        layout.setBlockedSeats("10D");
+        ReflectionTestUtils.setField(seatMapService, "maxSnapshots", 10);
+    }
+    
+    @Test
+    void getSeatMap_ShouldEncodeOneStringPerRow() {
+        // Given: the flight sells six of the seven seats, so 10C is not for sale
+        when(aircraftLayoutService.getSeatingForFlight(1L)).thenReturn(new AircraftLayoutService.FlightSeating(layout, 6));
+        when(seatRepository.findTakenOrdinals(1L)).thenReturn(Arrays.asList(
+            layout.ordinal("9A"),
+            layout.ordinal("9C")));
+        
+        // When
+        SeatMapResponse seatMap = seatMapService.getSeatMap(1L, 3L);
+        
+        // Then
+        assertEquals(Long.valueOf(3L), seatMap.getVersion());
+        assertEquals(Integer.valueOf(4), seatMap.getAvailableSeats());
+        assertEquals("AB CD", seatMap.getColumns());
+        assertEquals(Arrays.asList("9", "10"), new ArrayList<>(seatMap.getRows().keySet()));
+        assertEquals("X. X.", seatMap.getRows().get("9"));
+        assertEquals(".. --", seatMap.getRows().get("10"));
+    }
+    
+    @Test
+    void getSeatMap_ShouldReuseSnapshot_UntilVersionMoves() {
+        // Given
+        when(aircraftLayoutService.getSeatingForFlight(1L)).thenReturn(new AircraftLayoutService.FlightSeating(layout, 1));
+        List<Integer> taken = new ArrayList<>();
+        when(seatRepository.findTakenOrdinals(1L)).thenReturn(taken);
+        SeatMapResponse first = seatMapService.getSeatMap(1L, 1L);
+        
+        // When
+        SeatMapResponse cached = seatMapService.getSeatMap(1L, 1L);
+        taken.add(layout.ordinal("9A"));
+        SeatMapResponse rebuilt = seatMapService.getSeatMap(1L, 2L);
+        
+        // Then
+        assertSame(first, cached);
+        assertEquals(".- --", first.getRows().get("9"));
+        assertEquals("X- --", rebuilt.getRows().get("9"));
+        verify(seatRepository, times(2)).findTakenOrdinals(1L);
+    }
+    
+    @Test
+    void getSeatMap_ShouldNotCacheNewFlights_WhenSnapshotLimitReached() {
+        // Given
+        ReflectionTestUtils.setField(seatMapService, "maxSnapshots", 1);
+        when(aircraftLayoutService.getSeatingForFlight(anyLong())).thenReturn(new AircraftLayoutService.FlightSeating(layout, 1));
+        seatMapService.getSeatMap(1L, 1L);
+        
+        // When
+        seatMapService.getSeatMap(2L, 1L);
+        seatMapService.getSeatMap(2L, 1L);
+        
+        // Then
+        assertEquals(1, seatMapService.getSnapshotCount());
+        verify(seatRepository, times(2)).findTakenOrdinals(2L);
+    }
+    
+    @Test
+    void evictDepartedFlights_ShouldKeepOnlyFlightsStillToDepart() {
+        // Given: flight 2 departed and flight 3 was deleted
+        when(aircraftLayoutService.getSeatingForFlight(anyLong())).thenReturn(new AircraftLayoutService.FlightSeating(layout, 1));
+        seatMapService.getSeatMap(1L, 1L);
+        seatMapService.getSeatMap(2L, 1L);
+        seatMapService.getSeatMap(3L, 1L);
+        when(flightRepository.findIdsDepartingAfter(anyCollection(), any(LocalDateTime.class)))
+            .thenReturn(Collections.singletonList(1L));
+        
+        // When
+        seatMapService.evictDepartedFlights();
+        
+        // Then
+        assertEquals(1, seatMapService.getSnapshotCount());
+        seatMapService.getSeatMap(1L, 1L);
+        verify(seatRepository, times(1)).findTakenOrdinals(1L);
+    }
+    
+    @Test
+    void getVersion_ShouldThrowException_WhenFlightNotFound() {
+        // Given
+        when(flightRepository.findSeatMapVersion(99L)).thenReturn(Optional.empty());
+        
+        // When & Then
+        assertThrows(FlightNotFoundException.class, () -> seatMapService.getVersion(99L));
+    }
+}
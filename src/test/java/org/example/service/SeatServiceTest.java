@@ -1,20 +1,34 @@
 package org.example.service;
 
 import org.example.exception.SeatNotAvailableException;
+import org.example.model.AircraftLayout;
 import org.example.model.Seat;
 import org.example.repository.SeatRepository;
+import org.example.enums.SeatFallbackPolicy;
 import org.example.enums.SeatStatus;
+import org.example.util.SeatAllocator;
 import org.example.util.TestDataBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntUnaryOperator;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -26,24 +40,38 @@ class SeatServiceTest {
     @Mock
     private SeatRepository seatRepository;
     
+    @Mock
+    private AircraftLayoutService aircraftLayoutService;
+    
+    @Spy
+    private BookingMetrics bookingMetrics = new BookingMetrics();
+    
+    private SimpleMeterRegistry meterRegistry;
+    
     @InjectMocks
     private SeatService seatService;
     
     private List<Seat> testSeats;
     private Long testFlightId;
+    private AircraftLayout layout;
+    private AircraftLayoutService.FlightSeating seating;
     
     @BeforeEach
     void setUp() {
         testFlightId = 1L;
         testSeats = TestDataBuilder.createSeatsForFlight(testFlightId, 5);
+        layout = TestDataBuilder.createLayout();
+        seating = new AircraftLayoutService.FlightSeating(layout, 180);
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(bookingMetrics, "meterRegistry", meterRegistry);
     }
     
     @Test
     void getAvailableSeatsSequentially_ShouldReturnAvailableSeats_WhenSeatsExist() {
         // Given
         int requestedSeats = 3;
-        when(seatRepository.findAvailableSeatsByFlightId(testFlightId, SeatStatus.AVAILABLE))
-            .thenReturn(testSeats);
+        when(aircraftLayoutService.getSeatingForFlight(testFlightId)).thenReturn(seating);
+        when(seatRepository.findTakenOrdinals(testFlightId)).thenReturn(Collections.emptyList());
         
         // When
         List<Seat> result = seatService.getAvailableSeatsSequentially(testFlightId, requestedSeats);
@@ -51,129 +79,86 @@ class SeatServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(requestedSeats, result.size());
-        assertEquals("A1", result.get(0).getSeatId());
-        assertEquals("A2", result.get(1).getSeatId());
-        assertEquals("A3", result.get(2).getSeatId());
+        assertEquals(Integer.valueOf(0), result.get(0).getOrdinal());
+        assertEquals(Integer.valueOf(1), result.get(1).getOrdinal());
+        assertEquals(Integer.valueOf(2), result.get(2).getOrdinal());
+        assertTrue(result.get(0).isAvailable());
         
-        verify(seatRepository).findAvailableSeatsByFlightId(testFlightId, SeatStatus.AVAILABLE);
+        verify(seatRepository).findTakenOrdinals(testFlightId);
     }
     
     @Test
     void getAvailableSeatsSequentially_ShouldThrowException_WhenNotEnoughSeats() {
         // Given
         int requestedSeats = 10;
-        when(seatRepository.findAvailableSeatsByFlightId(testFlightId, SeatStatus.AVAILABLE))
-            .thenReturn(testSeats);
+        when(aircraftLayoutService.getSeatingForFlight(testFlightId)).thenReturn(seating);
+        when(seatRepository.findTakenOrdinals(testFlightId)).thenReturn(takenExcept("1A", "1B", "1C", "1D", "1E"));
         
         // When & Then
         assertThrows(SeatNotAvailableException.class, () -> 
             seatService.getAvailableSeatsSequentially(testFlightId, requestedSeats));
-        verify(seatRepository).findAvailableSeatsByFlightId(testFlightId, SeatStatus.AVAILABLE);
+        verify(seatRepository).findTakenOrdinals(testFlightId);
     }
     
     @Test
     void getAvailableSeatsSequentially_ShouldReturnEmptyList_WhenNoSeatsAvailable() {
         // Given
         int requestedSeats = 3;
-        when(seatRepository.findAvailableSeatsByFlightId(testFlightId, SeatStatus.AVAILABLE))
-            .thenReturn(Arrays.asList());
+        when(aircraftLayoutService.getSeatingForFlight(testFlightId)).thenReturn(seating);
+        when(seatRepository.findTakenOrdinals(testFlightId)).thenReturn(takenExcept());
         
         // When & Then
         assertThrows(SeatNotAvailableException.class, () -> 
             seatService.getAvailableSeatsSequentially(testFlightId, requestedSeats));
-        verify(seatRepository).findAvailableSeatsByFlightId(testFlightId, SeatStatus.AVAILABLE);
+        verify(seatRepository).findTakenOrdinals(testFlightId);
     }
     
     @Test
-    void lockSeat_ShouldLockSeat_WhenSeatExists() {
+    void getAvailableSeatsCount_ShouldSubtractTakenSeatsFromCapacity() {
         // Given
-        String seatId = "A1";
-        Seat seat = TestDataBuilder.createSeat();
-        seat.setSeatId(seatId);
-        seat.setStatus(SeatStatus.AVAILABLE);
-        
-        when(seatRepository.findAvailableSeatByFlightIdAndSeatId(testFlightId, seatId, SeatStatus.AVAILABLE))
-            .thenReturn(Optional.of(seat));
-        when(seatRepository.save(any(Seat.class)))
-            .thenReturn(seat);
+        when(aircraftLayoutService.getSeatingForFlight(testFlightId)).thenReturn(seating);
+        when(seatRepository.countTakenSeats(testFlightId)).thenReturn(7L);
         
         // When
-        Seat result = seatService.lockSeat(testFlightId, seatId);
+        Long result = seatService.getAvailableSeatsCount(testFlightId);
         
         // Then
-        assertNotNull(result);
-        assertEquals(SeatStatus.LOCKED, result.getStatus());
-        verify(seatRepository).findAvailableSeatByFlightIdAndSeatId(testFlightId, seatId, SeatStatus.AVAILABLE);
-        verify(seatRepository).save(seat);
-    }
-    
-    @Test
-    void lockSeat_ShouldThrowException_WhenSeatNotFound() {
-        // Given
-        String seatId = "Z99";
-        when(seatRepository.findAvailableSeatByFlightIdAndSeatId(testFlightId, seatId, SeatStatus.AVAILABLE))
-            .thenReturn(Optional.empty());
-        
-        // When & Then
-        assertThrows(IllegalArgumentException.class, () -> 
-            seatService.lockSeat(testFlightId, seatId));
-        verify(seatRepository).findAvailableSeatByFlightIdAndSeatId(testFlightId, seatId, SeatStatus.AVAILABLE);
-        verify(seatRepository, never()).save(any(Seat.class));
+        assertEquals(Long.valueOf(173L), result);
     }
     
     @Test
-    void lockSeat_ShouldThrowException_WhenSeatAlreadyOccupied() {
+    void holdSeats_ShouldHoldRequestedSeatUntilTtl() {
         // Given
-        String seatId = "A1";
-        Seat seat = TestDataBuilder.createSeat();
-        seat.setSeatId(seatId);
-        seat.setStatus(SeatStatus.OCCUPIED);
+        when(aircraftLayoutService.getSeatingForFlight(testFlightId)).thenReturn(seating);
+        when(seatRepository.insertHold(eq(testFlightId), eq(0), eq("BK1"), any(LocalDateTime.class)))
+            .thenReturn(1);
         
-        when(seatRepository.findAvailableSeatByFlightIdAndSeatId(testFlightId, seatId, SeatStatus.AVAILABLE))
-            .thenReturn(Optional.empty());
+        // When
+        ReflectionTestUtils.setField(seatService, "holdTtl", 60000L);
+        List<String> held = seatService.holdSeats(testFlightId, 1, Collections.singletonList("1A"), SeatFallbackPolicy.FAIL, "BK1");
         
-        // When & Then
-        assertThrows(IllegalArgumentException.class, () -> 
-            seatService.lockSeat(testFlightId, seatId));
-        verify(seatRepository).findAvailableSeatByFlightIdAndSeatId(testFlightId, seatId, SeatStatus.AVAILABLE);
-        verify(seatRepository, never()).save(any(Seat.class));
+        // Then
+        ArgumentCaptor<LocalDateTime> expiresAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(seatRepository).insertHold(eq(testFlightId), eq(0), eq("BK1"), expiresAt.capture());
+        assertTrue(expiresAt.getValue().isAfter(LocalDateTime.now().plusSeconds(50)));
+        assertEquals(Collections.singletonList("1A"), held);
+        verify(seatRepository, never()).holdStoredSeat(anyLong(), anyInt(), anyString(), any(LocalDateTime.class));
     }
     
     @Test
-    void releaseSeat_ShouldReleaseSeat_WhenSeatExists() {
+    void holdSeats_ShouldTakeOverStoredAvailableRow_WhenFlightIsNotMigrated() {
         // Given
-        String seatId = "A1";
-        Seat seat = TestDataBuilder.createSeat();
-        seat.setSeatId(seatId);
-        seat.setStatus(SeatStatus.OCCUPIED);
-        
-        when(seatRepository.findByFlightIdAndSeatId(testFlightId, seatId))
-            .thenReturn(Optional.of(seat));
-        when(seatRepository.save(any(Seat.class)))
-            .thenReturn(seat);
+        when(aircraftLayoutService.getSeatingForFlight(testFlightId)).thenReturn(seating);
+        when(seatRepository.insertHold(eq(testFlightId), eq(0), eq("BK1"), any(LocalDateTime.class)))
+            .thenReturn(0);
+        when(seatRepository.holdStoredSeat(eq(testFlightId), eq(0), eq("BK1"), any(LocalDateTime.class)))
+            .thenReturn(1);
         
         // When
-        Seat result = seatService.releaseSeat(testFlightId, seatId);
+        List<String> held = seatService.holdSeats(testFlightId, 1, Collections.singletonList("1A"), SeatFallbackPolicy.FAIL, "BK1");
         
         // Then
-        assertNotNull(result);
-        assertEquals(SeatStatus.AVAILABLE, result.getStatus());
-        verify(seatRepository).findByFlightIdAndSeatId(testFlightId, seatId);
-        verify(seatRepository).save(seat);
-    }
-    
-    @Test
-    void releaseSeat_ShouldThrowException_WhenSeatNotFound() {
-        // Given
-        String seatId = "Z99";
-        when(seatRepository.findByFlightIdAndSeatId(testFlightId, seatId))
-            .thenReturn(Optional.empty());
-        
-        // When & Then
-        assertThrows(IllegalArgumentException.class, () -> 
-            seatService.releaseSeat(testFlightId, seatId));
-        verify(seatRepository).findByFlightIdAndSeatId(testFlightId, seatId);
-        verify(seatRepository, never()).save(any(Seat.class));
+        assertEquals(Collections.singletonList("1A"), held);
     }
     
     @Test
@@ -207,36 +192,187 @@ class SeatServiceTest {
     }
     
     @Test
-    void isSeatAvailable_ShouldReturnTrue_WhenSeatIsAvailable() {
+    void isSeatAvailable_ShouldReturnTrue_WhenSeatHasNoRow() {
         // Given
-        String seatId = "A1";
-        Seat seat = TestDataBuilder.createSeat();
-        seat.setSeatId(seatId);
-        seat.setStatus(SeatStatus.AVAILABLE);
-        
-        when(seatRepository.findAvailableSeatByFlightIdAndSeatId(testFlightId, seatId, SeatStatus.AVAILABLE))
-            .thenReturn(Optional.of(seat));
+        String seatId = "1A";
+        when(aircraftLayoutService.getSeatingForFlight(testFlightId)).thenReturn(seating);
+        when(seatRepository.findByFlightIdAndOrdinal(testFlightId, 0))
+            .thenReturn(Optional.empty());
         
         // When
         boolean result = seatService.isSeatAvailable(testFlightId, seatId);
         
         // Then
         assertTrue(result);
-        verify(seatRepository).findAvailableSeatByFlightIdAndSeatId(testFlightId, seatId, SeatStatus.AVAILABLE);
+        verify(seatRepository).findByFlightIdAndOrdinal(testFlightId, 0);
     }
     
     @Test
     void isSeatAvailable_ShouldReturnFalse_WhenSeatIsNotAvailable() {
         // Given
-        String seatId = "A1";
-        when(seatRepository.findAvailableSeatByFlightIdAndSeatId(testFlightId, seatId, SeatStatus.AVAILABLE))
-            .thenReturn(Optional.empty());
+        String seatId = "1A";
+        Seat seat = TestDataBuilder.createSeat();
+        seat.setStatus(SeatStatus.OCCUPIED);
+        when(aircraftLayoutService.getSeatingForFlight(testFlightId)).thenReturn(seating);
+        when(seatRepository.findByFlightIdAndOrdinal(testFlightId, 0))
+            .thenReturn(Optional.of(seat));
         
         // When
         boolean result = seatService.isSeatAvailable(testFlightId, seatId);
         
         // Then
         assertFalse(result);
-        verify(seatRepository).findAvailableSeatByFlightIdAndSeatId(testFlightId, seatId, SeatStatus.AVAILABLE);
+        verify(seatRepository).findByFlightIdAndOrdinal(testFlightId, 0);
+    }
+    
+    @Test
+    void holdSeats_ShouldFail_WhenRequestedSeatTakenAndPolicyIsFail() {
+        // Given
+        when(aircraftLayoutService.getSeatingForFlight(testFlightId)).thenReturn(seating);
+        when(seatRepository.insertHold(eq(testFlightId), eq(0), eq("BK1"), any(LocalDateTime.class)))
+            .thenReturn(0);
+        
+        // When & Then
+        assertThrows(SeatNotAvailableException.class, () ->
+            seatService.holdSeats(testFlightId, 2, Arrays.asList("1A", "1B"), SeatFallbackPolicy.FAIL, "BK1"));
+        verify(seatRepository, never()).findTakenOrdinals(anyLong());
+    }
+    
+    @Test
+    void holdSeats_ShouldAssignAnotherSeat_WhenRequestedSeatTakenAndPolicyAllowsIt() {
+        // Given
+        when(aircraftLayoutService.getSeatingForFlight(testFlightId)).thenReturn(seating);
+        when(seatRepository.insertHold(eq(testFlightId), anyInt(), eq("BK1"), any(LocalDateTime.class)))
+            .thenAnswer(invocation -> Integer.valueOf(0).equals(invocation.getArgument(1)) ? 0 : 1);
+        when(seatRepository.findTakenOrdinals(testFlightId)).thenReturn(takenExcept("1E"));
+        
+        // When
+        List<String> held = seatService.holdSeats(testFlightId, 2, Arrays.asList("1A", "1b"),
+            SeatFallbackPolicy.ANY_AVAILABLE, "BK1");
+        
+        // Then
+        assertEquals(Arrays.asList("1B", "1E"), held);
+    }
+    
+    @Test
+    void holdSeats_ShouldSkipSeatsClaimedConcurrently() {
+        // Given
+        when(aircraftLayoutService.getSeatingForFlight(testFlightId)).thenReturn(seating);
+        when(seatRepository.findTakenOrdinals(testFlightId)).thenReturn(takenExcept("1A", "1B", "1C", "1D", "1E"));
+        // Every other seat is claimed by someone else between the read and the hold
+        when(seatRepository.insertHold(eq(testFlightId), anyInt(), eq("BK1"), any(LocalDateTime.class)))
+            .thenReturn(0, 1, 0, 1, 0, 1);
+        
+        // When
+        List<String> held = seatService.holdSeats(testFlightId, 2, null, SeatFallbackPolicy.FAIL, "BK1");
+        
+        // Then
+        assertEquals(2, held.size());
+        verify(seatRepository, times(4)).insertHold(eq(testFlightId), anyInt(), eq("BK1"), any(LocalDateTime.class));
+    }
+    
+    @Test
+    void holdSeats_ShouldThrowException_WhenCabinRunsOut() {
+        // Given
+        when(aircraftLayoutService.getSeatingForFlight(testFlightId)).thenReturn(seating);
+        when(seatRepository.findTakenOrdinals(testFlightId)).thenReturn(takenExcept("1A"));
+        
+        // When & Then
+        assertThrows(SeatNotAvailableException.class, () ->
+            seatService.holdSeats(testFlightId, 2, null, SeatFallbackPolicy.FAIL, "BK1"));
+    }
+    
+    @Test
+    void holdSeats_ShouldKeepPartyInOneRow_WhenRowHasRoom() {
+        // Given: row 1 has only two seats left, row 2 is empty
+        when(aircraftLayoutService.getSeatingForFlight(testFlightId)).thenReturn(seating);
+        when(seatRepository.findTakenOrdinals(testFlightId))
+            .thenReturn(takenExcept("1B", "1E", "2A", "2B", "2C", "2D", "2E", "2F"));
+        when(seatRepository.insertHold(eq(testFlightId), anyInt(), eq("BK1"), any(LocalDateTime.class)))
+            .thenReturn(1);
+        
+        // When
+        List<String> held = seatService.holdSeats(testFlightId, 3, null, SeatFallbackPolicy.FAIL, "BK1");
+        
+        // Then
+        assertEquals(Arrays.asList("2A", "2B", "2C"), held);
+    }
+    
+    @Test
+    void holdSeats_ShouldFail_WhenRequestedSeatIsNotOnAircraft() {
+        // Given
+        when(aircraftLayoutService.getSeatingForFlight(testFlightId)).thenReturn(seating);
+        
+        // When & Then
+        assertThrows(SeatNotAvailableException.class, () ->
+            seatService.holdSeats(testFlightId, 1, Collections.singletonList("1G"), SeatFallbackPolicy.FAIL, "BK1"));
+        verify(seatRepository, never()).insertHold(anyLong(), anyInt(), anyString(), any(LocalDateTime.class));
+    }
+    
+    @Test
+    void getAvailableSeatsSequentially_ShouldOrderSeatsFrontToBack() {
+        // Given
+        when(aircraftLayoutService.getSeatingForFlight(testFlightId)).thenReturn(seating);
+        when(seatRepository.findTakenOrdinals(testFlightId)).thenReturn(takenExcept("10A", "2A", "1F"));
+        
+        // When
+        List<Seat> seats = seatService.getAvailableSeatsSequentially(testFlightId, 3);
+        
+        // Then
+        assertEquals("1F", layout.seatId(seats.get(0).getOrdinal()));
+        assertEquals("2A", layout.seatId(seats.get(1).getOrdinal()));
+        assertEquals("10A", layout.seatId(seats.get(2).getOrdinal()));
+    }
+    
+    @Test
+    void allocation_ShouldCutFirstChoiceCollisions_ComparedToSequentialAllocation() {
+        // Given: 40 bookers of two seats each all read the same empty 30-row cabin at once
+        Random random = new Random(42);
+        
+        // When
+        double sequential = firstChoiceCollisionRate(40, 2, booker -> 0);
+        double randomized = firstChoiceCollisionRate(40, 2, booker -> random.nextInt(30));
+        
+        // Then: sequential bookers all want the same first seats, randomized ones mostly do not
+        assertEquals(39.0 / 40, sequential, 1e-9);
+        assertTrue(randomized < 0.6, "randomized collision rate was " + randomized);
+    }
+    
+    /**
+     * Share of bookers whose first-choice seats overlap a seat already picked by an earlier booker,
+     * i.e. who would lose at least one conditional hold and have to allocate again.
+     */
+    private double firstChoiceCollisionRate(int bookers, int seatsEach, IntUnaryOperator startRowFor) {
+        Set<Integer> claimed = new HashSet<>();
+        int collisions = 0;
+        for (int booker = 0; booker < bookers; booker++) {
+            SeatAllocator snapshot = new SeatAllocator(30, 6);
+            for (int ordinal = 0; ordinal < 180; ordinal++) {
+                snapshot.release(ordinal);
+            }
+            boolean collided = false;
+            for (int ordinal : snapshot.allocate(seatsEach, startRowFor.applyAsInt(booker))) {
+                collided |= !claimed.add(ordinal);
+            }
+            if (collided) {
+                collisions++;
+            }
+        }
+        return (double) collisions / bookers;
+    }
+    
+    // Every seat the flight sells except the given ones has a row
+    private List<Integer> takenExcept(String... freeSeatIds) {
+        Set<Integer> free = new HashSet<>();
+        for (String seatId : freeSeatIds) {
+            free.add(layout.ordinal(seatId));
+        }
+        List<Integer> taken = new ArrayList<>();
+        for (int ordinal : layout.seatOrdinals(180)) {
+            if (!free.contains(ordinal)) {
+                taken.add(ordinal);
+            }
+        }
+        return taken;
     }
 }
@@ -0,0 +1,121 @@
+package org.example.util;
+
+import org.example.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+    
+    private static final long MILLIS = 1_000_000L;
+    
+    @Test
+    void execute_ShouldShedImmediately_WhenLimitReached() throws Exception {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, 1, 4, 100, 0.5, 10, 60000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<String> holder = executor.submit(() -> limiter.execute(() -> {
+            started.countDown();
+            awaitQuietly(release);
+            return "holder";
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        
+        // When & Then
+        assertThrows(ServiceOverloadedException.class, () -> limiter.execute(() -> "rejected"));
+        assertEquals(1, limiter.getRejectedCount());
+        release.countDown();
+        assertEquals("holder", holder.get(5, TimeUnit.SECONDS));
+        assertEquals("next", limiter.execute(() -> "next"));
+        assertEquals(0, limiter.getInFlight());
+        executor.shutdown();
+    }
+    
+    @Test
+    void release_ShouldShrinkLimit_WhenP99ExceedsThreshold() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 20, 2, 40, 100, 0.5, 100, 60000);
+        
+        // When - two slow calls in a hundred put the p99 over the threshold
+        for (int i = 0; i < 98; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(10 * MILLIS);
+        }
+        for (int i = 0; i < 2; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(500 * MILLIS);
+        }
+        
+        // Then
+        assertEquals(10, limiter.getLimit());
+    }
+    
+    @Test
+    void release_ShouldNotShrinkBelowMinimum() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 4, 3, 40, 100, 0.5, 10, 60000);
+        
+        // When
+        for (int window = 0; window < 5; window++) {
+            for (int i = 0; i < 10; i++) {
+                assertTrue(limiter.tryAcquire());
+                limiter.release(500 * MILLIS);
+            }
+        }
+        
+        // Then
+        assertEquals(3, limiter.getLimit());
+    }
+    
+    @Test
+    void release_ShouldGrowLimit_WhenHealthyAndSaturated() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 3, 100, 0.5, 4, 60000);
+        
+        // When - two windows that each hit the limit with fast calls
+        for (int window = 0; window < 2; window++) {
+            assertTrue(limiter.tryAcquire());
+            assertTrue(limiter.tryAcquire());
+            limiter.release(MILLIS);
+            limiter.release(MILLIS);
+            assertTrue(limiter.tryAcquire());
+            limiter.release(MILLIS);
+            assertTrue(limiter.tryAcquire());
+            limiter.release(MILLIS);
+        }
+        
+        // Then - grows by one per window, capped at the maximum
+        assertEquals(3, limiter.getLimit());
+    }
+    
+    @Test
+    void release_ShouldHoldLimit_WhenHealthyButUnderused() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 1, 40, 100, 0.5, 10, 60000);
+        
+        // When
+        for (int i = 0; i < 30; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(MILLIS);
+        }
+        
+        // Then
+        assertEquals(10, limiter.getLimit());
+    }
+    
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeistelPermutationTest {
+    
+    @Test
+    void permute_ShouldMapEveryValueToADistinctValue() {
+        // Given
+        FeistelPermutation permutation = new FeistelPermutation(16, 42L);
+        BitSet seen = new BitSet(1 << 16);
+        
+        // When
+        for (int value = 0; value < 1 << 16; value++) {
+            long permuted = permutation.permute(value);
+            assertTrue(permuted >= 0 && permuted < 1 << 16, "Out of range: " + permuted);
+            seen.set((int) permuted);
+        }
+        
+        // Then
+        assertEquals(1 << 16, seen.cardinality());
+    }
+    
+    @Test
+    void permute_ShouldScatterConsecutiveValuesByKey() {
+        // Given
+        FeistelPermutation permutation = new FeistelPermutation(30, 42L);
+        FeistelPermutation otherKey = new FeistelPermutation(30, 43L);
+        
+        // When
+        long first = permutation.permute(1000);
+        long second = permutation.permute(1001);
+        
+        // Then
+        assertTrue(Math.abs(first - second) > 1024, first + " and " + second + " are neighbours");
+        assertEquals(first, new FeistelPermutation(30, 42L).permute(1000));
+        assertNotEquals(first, otherKey.permute(1000));
+    }
+    
+    @Test
+    void constructor_ShouldRejectOddWidth() {
+        assertThrows(IllegalArgumentException.class, () -> new FeistelPermutation(31, 42L));
+    }
+}
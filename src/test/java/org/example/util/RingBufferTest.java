@@ -0,0 +1,101 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferTest {
+    
+    @Test
+    void poll_ShouldDeliverEveryEventInPerProducerOrder_WhenProducersRace() throws Exception {
+        // Given
+        RingBuffer<long[]> ringBuffer = new RingBuffer<>(64, () -> new long[2]);
+        int producers = 4;
+        int perProducer = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    long sequence = ringBuffer.claim(5, TimeUnit.SECONDS);
+                    long[] slot = ringBuffer.get(sequence);
+                    slot[0] = producer;
+                    slot[1] = i;
+                    ringBuffer.publish(sequence);
+                }
+            }));
+        }
+        
+        // When
+        long[] lastSeen = {-1, -1, -1, -1};
+        int[] received = {0};
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (received[0] < producers * perProducer && System.nanoTime() < deadline) {
+            ringBuffer.poll(16, (slot, sequence, endOfBatch) -> {
+                int producer = (int) slot[0];
+                assertEquals(lastSeen[producer] + 1, slot[1]);
+                lastSeen[producer] = slot[1];
+                received[0]++;
+            });
+        }
+        
+        // Then
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertEquals(producers * perProducer, received[0]);
+        assertEquals(0, ringBuffer.size());
+    }
+    
+    @Test
+    void claim_ShouldTimeOut_WhenBufferIsFull() {
+        // Given
+        RingBuffer<long[]> ringBuffer = new RingBuffer<>(4, () -> new long[1]);
+        for (int i = 0; i < 4; i++) {
+            ringBuffer.publish(ringBuffer.claim(0, TimeUnit.MILLISECONDS));
+        }
+        
+        // When & Then
+        assertEquals(-1, ringBuffer.claim(10, TimeUnit.MILLISECONDS));
+        assertEquals(4, ringBuffer.poll(8, (slot, sequence, endOfBatch) -> { }));
+        assertEquals(4, ringBuffer.claim(0, TimeUnit.MILLISECONDS));
+    }
+    
+    @Test
+    void poll_ShouldStopAtUnpublishedSlot_AndRespectMaxBatch() {
+        // Given
+        RingBuffer<long[]> ringBuffer = new RingBuffer<>(8, () -> new long[1]);
+        long first = ringBuffer.claim(0, TimeUnit.MILLISECONDS);
+        long second = ringBuffer.claim(0, TimeUnit.MILLISECONDS);
+        long third = ringBuffer.claim(0, TimeUnit.MILLISECONDS);
+        ringBuffer.publish(first);
+        ringBuffer.publish(third);
+        List<Boolean> endOfBatchFlags = new ArrayList<>();
+        
+        // When - the second claim is still being filled, so only the first is visible
+        int drained = ringBuffer.poll(8, (slot, sequence, endOfBatch) -> endOfBatchFlags.add(endOfBatch));
+        ringBuffer.publish(second);
+        int drainedAfter = ringBuffer.poll(1, (slot, sequence, endOfBatch) -> endOfBatchFlags.add(endOfBatch));
+        
+        // Then
+        assertEquals(1, drained);
+        assertEquals(1, drainedAfter);
+        assertEquals(1, ringBuffer.size());
+        assertTrue(endOfBatchFlags.get(0));
+        assertTrue(endOfBatchFlags.get(1));
+    }
+    
+    @Test
+    void constructor_ShouldRejectCapacityThatIsNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(100, () -> new long[1]));
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatAllocatorTest {
+    
+    @Test
+    void allocate_ShouldTakeContiguousBlock_FromStartRow() {
+        // Given
+        SeatAllocator allocator = cabin(3, 6, "......", "......", "......");
+        
+        // When
+        int[] seats = allocator.allocate(3, 1);
+        
+        // Then
+        assertArrayEquals(new int[] {6, 7, 8}, seats);
+        assertEquals(15, allocator.getFreeSeats());
+    }
+    
+    @Test
+    void allocate_ShouldSkipRowsWithoutLongEnoughRun() {
+        // Given: row 0 has four free seats but no run of three
+        SeatAllocator allocator = cabin(2, 6, "..X..X", "XXX...");
+        
+        // When
+        int[] seats = allocator.allocate(3, 0);
+        
+        // Then
+        assertArrayEquals(new int[] {9, 10, 11}, seats);
+    }
+    
+    @Test
+    void allocate_ShouldKeepPartyInSameRow_WhenNoContiguousRunFits() {
+        // Given
+        SeatAllocator allocator = cabin(2, 6, ".X.X.X", "X.XXX.");
+        
+        // When
+        int[] seats = allocator.allocate(3, 0);
+        
+        // Then
+        assertArrayEquals(new int[] {0, 2, 4}, seats);
+    }
+    
+    @Test
+    void allocate_ShouldUseLargestRunsAndNeighbouringRows_WhenCabinIsFragmented() {
+        // Given
+        SeatAllocator allocator = cabin(4, 6, "X..XXX", "XXXX.X", "...XXX", "XXXX..");
+        
+        // When
+        int[] seats = allocator.allocate(5, 1);
+        
+        // Then: the run of three in row 2 first, then the next run of two after it
+        assertArrayEquals(new int[] {12, 13, 14, 22, 23}, seats);
+        assertEquals(3, allocator.getFreeSeats());
+    }
+    
+    @Test
+    void allocate_ShouldSpanRows_WhenPartyIsWiderThanCabin() {
+        // Given
+        SeatAllocator allocator = cabin(3, 6, "XXXXXX", "......", "......");
+        
+        // When
+        int[] seats = allocator.allocate(9, 0);
+        
+        // Then
+        assertArrayEquals(new int[] {6, 7, 8, 9, 10, 11, 12, 13, 14}, seats);
+    }
+    
+    @Test
+    void allocate_ShouldReturnNull_WhenNotEnoughSeatsAreFree() {
+        // Given
+        SeatAllocator allocator = cabin(1, 6, "XX.XX.");
+        
+        // When & Then
+        assertNull(allocator.allocate(3, 0));
+        assertEquals(2, allocator.getFreeSeats());
+    }
+    
+    @Test
+    void take_ShouldRemoveSeatFromLaterAllocations() {
+        // Given
+        SeatAllocator allocator = cabin(1, 6, "......");
+        
+        // When
+        allocator.take(1);
+        int[] seats = allocator.allocate(2, 0);
+        
+        // Then
+        assertArrayEquals(new int[] {2, 3}, seats);
+    }
+    
+    private static SeatAllocator cabin(int rows, int columns, String... layout) {
+        SeatAllocator allocator = new SeatAllocator(rows, columns);
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                if (layout[row].charAt(column) == '.') {
+                    allocator.release(row * columns + column);
+                }
+            }
+        }
+        return allocator;
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.util;
+
+import org.example.exception.FlightNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+    
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    
+    @Test
+    void load_ShouldShareFailure_WhenInFlightLoadThrows() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<String> leader = executor.submit(() -> singleFlight.load("key", () -> {
+            started.countDown();
+            awaitQuietly(release);
+            throw new FlightNotFoundException(1L);
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        Future<String> follower = executor.submit(() -> singleFlight.load("key", () -> "unused"));
+        Thread.sleep(100);
+        
+        // When
+        release.countDown();
+        
+        // Then
+        Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerFailure = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertTrue(leaderFailure.getCause() instanceof FlightNotFoundException);
+        assertTrue(followerFailure.getCause() instanceof FlightNotFoundException);
+        assertEquals(1, singleFlight.getLoadCount());
+        assertEquals(1, singleFlight.getCoalescedCount());
+        executor.shutdown();
+    }
+    
+    @Test
+    void load_ShouldLoadAgain_WhenPreviousLoadFinished() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        
+        // When
+        singleFlight.load("key", () -> "v" + loads.incrementAndGet());
+        String second = singleFlight.load("key", () -> "v" + loads.incrementAndGet());
+        
+        // Then
+        assertEquals("v2", second);
+        assertEquals(2, singleFlight.getLoadCount());
+        assertEquals(0, singleFlight.getCoalescedCount());
+    }
+    
+    @Test
+    void load_ShouldNotCoalesce_WhenKeysDiffer() throws Exception {
+        // Given
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Future<String>> results = new ArrayList<>();
+        
+        // When
+        for (String key : new String[] {"a", "b"}) {
+            results.add(executor.submit(() -> singleFlight.load(key, () -> {
+                bothStarted.countDown();
+                awaitQuietly(bothStarted);
+                return key;
+            })));
+        }
+        
+        // Then
+        assertEquals("a", results.get(0).get(5, TimeUnit.SECONDS));
+        assertEquals("b", results.get(1).get(5, TimeUnit.SECONDS));
+        assertEquals(2, singleFlight.getLoadCount());
+        executor.shutdown();
+    }
+    
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
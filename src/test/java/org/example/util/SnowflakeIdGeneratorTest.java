@@ -0,0 +1,93 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+    
+    private static final long EPOCH = 1704067200000L;
+    
+    @Test
+    void nextId_ShouldBeUniqueAcrossThreads() throws Exception {
+        // Given
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, EPOCH);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<long[]>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            workers.add(() -> {
+                long[] ids = new long[20000];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = generator.nextId();
+                }
+                return ids;
+            });
+        }
+        
+        // When
+        Set<Long> ids = new HashSet<>();
+        for (Future<long[]> result : executor.invokeAll(workers)) {
+            long previous = Long.MIN_VALUE;
+            for (long id : result.get()) {
+                assertTrue(id > previous, "Ids from one thread must increase");
+                previous = id;
+                ids.add(id);
+            }
+        }
+        executor.shutdown();
+        
+        // Then
+        assertEquals(8 * 20000, ids.size());
+    }
+    
+    @Test
+    void nextId_ShouldBorrowNextMillisecond_WhenSequenceRunsOut() {
+        // Given: a clock stuck on one millisecond
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, EPOCH, () -> EPOCH + 1000);
+        
+        // When
+        long last = 0;
+        for (int i = 0; i < 4097; i++) {
+            long id = generator.nextId();
+            assertTrue(id > last);
+            last = id;
+        }
+        
+        // Then
+        assertEquals(1001, last >>> 22);
+        assertEquals(1, (last >>> 12) & 1023);
+        assertEquals(0, last & 4095);
+    }
+    
+    @Test
+    void nextId_ShouldKeepIncreasing_WhenClockStepsBack() {
+        // Given
+        AtomicLong clock = new AtomicLong(EPOCH + 5000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, EPOCH, clock::get);
+        long before = generator.nextId();
+        
+        // When
+        clock.set(EPOCH + 4000);
+        long after = generator.nextId();
+        
+        // Then
+        assertTrue(after > before);
+        assertEquals(5000, after >>> 22);
+    }
+    
+    @Test
+    void constructor_ShouldRejectNodeIdOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(1024, EPOCH));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1, EPOCH));
+    }
+}
@@ -3,6 +3,7 @@ package org.example.util;
 import org.example.dto.BookingRequest;
 import org.example.dto.FlightRequest;
 import org.example.dto.SearchFlightRequest;
+import org.example.model.AircraftLayout;
 import org.example.model.Booking;
 import org.example.model.Flight;
 import org.example.model.Seat;
@@ -51,6 +52,7 @@ public class TestDataBuilder {
         flight.setPrice(new BigDecimal("299.99"));
         flight.setMaxPassengers(150);
         flight.setAvailableSeats(150);
+        flight.setLayoutId(1L);
         flight.setStatus(FlightStatus.SCHEDULED);
         flight.setCreatedAt(LocalDateTime.now());
         flight.setUpdatedAt(LocalDateTime.now());
@@ -110,11 +112,22 @@ public class TestDataBuilder {
         return request;
     }
     
+    public static AircraftLayout createLayout() {
+        AircraftLayout layout = new AircraftLayout();
+        layout.setId(1L);
+        layout.setAircraftType("GENERIC-30x6");
+        layout.setRowCount(30);
+        layout.setFirstRow(1);
+        layout.setColumnLetters("ABC DEF");
+        layout.setCreatedAt(LocalDateTime.now());
+        return layout;
+    }
+    
     public static Seat createSeat() {
         Seat seat = new Seat();
         seat.setId(1L);
         seat.setFlightId(1L);
-        seat.setSeatId("A1");
+        seat.setOrdinal(0);
         seat.setStatus(SeatStatus.AVAILABLE);
         seat.setCreatedAt(LocalDateTime.now());
         seat.setUpdatedAt(LocalDateTime.now());
@@ -127,7 +140,7 @@ public class TestDataBuilder {
             Seat seat = new Seat();
             seat.setId((long) i);
             seat.setFlightId(flightId);
-            seat.setSeatId("A" + i);
+            seat.setOrdinal(i - 1);
             seat.setStatus(SeatStatus.AVAILABLE);
             seat.setCreatedAt(LocalDateTime.now());
             seat.setUpdatedAt(LocalDateTime.now());